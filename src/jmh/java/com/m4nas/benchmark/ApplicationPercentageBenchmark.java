@@ -0,0 +1,81 @@
+package com.m4nas.benchmark;
+
+import com.m4nas.model.UserApplication;
+import com.m4nas.service.SeatAllocationEngine;
+import com.m4nas.service.UserApplicationServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percentage work done per applicant: calculatePercentages on submission and
+ * import, and the merit ordering (percentage12 DESC, submissionDate, id) that
+ * the merit pages get from the database and the seat allocation applies in
+ * memory. Synthetic marks with a fixed seed, including some null totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplicationPercentageBenchmark {
+
+    @Param({"10000"})
+    private int applicants;
+
+    private final UserApplicationServiceImpl service = new UserApplicationServiceImpl();
+    private UserApplication[] applications;
+    private List<SeatAllocationEngine.Candidate> candidates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(2025);
+        applications = new UserApplication[applicants];
+        candidates = new ArrayList<>(applicants);
+        for (int i = 0; i < applicants; i++) {
+            UserApplication application = new UserApplication();
+            int total10 = random.nextInt(20) == 0 ? 0 : 500;
+            application.setTotal10Marks(total10);
+            application.setObtain10Marks(random.nextInt(total10 + 1));
+            application.setTotal12Marks(random.nextInt(20) == 0 ? null : 600);
+            application.setObtain12Marks(random.nextInt(601));
+            applications[i] = application;
+
+            // A few equal percentages so the tie-breakers are exercised
+            Double percentage12 = random.nextInt(50) == 0 ? null : Math.round((40 + random.nextDouble() * 60) * 10) / 10.0;
+            candidates.add(new SeatAllocationEngine.Candidate(String.format("app%07d", i), "B.Tech", "CSE", "ECE",
+                    percentage12, LocalDate.of(2025, 5, 1).plusDays(random.nextInt(60))));
+        }
+    }
+
+    @Benchmark
+    public void calculatePercentages(Blackhole blackhole) {
+        for (UserApplication application : applications) {
+            service.calculatePercentages(application);
+            blackhole.consume(application.getPercentage12());
+        }
+    }
+
+    @Benchmark
+    public List<SeatAllocationEngine.Candidate> meritOrder() {
+        List<SeatAllocationEngine.Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(SeatAllocationEngine.MERIT_ORDER);
+        return sorted;
+    }
+}
@@ -0,0 +1,100 @@
+package com.m4nas.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result (-rf json) with a baseline recorded on the same
+ * machine and exits non-zero when any benchmark got worse by more than the
+ * tolerance, so a build step can fail on it:
+ *
+ * mvn -P benchmark exec:exec@compare [-Djmh.baseline=...] [-Djmh.tolerance=10]
+ *
+ * Benchmarks are matched by name and @Param values; higher is better for
+ * throughput modes, lower for the time modes. Benchmarks missing from either
+ * file are listed but do not fail the check. A missing baseline fails it, so
+ * a mistyped path or an unrecorded machine cannot pass as "no regressions".
+ */
+public class BenchmarkRegressionCheck {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkRegressionCheck <baseline.json> <result.json> [tolerance %]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        if (!resultFile.isFile()) {
+            System.err.println("No benchmark result at " + resultFile + "; run the benchmarks first");
+            System.exit(2);
+        }
+        if (!baselineFile.isFile()) {
+            System.err.println("No baseline at " + baselineFile + "; copy " + resultFile + " there to record one");
+            System.exit(2);
+        }
+
+        Map<String, JsonNode> baseline = scores(baselineFile);
+        Map<String, JsonNode> current = scores(resultFile);
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double old = before.path("primaryMetric").path("score").asDouble();
+            double now = after.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            // Positive change means slower, whichever way the mode counts
+            double change = old == 0 ? 0 : (higherIsBetter ? old - now : now - old) / old * 100;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "REGRESSED" : "ok",
+                    entry.getKey(), old, now, after.path("primaryMetric").path("scoreUnit").asText(), old == 0 ? 0 : (now - old) / old * 100);
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("NOT RUN    %s%n", name);
+            }
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> scores(File file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            scores.put(key(run), run);
+        }
+        return scores;
+    }
+
+    /** Benchmark method plus its parameters, e.g. ...allocate{applicants=100000}. */
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+        JsonNode params = run.path("params");
+        if (params.isObject()) {
+            Map<String, String> sorted = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                sorted.put(field.getKey(), field.getValue().asText());
+            }
+            key.append(sorted);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.m4nas.benchmark;
+
+import com.m4nas.util.BulkChangeParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the changes[i].* form fields posted by the seat and payment
+ * bulk edit tables, for a page-sized save and a whole-list save. The
+ * parameter map mimics the servlet one: a few unrelated fields (_csrf,
+ * filters) mixed in with three fields per changed row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkChangeParamsBenchmark {
+
+    @Param({"50", "2000"})
+    private int rows;
+
+    private Map<String, String[]> parameters;
+
+    @Setup
+    public void setUp() {
+        parameters = new LinkedHashMap<>();
+        parameters.put("_csrf", new String[]{"3f1c9e0a-7a52-4d8e-b0a4-5c2f6e9d1b77"});
+        parameters.put("course", new String[]{"B.Tech"});
+        parameters.put("page", new String[]{"0"});
+        for (int i = 0; i < rows; i++) {
+            parameters.put("changes[" + i + "].appId", new String[]{String.format("APP%013d", i)});
+            parameters.put("changes[" + i + "].field", new String[]{"branch"});
+            parameters.put("changes[" + i + "].value", new String[]{"CSE"});
+        }
+    }
+
+    @Benchmark
+    public Collection<Map<String, String>> parse() {
+        return BulkChangeParams.parse(parameters);
+    }
+}
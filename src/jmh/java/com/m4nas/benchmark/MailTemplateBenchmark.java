@@ -0,0 +1,104 @@
+package com.m4nas.benchmark;
+
+import com.m4nas.mail.MailTemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering one verification mail, as a bulk campaign would: the old
+ * read-and-replace code, the precompiled placeholder template, and the same
+ * template through Thymeleaf with its cache on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private static final String TEMPLATE = "verification-mail-template";
+
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+    private MailTemplateEngine engine;
+    private SpringTemplateEngine thymeleaf;
+    private String thymeleafSource;
+    private int recipient;
+
+    @Setup
+    public void setUp() throws IOException {
+        engine = new MailTemplateEngine(resourceLoader, List.of(TEMPLATE));
+
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCacheable(true);
+        thymeleaf = new SpringTemplateEngine();
+        thymeleaf.setTemplateResolver(resolver);
+        thymeleaf.setEnableSpringELCompiler(true);
+        try (InputStream in = resourceLoader.getResource("classpath:templates/" + TEMPLATE + ".html").getInputStream()) {
+            thymeleafSource = new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                    .replace("href=\"[[URL]]\"", "th:href=\"${URL}\"")
+                    .replace("[[name]]", "[[${name}]]")
+                    .replace("[[URL]]", "[[${URL}]]");
+        }
+    }
+
+    @Benchmark
+    public String readAndReplace() throws IOException {
+        // What UserServiceImpl did per mail before templates were precompiled
+        Resource resource = resourceLoader.getResource("classpath:templates/" + TEMPLATE + ".html");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            sb.append(line).append("\n");
+        }
+        reader.close();
+        String content = sb.toString();
+        content = content.replace("[[name]]", name());
+        return content.replace("[[URL]]", url());
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return engine.render(TEMPLATE, Map.of("name", name(), "URL", url()));
+    }
+
+    @Benchmark
+    public String thymeleafCached() {
+        return thymeleaf.process(thymeleafSource, new Context(Locale.ENGLISH, Map.of("name", name(), "URL", url())));
+    }
+
+    private String name() {
+        return "Student " + (recipient++ & 1023);
+    }
+
+    private String url() {
+        return "http://localhost:8080/verify?code=" + recipient;
+    }
+}
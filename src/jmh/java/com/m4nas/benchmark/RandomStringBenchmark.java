@@ -0,0 +1,45 @@
+package com.m4nas.benchmark;
+
+import com.m4nas.util.RandomString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id generation as registrations and imports call it: every thread draws from
+ * the one SecureRandom behind RandomString, so the contended runs show what
+ * that shared generator costs compared to a single caller. Compare the
+ * ops/us of the 1- and 4-thread variants; run with -t to try other counts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RandomStringBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public String generateUserId() {
+        return RandomString.generateUserId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateUserIdContended() {
+        return RandomString.generateUserId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String makeOtpLengthContended() {
+        return new RandomString().make(6);
+    }
+}
@@ -0,0 +1,71 @@
+package com.m4nas.benchmark;
+
+import com.m4nas.dto.SeatMatrix;
+import com.m4nas.service.SeatAllocationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One allocation round over synthetic applicants (fixed seed), excluding the
+ * database read and write-back done by SeatAllocationServiceImpl.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatAllocationBenchmark {
+
+    private static final String[] COURSES = {"B.Tech", "M.Tech", "BCA", "MCA"};
+    private static final String[] BRANCHES = {"CSE", "ECE", "ME", "CE", "EE", "IT", "AI", "DS"};
+
+    @Param({"100000"})
+    private int applicants;
+
+    private List<SeatAllocationEngine.Candidate> candidates;
+    private SeatMatrix seats;
+    private final SeatAllocationEngine engine = new SeatAllocationEngine();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(2025);
+        candidates = new ArrayList<>(applicants);
+        for (int i = 0; i < applicants; i++) {
+            candidates.add(new SeatAllocationEngine.Candidate(String.format("app%07d", i),
+                    COURSES[random.nextInt(COURSES.length)],
+                    BRANCHES[random.nextInt(BRANCHES.length)],
+                    BRANCHES[random.nextInt(BRANCHES.length)],
+                    Math.round((40 + random.nextDouble() * 60) * 100) / 100.0,
+                    LocalDate.of(2025, 5, 1).plusDays(random.nextInt(60))));
+        }
+        // Roughly 60% of applicants can be seated
+        seats = new SeatMatrix();
+        int perBranch = applicants * 6 / 10 / (COURSES.length * BRANCHES.length);
+        for (String course : COURSES) {
+            for (String branch : BRANCHES) {
+                seats.setSeats(course, branch, perBranch);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SeatAllocationEngine.Allocation> allocate() {
+        return engine.allocate(candidates, seats);
+    }
+}
@@ -3,6 +3,7 @@ package com.m4nas;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -21,6 +22,7 @@ import org.springframework.web.client.RestTemplate;
  * @since 2025-01-01
  */
 @SpringBootApplication
+@EnableScheduling
 public class CollegeAdmissionPortal {
 
 	/**
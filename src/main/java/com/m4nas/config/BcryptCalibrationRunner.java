@@ -0,0 +1,37 @@
+package com.m4nas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures BCrypt on this machine when the application is started with
+ * --calibrate-bcrypt and logs the strength to set as
+ * app.password.bcrypt-strength. Existing hashes move to the new strength
+ * as their owners log in.
+ */
+@Component
+public class BcryptCalibrationRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BcryptCalibrationRunner.class);
+
+    private static final String OPTION = "calibrate-bcrypt";
+
+    @Value("${app.password.bcrypt-target-ms:250}")
+    private long targetMillis;
+
+    @Value("${app.password.bcrypt-strength:10}")
+    private int configuredStrength;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            int strength = BoundedPasswordEncoder.calibrateStrength(targetMillis);
+            logger.info("BCrypt calibration: strength {} fits the {}ms target (configured: {}). "
+                    + "Set app.password.bcrypt-strength={} to use it.", strength, targetMillis, configuredStrength, strength);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.m4nas.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that hashes on a small pool sized to the CPU instead of on
+ * the calling request thread. Callers still wait for their result, but at
+ * most one hash per pool thread burns CPU at a time, so a login storm queues
+ * up here rather than taking every core away from ordinary pages. When the
+ * queue is full, or a hash waits longer than the configured limit, the call
+ * fails at once with {@link PasswordHashingBusyException}. A timed-out
+ * caller is released, but BCrypt does not check for interrupts, so a hash
+ * that already started keeps its thread until it finishes; only hashes still
+ * in the queue are dropped.
+ *
+ * Hashes with a cost other than the configured strength report
+ * {@link #upgradeEncoding(String)}, so they are rehashed on the next
+ * successful login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 16;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final long maxWaitMillis;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param threads pool size; hashes running at once
+     * @param queueCapacity hashes allowed to wait before callers are turned away
+     * @param maxWaitMillis longest a caller waits for queueing plus hashing
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long maxWaitMillis,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.maxWaitMillis = maxWaitMillis;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setDaemon(true);
+        executor.initialize();
+
+        waitTimer = Timer.builder("password.hashing.wait").description("Time hashes spend queued before a thread picks them up").register(meterRegistry);
+        encodeTimer = Timer.builder("password.hashing").tag("operation", "encode").description("BCrypt time per password").register(meterRegistry);
+        matchesTimer = Timer.builder("password.hashing").tag("operation", "matches").description("BCrypt time per password").register(meterRegistry);
+        rejectedCounter = Counter.builder("password.hashing.rejected").description("Hashes refused because the pool was saturated").register(meterRegistry);
+        Gauge.builder("password.hashing.queue", executor, ThreadPoolTaskExecutor::getQueueSize).description("Hashes waiting for a thread").register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolTaskExecutor::getActiveCount).description("Hashes running").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /** True for BCrypt hashes whose cost differs from the configured strength, either way. */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public int getStrength() { return strength; }
+
+    /** Hashes waiting for a pool thread. */
+    public int getQueueDepth() { return executor.getQueueSize(); }
+
+    /** Hashes being computed. */
+    public int getActiveCount() { return executor.getActiveCount(); }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> hash, Timer timer) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                T result = hash.call();
+                timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                return result;
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Password hashing queue is full");
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Unqueues a waiting hash; a running one ignores the interrupt and runs to completion
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Password hashing took longer than " + maxWaitMillis + "ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Picks the highest BCrypt strength whose hash takes no longer than the
+     * target on this machine. Each step doubles the work, so the search stops
+     * at the first strength over the target.
+     *
+     * @return strength between 4 and 16
+     */
+    public static int calibrateStrength(long targetMillis) {
+        int chosen = MIN_STRENGTH;
+        for (int candidate = MIN_STRENGTH; candidate <= MAX_STRENGTH; candidate++) {
+            long millis = medianEncodeMillis(candidate);
+            logger.info("BCrypt strength {} takes {}ms", candidate, millis);
+            if (millis > targetMillis) {
+                break;
+            }
+            chosen = candidate;
+        }
+        return chosen;
+    }
+
+    private static long medianEncodeMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        // First run warms up the JIT
+        encoder.encode("calibration");
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        Arrays.sort(samples);
+        return samples[1];
+    }
+}
@@ -25,6 +25,8 @@ public class CustomAuthenticationFailureHandler extends SimpleUrlAuthenticationF
             errorMessage = exception.getMessage();
         } else if (exception.getCause() instanceof CustomDisabledException) {
             errorMessage = exception.getCause().getMessage();
+        } else if (exception instanceof PasswordHashingBusyException) {
+            errorMessage = "Too many sign-ins right now. Please try again in a moment.";
         } else if (exception instanceof BadCredentialsException) {
             errorMessage = "Invalid email or password. Please try again.";
         } else {
@@ -7,6 +7,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
@@ -17,6 +18,7 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -26,10 +28,17 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     private final UserRepository userRepository;
     private final UserService userService;
 
+    /** Shared and with timeouts, so a slow GitHub API cannot hold a login thread indefinitely. */
+    private final RestTemplate gitHubClient;
+
     public CustomOAuth2UserService(UserRepository userRepository,
                                    UserService userService) {
         this.userRepository = userRepository;
         this.userService = userService;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofSeconds(5));
+        requestFactory.setReadTimeout(Duration.ofSeconds(10));
+        this.gitHubClient = new RestTemplate(requestFactory);
     }
 
     @Override
@@ -64,12 +73,11 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     
     private String getGitHubEmail(String accessToken) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(accessToken);
             HttpEntity<String> entity = new HttpEntity<>(headers);
             
-            ResponseEntity<List> response = restTemplate.exchange(
+            ResponseEntity<List> response = gitHubClient.exchange(
                 "https://api.github.com/user/emails",
                 HttpMethod.GET,
                 entity,
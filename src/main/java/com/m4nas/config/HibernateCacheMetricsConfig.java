@@ -0,0 +1,37 @@
+package com.m4nas.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+/**
+ * Publishes the Hibernate second-level cache regions as cache.* metrics
+ * (gets by result, puts, evictions, removals) tagged with the region name.
+ * The per-entity hibernate.* metrics come from Spring Boot's own Hibernate
+ * binder once hibernate.generate_statistics is on.
+ */
+@Configuration
+public class HibernateCacheMetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateCacheRegionMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache().getRegionFactory();
+            if (regionFactory instanceof JCacheRegionFactory) {
+                CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+                for (String region : cacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, cacheManager.getCache(region), Tags.of("cacheManager", "hibernate"));
+                }
+            }
+        };
+    }
+}
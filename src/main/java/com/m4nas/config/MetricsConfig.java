@@ -0,0 +1,113 @@
+package com.m4nas.config;
+
+import com.m4nas.model.Payment;
+import com.m4nas.repository.PaymentRepository;
+import com.m4nas.service.DashboardCounters;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Application metrics on top of what Spring Boot binds by itself (HTTP
+ * requests, spring.data.repository.invocations per repository method,
+ * hikaricp.* pool gauges, hibernate.*). Service calls are timed through
+ * the @Timed annotations on the service implementations.
+ *
+ * - admission.applications{status}: from the in-memory dashboard counters
+ * - admission.payments{status}: one GROUP BY, reused for paymentCountsTtl
+ * - percentile histograms on http.server.requests for the pages listed in
+ *   app.metrics.histogram-pages, so p95/p99 can be aggregated in Prometheus
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> APPLICATION_STATUSES =
+            List.of("PENDING", "SUBMITTED", "APPROVED", "REJECTED", "ALLOCATED", "ACCEPTED", "DECLINED");
+
+    @Bean
+    public MeterBinder admissionMetrics(DashboardCounters dashboardCounters, PaymentRepository paymentRepository,
+                                        @Value("${app.metrics.payment-counts-ttl-ms:30000}") long paymentCountsTtl) {
+        PaymentCounts paymentCounts = new PaymentCounts(paymentRepository, paymentCountsTtl);
+        return registry -> {
+            for (String status : APPLICATION_STATUSES) {
+                Gauge.builder("admission.applications", dashboardCounters, counters -> counters.countByStatus(status))
+                        .tag("status", status).description("Applications currently in each status").register(registry);
+            }
+            for (Payment.PaymentStatus status : Payment.PaymentStatus.values()) {
+                Gauge.builder("admission.payments", paymentCounts, counts -> counts.get(status))
+                        .tag("status", status.name()).description("Payments currently in each status").register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterFilter pageLatencyHistograms(@Value("${app.metrics.histogram-pages:}") Set<String> pages) {
+        DistributionStatisticConfig histogram = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .minimumExpectedValue((double) Duration.ofMillis(5).toNanos())
+                .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                .build();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if ("http.server.requests".equals(id.getName()) && pages.contains(id.getTag("uri"))) {
+                    return histogram.merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    /** Payment counts by status, re-queried at most once per ttl however often the gauges are read. */
+    static class PaymentCounts {
+
+        private final PaymentRepository paymentRepository;
+        private final long ttlNanos;
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile Map<Payment.PaymentStatus, Long> counts;
+        private volatile long loadedAt;
+
+        PaymentCounts(PaymentRepository paymentRepository, long ttlMillis) {
+            this.paymentRepository = paymentRepository;
+            this.ttlNanos = ttlMillis * 1_000_000;
+        }
+
+        double get(Payment.PaymentStatus status) {
+            Map<Payment.PaymentStatus, Long> current = counts;
+            if (current == null || System.nanoTime() - loadedAt > ttlNanos) {
+                current = load();
+            }
+            return current.getOrDefault(status, 0L);
+        }
+
+        private Map<Payment.PaymentStatus, Long> load() {
+            loadLock.lock();
+            try {
+                if (counts != null && System.nanoTime() - loadedAt <= ttlNanos) {
+                    return counts;
+                }
+                Map<Payment.PaymentStatus, Long> loaded = new EnumMap<>(Payment.PaymentStatus.class);
+                for (Object[] row : paymentRepository.countByStatus()) {
+                    loaded.put((Payment.PaymentStatus) row[0], ((Number) row[1]).longValue());
+                }
+                counts = loaded;
+                loadedAt = System.nanoTime();
+                return loaded;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.m4nas.config;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Authenticates the Prometheus scraper with its own configured credential
+ * and grants it ROLE_METRICS only. The check is a constant-time comparison
+ * of digests rather than a database lookup and a BCrypt hash, so a scrape
+ * every few seconds costs nothing and no admin password sits in the
+ * scraper's configuration. Any other username is left to the next provider;
+ * with no password configured the provider accepts nobody.
+ */
+public class MetricsScrapeAuthenticationProvider implements AuthenticationProvider {
+
+    public static final String METRICS_AUTHORITY = "ROLE_METRICS";
+
+    private final String username;
+    private final byte[] passwordDigest;
+
+    public MetricsScrapeAuthenticationProvider(String username, String password) {
+        this.username = username;
+        this.passwordDigest = password == null || password.isEmpty() ? null : digest(password);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (passwordDigest == null || !username.equals(authentication.getName())) {
+            return null;
+        }
+        Object credentials = authentication.getCredentials();
+        // Digests have a fixed length, so the comparison time says nothing about the password
+        if (credentials == null || !MessageDigest.isEqual(passwordDigest, digest(credentials.toString()))) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList(METRICS_AUTHORITY));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    private static byte[] digest(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
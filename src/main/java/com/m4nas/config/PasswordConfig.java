@@ -1,14 +1,32 @@
 package com.m4nas.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class PasswordConfig {
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+
+    /**
+     * BCrypt on a CPU-sized pool; see {@link BoundedPasswordEncoder}.
+     * A thread count of 0 means one per available processor. A queue
+     * capacity of 0 means four hashes waiting per thread, and a max wait of
+     * 0 is derived from the BCrypt target: a caller at the back of a full
+     * queue waits for every hash ahead of it plus its own, each taking about
+     * the target, with the same again as headroom for a loaded machine.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(@Value("${app.password.bcrypt-strength:10}") int strength,
+                                           @Value("${app.password.bcrypt-target-ms:250}") long targetMillis,
+                                           @Value("${app.password.hashing.threads:0}") int threads,
+                                           @Value("${app.password.hashing.queue-capacity:0}") int queueCapacity,
+                                           @Value("${app.password.hashing.max-wait-ms:0}") long maxWaitMillis,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int queue = queueCapacity > 0 ? queueCapacity : 4 * poolSize;
+        long maxWait = maxWaitMillis > 0 ? maxWaitMillis : 2 * (queue / poolSize + 1) * targetMillis;
+        return new BoundedPasswordEncoder(strength, poolSize, queue, maxWait, meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.m4nas.config;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing pool is saturated. During login it ends
+ * authentication at once instead of being retried by a parent provider.
+ */
+public class PasswordHashingBusyException extends InternalAuthenticationServiceException {
+    public PasswordHashingBusyException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,28 @@
+package com.m4nas.config;
+
+import com.m4nas.service.ReceiptService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves receipts uploaded before content-addressed storage into it when the
+ * application is started with --migrate-receipts. The migration is
+ * idempotent, so an interrupted run can simply be started again.
+ */
+@Component
+public class ReceiptMigrationRunner implements ApplicationRunner {
+
+    private static final String OPTION = "migrate-receipts";
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            receiptService.migrateLegacyReceipts();
+        }
+    }
+}
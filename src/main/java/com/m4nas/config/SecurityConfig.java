@@ -4,13 +4,18 @@ import com.m4nas.repository.UserRepository;
 import com.m4nas.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -26,7 +31,7 @@ import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
  * - OAuth2 integration with Google and GitHub providers
  * - CSRF protection with cookie-based token repository
  * - Session management with security controls
- * - Password encoding with BCrypt
+ * - Password encoding with BCrypt, rehashed on login when the cost changes
  * 
  * Security Features:
  * - /admin/** endpoints require ROLE_ADMIN authority
@@ -68,8 +73,11 @@ public class SecurityConfig {
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
-        daoAuthenticationProvider.setUserDetailsService(getUserDetailsService());
+        UserDetailsService userDetailsService = getUserDetailsService();
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
         daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes stored passwords whose BCrypt cost differs from the configured one
+        daoAuthenticationProvider.setUserDetailsPasswordService((UserDetailsPasswordService) userDetailsService);
         return daoAuthenticationProvider;
     }
 
@@ -85,6 +93,35 @@ public class SecurityConfig {
         return new CustomOAuth2UserService(userRepository, userService);
     }
 
+    /**
+     * Actuator endpoints, matched before the main chain. Health is public.
+     * Prometheus scrapes /actuator/prometheus over HTTP Basic with its own
+     * credential (app.metrics.scrape-*), which grants nothing else; the other
+     * endpoints need an admin over HTTP Basic. No session is created or read,
+     * so each scrape carries its credentials and leaves nothing behind.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http,
+                                                   @Value("${app.metrics.scrape-username:prometheus}") String scrapeUsername,
+                                                   @Value("${app.metrics.scrape-password:}") String scrapePassword) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasAuthority(MetricsScrapeAuthenticationProvider.METRICS_AUTHORITY)
+                        .anyRequest().hasAuthority("ROLE_ADMIN")
+                )
+                .authenticationProvider(new MetricsScrapeAuthenticationProvider(scrapeUsername, scrapePassword))
+                .authenticationProvider(authenticationProvider())
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+
+        return http.build();
+    }
+
     /**
      * Main security filter chain configuration.
      * 
@@ -0,0 +1,12 @@
+package com.m4nas.config;
+
+/**
+ * Thrown by SqlBudgetFilter in strict mode when a request ran more SQL
+ * statements than allowed or repeated one statement shape too often.
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.m4nas.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request SQL budget. Counts the statements each HTTP request runs
+ * (through SqlStatementCounter at the DataSource, so Hibernate and
+ * JdbcTemplate statements, security lookups and view rendering are all
+ * included) and flags requests that run more than max-statements, or that
+ * repeat one statement shape more than max-repeats times, the usual sign of
+ * a repository call inside a loop.
+ *
+ * app.sql-budget.mode: off, log (warn and count in sql.budget.exceeded) or
+ * strict (also throw SqlBudgetExceededException, used by the test profile so
+ * a new N+1 on a controller fails the build). Paths matching exempt-paths
+ * are not checked.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private static final int SHAPE_PREVIEW = 300;
+
+    enum Mode { OFF, LOG, STRICT }
+
+    private final Mode mode;
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final List<String> exemptPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter statementsExceeded;
+    private final Counter repeatsExceeded;
+
+    public SqlBudgetFilter(@Value("${app.sql-budget.mode:log}") String mode,
+                           @Value("${app.sql-budget.max-statements:50}") int maxStatements,
+                           @Value("${app.sql-budget.max-repeats:10}") int maxRepeats,
+                           @Value("${app.sql-budget.exempt-paths:}") List<String> exemptPaths,
+                           MeterRegistry meterRegistry) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.exemptPaths = exemptPaths;
+        this.statementsExceeded = Counter.builder("sql.budget.exceeded").tag("reason", "statements")
+                .description("Requests over the per-request SQL budget").register(meterRegistry);
+        this.repeatsExceeded = Counter.builder("sql.budget.exceeded").tag("reason", "repeats")
+                .description("Requests over the per-request SQL budget").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (mode == Mode.OFF) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return exemptPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String violation;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            filterChain.doFilter(request, response);
+            violation = check(scope);
+        }
+        if (violation != null) {
+            String message = request.getMethod() + " " + request.getRequestURI() + " " + violation;
+            logger.warn("SQL budget exceeded: {}", message);
+            if (mode == Mode.STRICT) {
+                throw new SqlBudgetExceededException(message);
+            }
+        }
+    }
+
+    private String check(SqlStatementCounter.Scope scope) {
+        Map.Entry<String, Integer> repeated = scope.getMostRepeated();
+        if (repeated != null && repeated.getValue() > maxRepeats) {
+            repeatsExceeded.increment();
+            String shape = repeated.getKey();
+            return "ran the same statement " + repeated.getValue() + " times (limit " + maxRepeats + "): "
+                    + (shape.length() > SHAPE_PREVIEW ? shape.substring(0, SHAPE_PREVIEW) + "..." : shape);
+        }
+        if (scope.getStatements() > maxStatements) {
+            statementsExceeded.increment();
+            return "ran " + scope.getStatements() + " statements (limit " + maxStatements + ")";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,152 @@
+package com.m4nas.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL run on the current thread while a scope is open
+ * (SqlBudgetFilter opens one per HTTP request). Counting happens at the
+ * DataSource: every DataSource bean is wrapped so that each statement
+ * prepared or executed on its connections is recorded, whether it comes
+ * from Hibernate or from a JdbcTemplate. Statements are grouped by shape:
+ * whitespace collapsed and IN lists of any length folded to one placeholder,
+ * so a lookup repeated per row shows up as one shape with a high count.
+ *
+ * A prepared statement counts once however often it is executed, so a JDBC
+ * batch is one statement. COPY through the PostgreSQL CopyManager is not
+ * counted; it only runs on the import worker, outside any request.
+ */
+@Component
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    /** Starts counting on this thread; the returned scope must be closed on the same thread. */
+    public static Scope open() {
+        Scope scope = new Scope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null && sql != null) {
+            scope.record(shape(sql));
+        }
+    }
+
+    static String shape(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(collapsed).replaceAll("(?)");
+    }
+
+    /** Statements seen on one thread between open() and close(). */
+    public static class Scope implements AutoCloseable {
+
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int statements;
+
+        void record(String shape) {
+            statements++;
+            shapes.merge(shape, 1, Integer::sum);
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        /** The most repeated statement shape, or null when nothing ran. */
+        public Map.Entry<String, Integer> getMostRepeated() {
+            return shapes.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Hands out connections that record their statements. Extends
+     * DelegatingDataSource so unwrap() and Spring Boot's pool metrics still
+     * reach the Hikari pool underneath.
+     */
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return countingProxy(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return countingProxy(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    private static <T> T countingProxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                case "prepareCall":
+                case "execute":
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "addBatch":
+                    if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                        record(sql);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            Object result = invoke(method, target, args);
+            if (result instanceof Statement statement && "createStatement".equals(method.getName())) {
+                return countingProxy(Statement.class, statement);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -2,21 +2,26 @@ package com.m4nas.config;
 
 import com.m4nas.model.UserDtls;
 import com.m4nas.repository.UserRepository;
+import com.m4nas.service.CurrentUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserDtls user = userRepo.findByEmail(email);
+        UserDtls user = userRepo.findForLogin(email);
 
         if(user!=null){
             if(!user.isEnable()){
@@ -26,4 +31,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
         throw new UsernameNotFoundException("User Not Available") ;
     }
+
+    /**
+     * Called after a successful login whose stored hash has a different BCrypt
+     * cost than configured; stores the password rehashed at the current cost.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+        UserDtls user = userRepo.findForLogin(details.getUsername());
+        if (user == null) {
+            return details;
+        }
+        user.setPassword(newPassword);
+        userRepo.save(user);
+        currentUserService.evict(user.getEmail());
+        return new CustomUserDetails(user);
+    }
 }
@@ -0,0 +1,91 @@
+package com.m4nas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier, i.e. blocked inside a
+ * synchronized block or native frame so the carrier cannot run other work.
+ * Listens to the JDK's own jdk.VirtualThreadPinned events through an
+ * in-process JFR stream, records them as the jvm.threads.virtual.pinned
+ * timer and logs the stack of each distinct pinning site once.
+ *
+ * Only active when virtual threads are on (spring.threads.virtual.enabled
+ * on Java 21+).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES_PER_SITE = 12;
+    private static final int MAX_REPORTED_SITES = 500;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Shorter pins are normal (e.g. a brief monitor on an uncontended path) and not recorded. */
+    @Value("${app.virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMillis;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+    private Timer pinnedTimer;
+
+    @PostConstruct
+    void start() {
+        pinnedTimer = Timer.builder("jvm.threads.virtual.pinned").description("Time virtual threads spent blocked while pinned to a carrier").register(meterRegistry);
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Virtual threads enabled; reporting carrier pinning over {}ms", thresholdMillis);
+    }
+
+    @PreDestroy
+    void stop() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        String site = site(event);
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+            logger.warn("Virtual thread pinned for {}ms at:\n{}", event.getDuration().toMillis(), site);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Virtual thread pinned for {}ms at:\n{}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t(no stack trace)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(FRAMES_PER_SITE)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""))
+                .collect(Collectors.joining("\n"));
+    }
+}
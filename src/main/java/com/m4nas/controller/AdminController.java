@@ -2,12 +2,22 @@ package com.m4nas.controller;
 
 import com.m4nas.model.UserDtls;
 import com.m4nas.model.UserApplication;
+import com.m4nas.dto.AnnouncementFeed;
+import com.m4nas.dto.ApplicationPage;
+import com.m4nas.export.ExportFormat;
 import com.m4nas.repository.UserRepository;
 import com.m4nas.service.UserService;
 import com.m4nas.service.UserApplicationService;
+import com.m4nas.service.StudentNameService;
+import com.m4nas.service.ExportService;
+import com.m4nas.service.CurrentUserService;
+import com.m4nas.service.ApplicationImportService;
+import com.m4nas.service.AnnouncementService;
+import com.m4nas.model.ImportJob;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,13 +26,23 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.security.Principal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/admin/")
@@ -38,14 +58,24 @@ public class AdminController {
     private UserApplicationService userApplicationService;
 
     @Autowired
-    private com.m4nas.service.AnnouncementService announcementService;
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private StudentNameService studentNameService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private ApplicationImportService applicationImportService;
 
     @ModelAttribute
     private void userDetails(Model m, Principal p, HttpServletRequest request) {
         if(p!=null) {
-            String email = p.getName();
-            UserDtls user = userRepo.findByEmail(email);
-            m.addAttribute("user", user);
+            m.addAttribute("user", currentUserService.getCurrentUser(p));
         }
         m.addAttribute("currentPath", request.getRequestURI());
     }
@@ -77,24 +107,51 @@ public class AdminController {
     }
 
     @GetMapping("/applications")
-    public String viewAllApplications(Model model) {
+    public String viewAllApplications(@RequestParam(value = "status", required = false) String status,
+                                      @RequestParam(value = "course", required = false) String course,
+                                      @RequestParam(value = "branch", required = false) String branch,
+                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                      @RequestParam(value = "size", defaultValue = "50") int size,
+                                      Model model) {
+        status = StringUtils.hasText(status) ? status : null;
+        course = StringUtils.hasText(course) ? course : null;
+        branch = StringUtils.hasText(branch) ? branch : null;
+        model.addAttribute("filterStatus", status);
+        model.addAttribute("filterCourse", course);
+        model.addAttribute("filterBranch", branch);
+        model.addAttribute("pageSize", size);
         try {
-            List<UserApplication> applications = userApplicationService.getAllApplicationsForAdmin();
-            model.addAttribute("applications", applications != null ? applications : new java.util.ArrayList<>());
+            ApplicationPage page = userApplicationService.getMeritPage(status, course, branch, cursor, size);
+
+            java.util.Map<String, Long> statusCountMap = new java.util.HashMap<>();
+            long totalApplications = 0;
+            for (Object[] row : userApplicationService.getApplicationStatusCounts()) {
+                statusCountMap.put((String) row[0], (Long) row[1]);
+                totalApplications += (Long) row[1];
+            }
+
+            model.addAttribute("applications", page.getApplications());
+            model.addAttribute("rankOffset", page.getRankOffset());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("statusCountMap", statusCountMap);
+            model.addAttribute("totalApplications", totalApplications);
             return "admin/applications";
         } catch (Exception e) {
             model.addAttribute("applications", new java.util.ArrayList<>());
+            model.addAttribute("rankOffset", 0);
+            model.addAttribute("statusCountMap", new java.util.HashMap<>());
+            model.addAttribute("totalApplications", 0);
             model.addAttribute("error", "Error loading applications");
             return "admin/applications";
         }
     }
 
     @GetMapping("/applications/status")
-    public String viewApplicationsByStatus(@RequestParam("status") String status, Model model) {
-        List<UserApplication> applications = userApplicationService.getApplicationsByStatus(status);
-        model.addAttribute("applications", applications);
-        model.addAttribute("filterStatus", status);
-        return "admin/applications";
+    public String viewApplicationsByStatus(@RequestParam("status") String status,
+                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "size", defaultValue = "50") int size,
+                                           Model model) {
+        return viewAllApplications(status, null, null, cursor, size, model);
     }
 
 
@@ -140,6 +197,53 @@ public class AdminController {
         }
     }
 
+    // Data Export
+    @GetMapping("/export/{dataset}")
+    public void export(@PathVariable("dataset") String dataset,
+                       @RequestParam(value = "format", required = false) String format,
+                       @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                       @RequestParam(value = "status", required = false) String status,
+                       @RequestParam(value = "course", required = false) String course,
+                       @RequestParam(value = "branch", required = false) String branch,
+                       HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported export format: " + format);
+            return;
+        }
+        if (!dataset.equals("applications") && !dataset.equals("merit-list") && !dataset.equals("payments")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        status = StringUtils.hasText(status) ? status : null;
+        course = StringUtils.hasText(course) ? course : null;
+        branch = StringUtils.hasText(branch) ? branch : null;
+
+        // xlsx is already a zip, so gzip only applies to CSV
+        boolean compress = gzip && exportFormat == ExportFormat.CSV;
+        String fileName = dataset + "-" + java.time.LocalDate.now() + "." + exportFormat.getExtension() + (compress ? ".gz" : "");
+        response.setContentType(compress ? "application/gzip" : exportFormat.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+
+        OutputStream out = compress ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        switch (dataset) {
+            case "applications":
+                exportService.exportApplications(status, exportFormat, out);
+                break;
+            case "merit-list":
+                exportService.exportMeritList(status, course, branch, exportFormat, out);
+                break;
+            default:
+                exportService.exportPayments(status, exportFormat, out);
+        }
+        if (compress) {
+            ((GZIPOutputStream) out).finish();
+        }
+        out.flush();
+    }
+
     // User Management Operations
     @PostMapping("/users/update-role")
     public String updateUserRole(@RequestParam("userId") String userId, 
@@ -151,6 +255,7 @@ public class AdminController {
                 UserDtls user = userOpt.get();
                 user.setRole(newRole);
                 userRepo.save(user);
+                currentUserService.evict(user.getEmail());
                 redirectAttributes.addFlashAttribute("success", "User role updated successfully!");
             } else {
                 redirectAttributes.addFlashAttribute("error", "User not found!");
@@ -170,6 +275,7 @@ public class AdminController {
                 UserDtls user = userOpt.get();
                 user.setEnable(!user.isEnable());
                 userRepo.save(user);
+                currentUserService.evict(user.getEmail());
                 redirectAttributes.addFlashAttribute("success", "User status updated successfully!");
             } else {
                 redirectAttributes.addFlashAttribute("error", "User not found!");
@@ -191,6 +297,10 @@ public class AdminController {
                     userApplicationService.deleteApplicationsByUserEmail(user.getEmail());
                 }
                 userRepo.deleteById(userId);
+                if (user != null) {
+                    studentNameService.evict(user.getEmail());
+                    currentUserService.evict(user.getEmail());
+                }
                 redirectAttributes.addFlashAttribute("success", "User deleted successfully!");
             } else {
                 redirectAttributes.addFlashAttribute("error", "User not found!");
@@ -230,9 +340,56 @@ public class AdminController {
     // Database Management
     @GetMapping("/database")
     public String databaseManagement(Model model) {
+        model.addAttribute("importJobs", applicationImportService.getRecentJobs());
         return "admin/database";
     }
 
+    // Bulk Import
+    @PostMapping("/import/applications")
+    public String importApplications(@RequestParam("file") MultipartFile file, Principal principal,
+                                     RedirectAttributes redirectAttributes) {
+        if (file == null || file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Please choose a CSV file to import");
+            return "redirect:/admin/database";
+        }
+        try {
+            ImportJob job = applicationImportService.startImport(file.getOriginalFilename(), file.getInputStream(),
+                    principal != null ? principal.getName() : null);
+            if (ImportJob.COMPLETED.equals(job.getStatus())) {
+                redirectAttributes.addFlashAttribute("success", "This file was already imported on "
+                        + job.getUpdatedAt().toLocalDate() + " (" + job.getRowsProcessed() + " rows)");
+            } else if (job.getRowsProcessed() > 0) {
+                redirectAttributes.addFlashAttribute("success", "Resuming import of " + job.getFileName()
+                        + " after " + job.getRowsProcessed() + " rows");
+            } else {
+                redirectAttributes.addFlashAttribute("success", "Import of " + job.getFileName()
+                        + " started. Refresh this page to follow its progress.");
+            }
+        } catch (IOException e) {
+            redirectAttributes.addFlashAttribute("error", "Could not read the uploaded file: " + e.getMessage());
+        }
+        return "redirect:/admin/database";
+    }
+
+    @GetMapping("/import/{jobId}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> importProgress(@PathVariable("jobId") String jobId) {
+        ImportJob job = applicationImportService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("id", job.getId());
+        progress.put("fileName", job.getFileName());
+        progress.put("status", job.getStatus());
+        progress.put("rowsProcessed", job.getRowsProcessed());
+        progress.put("rowsInserted", job.getRowsInserted());
+        progress.put("rowsUpdated", job.getRowsUpdated());
+        progress.put("errorCount", job.getErrorCount());
+        progress.put("errors", job.getErrors());
+        return ResponseEntity.ok(progress);
+    }
+
     @PostMapping("/database/backup")
     @ResponseBody
     public ResponseEntity<String> backupDatabase() {
@@ -246,11 +403,21 @@ public class AdminController {
 
     // Announcements Management
     @GetMapping("/announcements")
-    public String manageAnnouncements(Model model) {
+    public String manageAnnouncements(Model model, HttpServletRequest request, HttpServletResponse response,
+                                      WebRequest webRequest) {
         try {
             // Get all announcements (admin can see all announcements from all users)
-            List<com.m4nas.model.Announcement> announcements = announcementService.getActiveAnnouncements();
-            model.addAttribute("announcements", announcements);
+            AnnouncementFeed feed = announcementService.getFeed(AnnouncementService.FEED_ALL);
+            // A redirect carrying a success/error message must render in full
+            if (!model.containsAttribute("success") && !model.containsAttribute("error")) {
+                UserDtls user = (UserDtls) model.getAttribute("user");
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+                if (webRequest.checkNotModified(feed.eTag(request.getSession().getId(),
+                        user != null ? user.getFullName() : null))) {
+                    return null;
+                }
+            }
+            model.addAttribute("announcements", feed.getAnnouncements());
         } catch (Exception e) {
             model.addAttribute("announcements", new java.util.ArrayList<>());
         }
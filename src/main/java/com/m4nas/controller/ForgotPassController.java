@@ -1,26 +1,30 @@
 package com.m4nas.controller;
 
+import com.m4nas.dto.OtpResult;
 import com.m4nas.model.UserDtls;
+import com.m4nas.service.OtpService;
 import com.m4nas.service.UserService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.security.SecureRandom;
-
 /**
  * Controller handling forgot password functionality with OTP verification.
  * Implements secure password reset flow:
  * 1. Email verification
  * 2. OTP generation and email delivery
- * 3. OTP verification with time expiration
+ * 3. OTP verification with time expiration and an attempt limit
  * 4. Password reset with validation
+ *
+ * No step relies on the HTTP session: codes live in {@link OtpService}, and
+ * the email and reset token are carried by the forms themselves.
  * 
  * @author College Technical Team
  * @version 1.0
@@ -29,13 +33,13 @@ import java.security.SecureRandom;
 public class ForgotPassController {
 
     private static final Logger logger = LoggerFactory.getLogger(ForgotPassController.class);
-    
-    /** OTP expiration time in milliseconds (10 minutes) */
-    private static final long OTP_EXPIRATION_TIME = 600000L;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OtpService otpService;
+
     /**
      * Displays the forgot password email input form.
      * 
@@ -51,17 +55,18 @@ public class ForgotPassController {
      * Processes forgot password request by validating email and sending OTP.
      * Implements security measures:
      * - Email validation against database
-     * - Secure OTP generation
-     * - Session-based OTP storage with timestamp
+     * - Per-email and per-client throttling before any mail is queued
      * - POST-Redirect-GET pattern to prevent refresh attacks
      * 
      * @param email User's email address
-     * @param session HTTP session for OTP storage
+     * @param request HTTP request, for the client address
      * @param model Model for error messages
+     * @param redirectAttributes carries the email to the verification page
      * @return redirect to OTP verification page or error page
      */
     @PostMapping("/send-otp")
-    public String sendEmailOTP(@RequestParam("email") String email, HttpSession session, Model model){
+    public String sendEmailOTP(@RequestParam("email") String email, HttpServletRequest request, Model model,
+                               RedirectAttributes redirectAttributes){
         
         logger.info("Processing forgot password request for email: {}", email);
         
@@ -73,29 +78,28 @@ public class ForgotPassController {
         }
         
         // Check if user exists in database
-        UserDtls user = userService.getUserByEmail(email.trim().toLowerCase());
+        String normalizedEmail = email.trim().toLowerCase();
+        UserDtls user = userService.getUserByEmail(normalizedEmail);
         if(user == null) {
             logger.warn("Forgot password attempt for non-existent email: {}", email);
             model.addAttribute("error", "Email not found!");
             return "forget_password";
         }
 
-        // Generate cryptographically secure 6-digit OTP
-        SecureRandom secureRandom = new SecureRandom();
-        int otp = 100000 + secureRandom.nextInt(900000);
-        
-        // Store OTP data in session with security attributes
-        session.setAttribute("otp", otp);
-        session.setAttribute("email", email.trim().toLowerCase());
-        session.setAttribute("otpTimestamp", System.currentTimeMillis());
-        session.setAttribute("otpSent", true);
+        OtpResult result = otpService.issue(normalizedEmail, request.getRemoteAddr());
+        if(result.getStatus() == OtpResult.Status.THROTTLED) {
+            model.addAttribute("error", "Too many OTP requests. Please try again in "
+                    + result.getRetryAfterSeconds() + " seconds.");
+            return "forget_password";
+        }
         
         logger.info("Generated OTP for email: {}", email);
         
         // Send OTP via email service
-        boolean emailSent = userService.sendForgotPasswordOTP(email, otp);
+        boolean emailSent = userService.sendForgotPasswordOTP(normalizedEmail, result.getCode());
         if(emailSent) {
             logger.info("OTP email sent successfully to: {}", email);
+            redirectAttributes.addAttribute("email", normalizedEmail);
             return "redirect:/verify-otp-page";
         } else {
             logger.error("Failed to send OTP email to: {}", email);
@@ -105,131 +109,107 @@ public class ForgotPassController {
     }
 
     /**
-     * Displays OTP verification page with session validation.
+     * Displays OTP verification page.
      * Prevents direct access without going through email verification.
      * 
-     * @param session HTTP session to check OTP status
+     * @param email email the OTP was sent to
      * @param model Model for view data
      * @return OTP verification template or redirect to email form
      */
     @GetMapping("/verify-otp-page")
-    public String showVerifyOtpPage(HttpSession session, Model model){
-        Boolean otpSent = (Boolean) session.getAttribute("otpSent");
+    public String showVerifyOtpPage(@RequestParam(value = "email", required = false) String email, Model model){
         
-        // Validate session state - ensure OTP was actually sent
-        if(otpSent == null || !otpSent) {
+        // Ensure an OTP was actually sent and is still usable
+        if(email == null || !otpService.hasPendingCode(email)) {
             logger.warn("Unauthorized access to OTP verification page");
             return "redirect:/forgot-password";
         }
         
+        model.addAttribute("email", email);
         logger.info("Displaying OTP verification page");
         return "verify_otp";
     }
 
     /**
-     * Verifies the OTP entered by user with comprehensive security checks.
+     * Verifies the OTP entered by user.
      * Security features:
-     * - Session validation
      * - Time-based expiration (10 minutes)
-     * - Secure OTP comparison
-     * - Session state management
+     * - Limited attempts per OTP
+     * - Constant-time OTP comparison
+     * - Single-use reset token handed to the password form
      * 
-     * @param enteredOtp OTP entered by user
-     * @param session HTTP session containing OTP data
+     * @param email email the OTP was sent to
+     * @param enteredOtpStr OTP entered by user
      * @param model Model for error messages
      * @return password reset page or error page
      */
     @PostMapping("/verify-otp")
-    public String verifyOTP(@RequestParam("otp") String enteredOtpStr, HttpSession session, Model model){
+    public String verifyOTP(@RequestParam("email") String email, @RequestParam("otp") String enteredOtpStr,
+                            Model model){
         
         logger.info("Processing OTP verification");
+        model.addAttribute("email", email);
         
         // Validate OTP input
-        if(enteredOtpStr == null || enteredOtpStr.trim().isEmpty()) {
-            logger.warn("Empty OTP submitted");
-            model.addAttribute("error", "Please enter the OTP.");
-            return "verify_otp";
-        }
-        
-        int enteredOtp;
-        try {
-            enteredOtp = Integer.parseInt(enteredOtpStr.trim());
-        } catch (NumberFormatException e) {
-            logger.warn("Invalid OTP format submitted: {}", enteredOtpStr);
+        if(enteredOtpStr == null || !enteredOtpStr.trim().matches("\\d{6}")) {
+            logger.warn("Invalid OTP format submitted");
             model.addAttribute("error", "Please enter a valid 6-digit OTP.");
             return "verify_otp";
         }
         
-        // Retrieve OTP data from session
-        Integer sessionOtp = (Integer) session.getAttribute("otp");
-        Long otpTimestamp = (Long) session.getAttribute("otpTimestamp");
-        Boolean otpSent = (Boolean) session.getAttribute("otpSent");
-        
-        // Validate session integrity
-        if(sessionOtp == null || otpTimestamp == null || otpSent == null || !otpSent) {
-            logger.warn("OTP verification attempted with invalid session");
-            model.addAttribute("error", "Session expired. Please request a new OTP.");
-            return "redirect:/forgot-password";
-        }
-        
-        // Check OTP expiration (10 minutes)
-        long currentTime = System.currentTimeMillis();
-        if(currentTime - otpTimestamp > OTP_EXPIRATION_TIME) {
-            logger.warn("Expired OTP verification attempted");
-            
-            // Clean up expired session data
-            session.removeAttribute("otp");
-            session.removeAttribute("otpTimestamp");
-            session.removeAttribute("otpSent");
-            
-            model.addAttribute("error", "OTP has expired. Please request a new one.");
-            return "redirect:/forgot-password";
-        }
-        
-        // Verify OTP with secure comparison
-        if(!sessionOtp.equals(enteredOtp)) {
-            logger.warn("Invalid OTP verification attempted");
-            model.addAttribute("error", "Invalid OTP!");
-            return "verify_otp";
+        OtpResult result = otpService.verify(email, enteredOtpStr);
+        switch (result.getStatus()) {
+            case VALID:
+                logger.info("OTP verification successful");
+                model.addAttribute("token", result.getResetToken());
+                return "reset_password";
+            case INVALID:
+                logger.warn("Invalid OTP verification attempted");
+                model.addAttribute("error", "Invalid OTP! " + result.getAttemptsLeft()
+                        + (result.getAttemptsLeft() == 1 ? " attempt" : " attempts") + " left.");
+                return "verify_otp";
+            case LOCKED:
+                logger.warn("OTP locked after too many attempts");
+                model.addAttribute("error", "Too many incorrect attempts. Please request a new OTP.");
+                return "forget_password";
+            default:
+                logger.warn("Expired OTP verification attempted");
+                model.addAttribute("error", "OTP has expired. Please request a new one.");
+                return "forget_password";
         }
-        
-        // OTP verified successfully - update session state
-        session.setAttribute("otpVerified", true);
-        logger.info("OTP verification successful");
-        
-        return "reset_password";
     }
 
     /**
      * Processes password reset with comprehensive validation.
      * Security features:
-     * - OTP verification status check
+     * - Reset token check (issued on OTP verification, single use)
      * - Password strength validation
      * - Password confirmation matching
-     * - Complete session cleanup
      * 
+     * @param email email the OTP was verified for
+     * @param token reset token from OTP verification
      * @param password New password
      * @param confirmPassword Password confirmation
-     * @param session HTTP session for verification status
      * @param model Model for messages
      * @return success page or error page
      */
     @PostMapping("/reset-password")
-    public String resetPassword(@RequestParam("password") String password, 
+    public String resetPassword(@RequestParam("email") String email,
+                               @RequestParam("token") String token,
+                               @RequestParam("password") String password, 
                                @RequestParam("confirmPassword") String confirmPassword,
-                               HttpSession session, Model model){
+                               Model model){
         
         logger.info("Processing password reset request");
         
-        // Validate session state - ensure OTP was verified
-        Boolean otpVerified = (Boolean) session.getAttribute("otpVerified");
-        String email = (String) session.getAttribute("email");
-        
-        if(otpVerified == null || !otpVerified || email == null) {
+        // Ensure OTP was verified for this email
+        if(!otpService.isResetTokenValid(email, token)) {
             logger.warn("Unauthorized password reset attempt");
             model.addAttribute("error", "Unauthorized access. Please verify OTP first.");
-            return "redirect:/forgot-password";
+            return "forget_password";
         }
+        model.addAttribute("email", email);
+        model.addAttribute("token", token);
         
         // Validate password inputs
         if(password == null || password.trim().isEmpty()) {
@@ -248,24 +228,23 @@ public class ForgotPassController {
             return "reset_password";
         }
         
+        // Use up the token first, so a replayed form cannot change the password again
+        if(!otpService.consumeResetToken(email, token)) {
+            logger.warn("Reset token already used for email: {}", email);
+            model.addAttribute("error", "Unauthorized access. Please verify OTP first.");
+            return "forget_password";
+        }
+        
         // Update password in database
-        boolean updated = userService.updatePassword(email, password);
+        boolean updated = userService.updatePassword(email.trim().toLowerCase(), password);
         if(updated) {
             logger.info("Password reset successful for email: {}", email);
-            
-            // Complete session cleanup for security
-            session.removeAttribute("otp");
-            session.removeAttribute("email");
-            session.removeAttribute("otpTimestamp");
-            session.removeAttribute("otpSent");
-            session.removeAttribute("otpVerified");
-            
             model.addAttribute("success", "Password updated successfully!");
             return "signin";
         } else {
             logger.error("Password reset failed for email: {}", email);
             model.addAttribute("error", "Failed to update password. Please try again.");
-            return "reset_password";
+            return "forget_password";
         }
     }
 }
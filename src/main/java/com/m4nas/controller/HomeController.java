@@ -1,14 +1,14 @@
 package com.m4nas.controller;
 
 import com.m4nas.model.UserDtls;
-import com.m4nas.repository.UserRepository;
 
+import com.m4nas.service.CurrentUserService;
 import com.m4nas.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -23,23 +23,21 @@ public class HomeController {
     private UserService userService;
 
     @Autowired
-    private final UserRepository userRepo;
+    private final CurrentUserService currentUserService;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
 
 
 
-    public HomeController(UserRepository userRepo) {
-        this.userRepo = userRepo;
+    public HomeController(CurrentUserService currentUserService) {
+        this.currentUserService = currentUserService;
     }
 
     @ModelAttribute
     private void userDetails(Model m, Principal p, HttpServletRequest request) {
         if(p!=null) {
-            String email = p.getName();
-            UserDtls user = userRepo.findByEmail(email);
-            m.addAttribute("user", user);
+            m.addAttribute("user", currentUserService.getCurrentUser(p));
         }
         m.addAttribute("currentPath", request.getRequestURI());
     }
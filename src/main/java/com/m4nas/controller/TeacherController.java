@@ -3,21 +3,32 @@ package com.m4nas.controller;
 import com.m4nas.model.UserDtls;
 import com.m4nas.model.UserApplication;
 import com.m4nas.model.Announcement;
-import com.m4nas.repository.UserRepository;
+import com.m4nas.service.CurrentUserService;
 import com.m4nas.service.UserService;
 import com.m4nas.service.UserApplicationService;
 import com.m4nas.service.AnnouncementService;
 import com.m4nas.service.PaymentService;
+import com.m4nas.service.StudentNameService;
+import com.m4nas.service.SeatAllocationService;
 import com.m4nas.model.Payment;
+import com.m4nas.dto.ApplicationPage;
+import com.m4nas.dto.AllocationResult;
+import com.m4nas.dto.ApplicationChange;
+import com.m4nas.dto.BulkUpdateResult;
+import com.m4nas.dto.PaymentStatusChange;
+import com.m4nas.dto.SeatMatrix;
+import com.m4nas.util.BulkChangeParams;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
 import java.util.List;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -33,7 +44,7 @@ public class TeacherController {
     private UserService userService;
 
     @Autowired
-    private UserRepository userRepo;
+    private CurrentUserService currentUserService;
 
     @Autowired
     private UserApplicationService userApplicationService;
@@ -44,58 +55,39 @@ public class TeacherController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private StudentNameService studentNameService;
+
+    @Autowired
+    private SeatAllocationService seatAllocationService;
+
     @ModelAttribute
     private void userDetails(Model m, Principal p, HttpServletRequest request) {
         if(p!=null) {
-            String email = p.getName();
-            UserDtls user = userRepo.findByEmail(email);
-            m.addAttribute("user", user);
+            m.addAttribute("user", currentUserService.getCurrentUser(p));
         }
         m.addAttribute("currentPath", request.getRequestURI());
     }
 
     @GetMapping("/")
     public String home(Model model){
-        // Dashboard Statistics
-        List<UserApplication> pendingApplications = userApplicationService.getApplicationsPendingApproval();
-        List<UserApplication> allocatedApplications = userApplicationService.getAllocatedApplicationsPendingResponse();
-        List<UserApplication> approvedApplications = userApplicationService.getApprovedApplicationsForSeatAllocation();
+        // Dashboard Statistics (in-memory counters, no table scans)
         List<Object[]> statusCounts = userApplicationService.getApplicationStatusCounts();
         List<Object[]> branchStats = userApplicationService.getBranchWiseStatistics();
         
-
-        
-        // Recent Announcements (top 10 for scroll)
-        List<Announcement> recentAnnouncements = announcementService.getActiveAnnouncements().stream().limit(10).collect(java.util.stream.Collectors.toList());
-        
-
+        // Recent Announcements (top 10 for scroll, from the in-memory feed)
+        List<Announcement> recentAnnouncements = announcementService.getFeed(AnnouncementService.FEED_ALL).getAnnouncements().stream().limit(10).collect(java.util.stream.Collectors.toList());
         
         // Add to model
-        model.addAttribute("pendingCount", pendingApplications.size());
-        model.addAttribute("approvedCount", approvedApplications.size());
-        model.addAttribute("allocatedCount", allocatedApplications.size());
+        model.addAttribute("pendingCount", userApplicationService.countApplicationsByStatus("SUBMITTED"));
+        model.addAttribute("approvedCount", userApplicationService.countApplicationsByStatus("APPROVED"));
+        model.addAttribute("allocatedCount", userApplicationService.countAllocatedApplicationsPendingResponse());
         // Recent Applications (all applications, not just pending)
-        List<UserApplication> allApplications = userApplicationService.getAllApplications();
-        List<UserApplication> recentApplications = allApplications.stream()
-            .sorted((a, b) -> {
-                if (a.getSubmissionDate() == null && b.getSubmissionDate() == null) return 0;
-                if (a.getSubmissionDate() == null) return 1;
-                if (b.getSubmissionDate() == null) return -1;
-                return b.getSubmissionDate().compareTo(a.getSubmissionDate());
-            })
-            .limit(7)
-            .collect(java.util.stream.Collectors.toList());
+        List<UserApplication> recentApplications = userApplicationService.getRecentApplications(7);
         
-        // Create a map of email to student name for recent applications
-        java.util.Map<String, String> studentNames = new java.util.HashMap<>();
-        for (UserApplication app : recentApplications) {
-            if (app.getUserEmail() != null) {
-                UserDtls student = userRepo.findByEmail(app.getUserEmail());
-                if (student != null) {
-                    studentNames.put(app.getUserEmail(), student.getFullName());
-                }
-            }
-        }
+        // Resolve student names for all rows in one batched lookup
+        java.util.Map<String, String> studentNames = studentNameService.getStudentNames(
+            recentApplications.stream().map(UserApplication::getUserEmail).collect(java.util.stream.Collectors.toList()));
         
         model.addAttribute("recentApplications", recentApplications);
         model.addAttribute("studentNames", studentNames);
@@ -108,55 +100,77 @@ public class TeacherController {
     }
 
     @GetMapping("/applications")
-    public String viewApplications(Model model) {
-        List<UserApplication> applications = userApplicationService.getAllApplications();
-        // Sort by class 12 percentage in descending order
-        applications.sort((a, b) -> {
-            Double percentageA = a.getPercentage12() != null ? a.getPercentage12() : 0.0;
-            Double percentageB = b.getPercentage12() != null ? b.getPercentage12() : 0.0;
-            return Double.compare(percentageB, percentageA);
-        });
+    public String viewApplications(@RequestParam(value = "status", required = false) String status,
+                                   @RequestParam(value = "course", required = false) String course,
+                                   @RequestParam(value = "branch", required = false) String branch,
+                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                   @RequestParam(value = "size", defaultValue = "50") int size,
+                                   Model model) {
+        status = StringUtils.hasText(status) ? status : null;
+        course = StringUtils.hasText(course) ? course : null;
+        branch = StringUtils.hasText(branch) ? branch : null;
+
+        // One merit-ordered page straight from the database (keyset pagination)
+        ApplicationPage page;
+        try {
+            page = userApplicationService.getMeritPage(status, course, branch, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return "redirect:/teacher/applications";
+        }
+        List<UserApplication> applications = page.getApplications();
         
-        // Create a map of email to student name
-        java.util.Map<String, String> studentNames = new java.util.HashMap<>();
-        for (UserApplication app : applications) {
-            if (app.getUserEmail() != null) {
-                UserDtls student = userRepo.findByEmail(app.getUserEmail());
-                if (student != null) {
-                    studentNames.put(app.getUserEmail(), student.getFullName());
-                }
-            }
+        // Resolve student names for all rows in one batched lookup
+        java.util.Map<String, String> studentNames = studentNameService.getStudentNames(
+            applications.stream().map(UserApplication::getUserEmail).collect(java.util.stream.Collectors.toList()));
+        
+        java.util.Map<String, Long> statusCountMap = new java.util.HashMap<>();
+        long totalApplications = 0;
+        for (Object[] row : userApplicationService.getApplicationStatusCounts()) {
+            statusCountMap.put((String) row[0], (Long) row[1]);
+            totalApplications += (Long) row[1];
         }
         
         model.addAttribute("applications", applications);
         model.addAttribute("studentNames", studentNames);
+        model.addAttribute("rankOffset", page.getRankOffset());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("pageSize", size);
+        model.addAttribute("statusCountMap", statusCountMap);
+        model.addAttribute("totalApplications", totalApplications);
+        model.addAttribute("filterStatus", status);
+        model.addAttribute("filterCourse", course);
+        model.addAttribute("filterBranch", branch);
         return "teacher/applications";
     }
 
-    @GetMapping("/applications/status")
-    public String viewApplicationsByStatus(@RequestParam("status") String status, Model model) {
-        List<UserApplication> applications = userApplicationService.getApplicationsByStatus(status);
-        applications.sort((a, b) -> {
-            Double percentageA = a.getPercentage12() != null ? a.getPercentage12() : 0.0;
-            Double percentageB = b.getPercentage12() != null ? b.getPercentage12() : 0.0;
-            return Double.compare(percentageB, percentageA);
-        });
+    @GetMapping("/applications/search")
+    @ResponseBody
+    public List<java.util.Map<String, Object>> searchApplications(@RequestParam(value = "q", defaultValue = "") String query,
+                                                                  @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<UserApplication> matches = userApplicationService.searchApplications(query, limit);
+        java.util.Map<String, String> studentNames = studentNameService.getStudentNames(
+            matches.stream().map(UserApplication::getUserEmail).collect(java.util.stream.Collectors.toList()));
         
-        // Create a map of email to student name
-        java.util.Map<String, String> studentNames = new java.util.HashMap<>();
-        for (UserApplication app : applications) {
-            if (app.getUserEmail() != null) {
-                UserDtls student = userRepo.findByEmail(app.getUserEmail());
-                if (student != null) {
-                    studentNames.put(app.getUserEmail(), student.getFullName());
-                }
-            }
+        List<java.util.Map<String, Object>> results = new java.util.ArrayList<>(matches.size());
+        for (UserApplication app : matches) {
+            java.util.Map<String, Object> hit = new java.util.LinkedHashMap<>();
+            hit.put("id", app.getId());
+            hit.put("name", studentNames.get(app.getUserEmail()));
+            hit.put("email", app.getUserEmail());
+            hit.put("phone", app.getPhoneNo());
+            hit.put("course", app.getCourse());
+            hit.put("status", app.getStatus());
+            results.add(hit);
         }
-        
-        model.addAttribute("applications", applications);
-        model.addAttribute("studentNames", studentNames);
-        model.addAttribute("filterStatus", status);
-        return "teacher/applications";
+        return results;
+    }
+
+    @GetMapping("/applications/status")
+    public String viewApplicationsByStatus(@RequestParam("status") String status,
+                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "size", defaultValue = "50") int size,
+                                           Model model) {
+        return viewApplications(status, null, null, cursor, size, model);
     }
 
     @PostMapping("/applications/update-status")
@@ -243,7 +257,7 @@ public class TeacherController {
         
         if (application != null) {
             // Get user details for the application (student details)
-            UserDtls studentUser = userRepo.findByEmail(application.getUserEmail());
+            UserDtls studentUser = currentUserService.getUser(application.getUserEmail());
             model.addAttribute("studentUser", studentUser);
         }
         
@@ -300,16 +314,9 @@ public class TeacherController {
     public String seatManagement(Model model) {
         List<UserApplication> applications = userApplicationService.getAllApplications();
         
-        // Create a map of email to student name
-        java.util.Map<String, String> studentNames = new java.util.HashMap<>();
-        for (UserApplication app : applications) {
-            if (app.getUserEmail() != null) {
-                UserDtls student = userRepo.findByEmail(app.getUserEmail());
-                if (student != null) {
-                    studentNames.put(app.getUserEmail(), student.getFullName());
-                }
-            }
-        }
+        // Resolve student names for all rows in one batched lookup
+        java.util.Map<String, String> studentNames = studentNameService.getStudentNames(
+            applications.stream().map(UserApplication::getUserEmail).collect(java.util.stream.Collectors.toList()));
         
         model.addAttribute("applications", applications);
         model.addAttribute("studentNames", studentNames);
@@ -379,98 +386,75 @@ public class TeacherController {
     @PostMapping("/seat-management/bulk-update")
     public String bulkUpdateApplications(HttpServletRequest request, HttpSession session) {
         try {
-            int successCount = 0;
-            int totalChanges = 0;
-            
-            // Get all parameters that start with "changes["
-            java.util.Map<String, String[]> paramMap = request.getParameterMap();
-            java.util.Map<String, java.util.Map<String, String>> changesByApp = new java.util.HashMap<>();
-            
-            // Parse the changes parameters
-            for (String paramName : paramMap.keySet()) {
-                if (paramName.startsWith("changes[")) {
-                    String[] values = paramMap.get(paramName);
-                    if (values.length > 0) {
-                        // Extract index and field from parameter name
-                        // Format: changes[0].appId, changes[0].field, changes[0].value
-                        String indexPart = paramName.substring(8, paramName.indexOf(']'));
-                        String fieldPart = paramName.substring(paramName.indexOf('.') + 1);
-                        
-                        changesByApp.computeIfAbsent(indexPart, k -> new java.util.HashMap<>()).put(fieldPart, values[0]);
-                    }
-                }
-            }
+            // Format: changes[0].appId, changes[0].field, changes[0].value
+            java.util.Collection<java.util.Map<String, String>> changeRows = BulkChangeParams.parse(request.getParameterMap());
             
-            // Process each change
-            for (java.util.Map<String, String> change : changesByApp.values()) {
-                String appId = change.get("appId");
-                String field = change.get("field");
-                String value = change.get("value");
-                
-                if (appId != null && field != null && value != null) {
-                    totalChanges++;
-                    UserApplication updatedApp = null;
-                    
-                    switch (field) {
-                        case "status":
-                            updatedApp = userApplicationService.updateApplicationStatus(appId, value);
-                            break;
-                        case "course":
-                            updatedApp = userApplicationService.updateApplicationCourse(appId, value);
-                            break;
-                        case "allocatedBranch":
-                            updatedApp = userApplicationService.updateApplicationBranch(appId, value);
-                            break;
-                    }
-                    
-                    if (updatedApp != null) {
-                        successCount++;
-                    }
+            List<ApplicationChange> changes = new java.util.ArrayList<>();
+            for (java.util.Map<String, String> change : changeRows) {
+                if (change.get("appId") != null && change.get("field") != null && change.get("value") != null) {
+                    changes.add(new ApplicationChange(change.get("appId"), change.get("field"), change.get("value")));
                 }
             }
             
-            if (totalChanges == 0) {
+            if (changes.isEmpty()) {
                 session.setAttribute("msg", "No changes to save!");
                 session.setAttribute("msgType", "info");
-            } else if (successCount == totalChanges) {
-                session.setAttribute("msg", "All " + successCount + " changes saved successfully!");
+                return "redirect:/teacher/seat-management";
+            }
+            
+            BulkUpdateResult<ApplicationChange> result = userApplicationService.applyBulkChanges(changes);
+            if (result.getFailed() == 0) {
+                session.setAttribute("msg", "All " + result.getSucceeded() + " changes saved successfully!");
                 session.setAttribute("msgType", "success");
             } else {
-                session.setAttribute("msg", successCount + " out of " + totalChanges + " changes saved successfully.");
+                StringBuilder msg = new StringBuilder(result.getSucceeded() + " out of " + result.getTotal() + " changes saved successfully.");
+                List<BulkUpdateResult.RowOutcome<ApplicationChange>> failures = result.getFailures();
+                for (BulkUpdateResult.RowOutcome<ApplicationChange> failure : failures.subList(0, Math.min(5, failures.size()))) {
+                    msg.append(" ").append(failure.getChange().getApplicationId()).append(" (")
+                       .append(failure.getChange().getField()).append("): ").append(failure.getMessage()).append(".");
+                }
+                if (failures.size() > 5) {
+                    msg.append(" ...and ").append(failures.size() - 5).append(" more.");
+                }
+                session.setAttribute("msg", msg.toString());
                 session.setAttribute("msgType", "warning");
             }
             
         } catch (Exception e) {
-            session.setAttribute("msg", "Error saving changes: " + e.getMessage());
+            session.setAttribute("msg", "Error saving changes, nothing was saved: " + e.getMessage());
             session.setAttribute("msgType", "danger");
         }
         
         return "redirect:/teacher/seat-management";
     }
     
+    @PostMapping("/seat-management/auto-allocate")
+    public String autoAllocateSeats(@RequestParam("seatMatrix") String seatMatrix,
+                                    HttpSession session) {
+        try {
+            AllocationResult result = seatAllocationService.runAllocationRound(SeatMatrix.parse(seatMatrix));
+            session.setAttribute("msg", "Allocation round complete: " + result.getAllocated() + " of "
+                    + result.getCandidates() + " approved applicants allocated (" + result.getFirstPreference()
+                    + " on first preference), " + result.getUnplaced() + " unplaced.");
+            session.setAttribute("msgType", "success");
+        } catch (IllegalArgumentException e) {
+            session.setAttribute("msg", "Invalid seat matrix: " + e.getMessage());
+            session.setAttribute("msgType", "danger");
+        } catch (Exception e) {
+            session.setAttribute("msg", "Error running seat allocation: " + e.getMessage());
+            session.setAttribute("msgType", "danger");
+        }
+        return "redirect:/teacher/seat-management";
+    }
+    
     @GetMapping("/payment-management")
     public String paymentManagement(Model model, HttpServletRequest request) {
         List<Payment> payments = paymentService.getAllPayments();
         
-        // Create maps for student names and phone numbers
-        java.util.Map<String, String> studentNames = new java.util.HashMap<>();
-        java.util.Map<String, String> studentPhones = new java.util.HashMap<>();
-        for (Payment payment : payments) {
-            if (payment.getUserEmail() != null) {
-                UserDtls student = userRepo.findByEmail(payment.getUserEmail());
-                if (student != null) {
-                    studentNames.put(payment.getUserEmail(), student.getFullName());
-                }
-                // Get phone from UserApplication if available
-                List<UserApplication> allApps = userApplicationService.getAllApplications();
-                for (UserApplication app : allApps) {
-                    if (app.getUserEmail() != null && app.getUserEmail().equals(payment.getUserEmail()) && app.getPhoneNo() != null) {
-                        studentPhones.put(payment.getUserEmail(), app.getPhoneNo());
-                        break;
-                    }
-                }
-            }
-        }
+        // Resolve student names and phone numbers for every displayed payment in bulk
+        List<String> paymentEmails = payments.stream().map(Payment::getUserEmail).collect(java.util.stream.Collectors.toList());
+        java.util.Map<String, String> studentNames = studentNameService.getStudentNames(paymentEmails);
+        java.util.Map<String, String> studentPhones = userApplicationService.getPhoneNumbersByEmails(paymentEmails);
         
         // Calculate statistics
         long pendingCount = payments.stream().filter(p -> p.getStatus() == Payment.PaymentStatus.PENDING).count();
@@ -520,56 +504,55 @@ public class TeacherController {
     @PostMapping("/payment-management/bulk-update")
     public String bulkUpdatePayments(HttpServletRequest request, HttpSession session, Principal p) {
         try {
-            int successCount = 0;
-            int totalChanges = 0;
             String teacherEmail = p.getName();
             
-            java.util.Map<String, String[]> paramMap = request.getParameterMap();
-            java.util.Map<String, java.util.Map<String, String>> changesByPayment = new java.util.HashMap<>();
+            java.util.Collection<java.util.Map<String, String>> changeRows = BulkChangeParams.parse(request.getParameterMap());
             
-            for (String paramName : paramMap.keySet()) {
-                if (paramName.startsWith("changes[")) {
-                    String[] values = paramMap.get(paramName);
-                    if (values.length > 0) {
-                        String indexPart = paramName.substring(8, paramName.indexOf(']'));
-                        String fieldPart = paramName.substring(paramName.indexOf('.') + 1);
-                        
-                        changesByPayment.computeIfAbsent(indexPart, k -> new java.util.HashMap<>()).put(fieldPart, values[0]);
-                    }
-                }
-            }
-            
-            for (java.util.Map<String, String> change : changesByPayment.values()) {
+            List<PaymentStatusChange> changes = new java.util.ArrayList<>();
+            int invalid = 0;
+            for (java.util.Map<String, String> change : changeRows) {
                 String paymentId = change.get("paymentId");
                 String field = change.get("field");
                 String value = change.get("value");
                 
                 if (paymentId != null && field != null && value != null && field.equals("status")) {
-                    totalChanges++;
-                    
                     try {
-                        Long id = Long.parseLong(paymentId);
-                        Payment.PaymentStatus status = Payment.PaymentStatus.valueOf(value);
-                        ((com.m4nas.service.PaymentServiceImpl) paymentService).updatePaymentStatus(id, status, teacherEmail);
-                        successCount++;
-                    } catch (Exception e) {
+                        changes.add(new PaymentStatusChange(Long.parseLong(paymentId), Payment.PaymentStatus.valueOf(value)));
+                    } catch (IllegalArgumentException e) {
+                        invalid++;
                     }
                 }
             }
             
-            if (totalChanges == 0) {
+            if (changes.isEmpty() && invalid == 0) {
                 session.setAttribute("msg", "No changes to save!");
                 session.setAttribute("msgType", "info");
-            } else if (successCount == totalChanges) {
-                session.setAttribute("msg", "All " + successCount + " payment status changes saved successfully!");
+                return "redirect:/teacher/payment-management";
+            }
+            
+            BulkUpdateResult<PaymentStatusChange> result = paymentService.bulkUpdateStatus(changes, teacherEmail);
+            int totalChanges = result.getTotal() + invalid;
+            if (result.getSucceeded() == totalChanges) {
+                session.setAttribute("msg", "All " + totalChanges + " payment status changes saved successfully!");
                 session.setAttribute("msgType", "success");
             } else {
-                session.setAttribute("msg", successCount + " out of " + totalChanges + " changes saved successfully.");
+                StringBuilder msg = new StringBuilder(result.getSucceeded() + " out of " + totalChanges + " changes saved successfully.");
+                if (invalid > 0) {
+                    msg.append(" ").append(invalid).append(" had an invalid payment id or status.");
+                }
+                List<BulkUpdateResult.RowOutcome<PaymentStatusChange>> failures = result.getFailures();
+                for (BulkUpdateResult.RowOutcome<PaymentStatusChange> failure : failures.subList(0, Math.min(5, failures.size()))) {
+                    msg.append(" Payment ").append(failure.getChange().getPaymentId()).append(": ").append(failure.getMessage()).append(".");
+                }
+                if (failures.size() > 5) {
+                    msg.append(" ...and ").append(failures.size() - 5).append(" more.");
+                }
+                session.setAttribute("msg", msg.toString());
                 session.setAttribute("msgType", "warning");
             }
             
         } catch (Exception e) {
-            session.setAttribute("msg", "Error saving changes: " + e.getMessage());
+            session.setAttribute("msg", "Error saving changes, nothing was saved: " + e.getMessage());
             session.setAttribute("msgType", "danger");
         }
         
@@ -1,15 +1,22 @@
 package com.m4nas.controller;
 
 import com.m4nas.model.UserApplication;
-import com.m4nas.model.Announcement;
+import com.m4nas.dto.AnnouncementFeed;
+import com.m4nas.dto.ReceiptFile;
+import com.m4nas.dto.ReceiptVariant;
 import com.m4nas.service.UserApplicationService;
 import com.m4nas.service.AnnouncementService;
 import com.m4nas.service.PaymentService;
+import com.m4nas.service.ReceiptService;
+import com.m4nas.service.StudentNameService;
+import com.m4nas.service.CurrentUserService;
 import com.m4nas.model.Payment;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import jakarta.servlet.http.HttpSession;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -24,19 +31,40 @@ import java.security.Principal;
 import java.time.LocalDate;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 
 @Controller
 @RequestMapping("/user/")
 public class UserController {
 
+    /** Tomcat request attributes for handing a file to the connector's sendfile support. */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** Same cut-off as Tomcat's DefaultServlet; smaller bodies are cheaper to write directly. */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    /** Receipt types a browser may render in place; anything else is downloaded. */
+    private static final Set<String> INLINE_RECEIPT_TYPES = Set.of(
+            MediaType.APPLICATION_PDF_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE);
+
     @Autowired
     private UserRepository userRepo;
     @Autowired
@@ -50,13 +78,22 @@ public class UserController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private StudentNameService studentNameService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private ReceiptService receiptService;
+
 
 
     @GetMapping("/")
     public String redirectToHome(Principal p, Model model, HttpServletRequest request){
         if(p != null){
             String email = p.getName();
-            UserDtls user = userRepo.findByEmail(email);
+            UserDtls user = currentUserService.getCurrentUser(p);
             if(user != null) {
                 UserApplication application = userApplicationService.getUserApplicationByEmail(email);
                 
@@ -101,13 +138,14 @@ public class UserController {
                                  HttpSession session){
 
         String email=p.getName();
-        UserDtls loginUser=userRepo.findByEmail(email);
+        UserDtls loginUser=userRepo.findForLogin(email);
 
         boolean f=passwordEncoder.matches(oldPass,loginUser.getPassword());
 
         if(f){
             loginUser.setPassword((passwordEncoder.encode(newPass)));
             UserDtls updatePasswordUser=userRepo.save(loginUser);
+            currentUserService.evict(email);
             if(updatePasswordUser != null){
                 session.setAttribute("msg","Password changed successfully!");
                 session.setAttribute("msgType", "success");
@@ -125,7 +163,7 @@ public class UserController {
     @GetMapping("/application")
     public String newApplication(Principal p,Model model){
         String email = p.getName();
-        UserDtls user = userRepo.findByEmail(email);
+        UserDtls user = currentUserService.getCurrentUser(p);
 
         //check if user already had an application
         UserApplication existingApp = userApplicationService.getUserApplicationByEmail(email);
@@ -147,7 +185,7 @@ public class UserController {
     public String submitApplication(@ModelAttribute UserApplication application,
                                     Principal p,HttpSession session){
         String email = p.getName();
-        UserDtls user = userRepo.findByEmail(email);
+        UserDtls user = currentUserService.getCurrentUser(p);
         
         application.setUserEmail(email);
         application.setSubmissionDate(LocalDate.now());
@@ -177,7 +215,7 @@ public class UserController {
 @Transactional(readOnly = true)
 public String applicationStatus(Principal p, Model model, HttpServletRequest request){
     String email = p.getName();
-    UserDtls user = userRepo.findByEmail(email);
+    UserDtls user = currentUserService.getCurrentUser(p);
     UserApplication application = userApplicationService.getUserApplicationByEmail(email);
     
     // Pass individual fields to avoid Hibernate proxy issues
@@ -290,7 +328,7 @@ public String applicationStatus(Principal p, Model model, HttpServletRequest req
     @GetMapping("/settings/editProfile")
     public String editProfile(Principal p, Model model, HttpServletRequest request) {
         String email = p.getName();
-        UserDtls user = userRepo.findByEmail(email);
+        UserDtls user = currentUserService.getCurrentUser(p);
         model.addAttribute("user", user);
         model.addAttribute("currentPath", request.getRequestURI());
         return "user/settings/edit_profile";
@@ -305,6 +343,9 @@ public String applicationStatus(Principal p, Model model, HttpServletRequest req
             // Only allow updating full name (email and other fields remain unchanged)
             existingUser.setFullName(updatedUser.getFullName());
             UserDtls savedUser = userRepo.save(existingUser);
+            studentNameService.evict(email);
+            currentUserService.evict(email);
+            userApplicationService.refreshSearchIndex(email, savedUser.getFullName());
             
             if(savedUser != null) {
                 session.setAttribute("msg", "Profile updated successfully!");
@@ -321,19 +362,27 @@ public String applicationStatus(Principal p, Model model, HttpServletRequest req
     }
 
     @GetMapping("/notifications")
-    public String notifications(Principal p, Model model, HttpServletRequest request) {
+    public String notifications(Principal p, Model model, HttpServletRequest request, HttpServletResponse response,
+                                WebRequest webRequest) {
         String email = p.getName();
-        UserDtls user = userRepo.findByEmail(email);
-        UserApplication application = userApplicationService.getUserApplicationByEmail(email);
+        UserDtls user = currentUserService.getCurrentUser(p);
         
-        // Get announcements for students (STUDENT and ALL)
-        List<Announcement> announcements = announcementService.getAnnouncementsByAudience("STUDENT");
+        // Get announcements for students (STUDENT and ALL) from the in-memory feed
+        AnnouncementFeed feed = announcementService.getFeed(AnnouncementService.FEED_STUDENT);
         
-
+        // The page also shows the user's name and application timeline. The timeline is versioned by the
+        // student's own application status, read as a two-column projection; the application is only loaded to render.
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (webRequest.checkNotModified(feed.eTag(request.getSession().getId(),
+                user != null ? user.getFullName() : null,
+                userApplicationService.getApplicationTimelineState(email)))) {
+            return null;
+        }
+        UserApplication application = userApplicationService.getUserApplicationByEmail(email);
         
         model.addAttribute("user", user);
         model.addAttribute("application", application);
-        model.addAttribute("announcements", announcements);
+        model.addAttribute("announcements", feed.getAnnouncements());
         model.addAttribute("currentPath", request.getRequestURI());
         return "user/notifications";
     }
@@ -341,7 +390,7 @@ public String applicationStatus(Principal p, Model model, HttpServletRequest req
     @GetMapping("/courses")
     public String myCourses(Principal p, Model model, HttpServletRequest request) {
         String email = p.getName();
-        UserDtls user = userRepo.findByEmail(email);
+        UserDtls user = currentUserService.getCurrentUser(p);
         UserApplication application = userApplicationService.getUserApplicationByEmail(email);
         
         model.addAttribute("user", user);
@@ -353,7 +402,7 @@ public String applicationStatus(Principal p, Model model, HttpServletRequest req
     @GetMapping("/payment")
     public String paymentStatus(Principal p, Model model, HttpServletRequest request) {
         String email = p.getName();
-        UserDtls user = userRepo.findByEmail(email);
+        UserDtls user = currentUserService.getCurrentUser(p);
         UserApplication application = userApplicationService.getUserApplicationByEmail(email);
         
         // Pass individual fields like application status page
@@ -413,20 +462,142 @@ public String applicationStatus(Principal p, Model model, HttpServletRequest req
     }
     
     @GetMapping("/uploads/receipts/{filename:.+}")
-    public ResponseEntity<Resource> serveReceiptFile(@PathVariable String filename) {
+    public void serveReceiptFile(@PathVariable String filename,
+                                 @RequestParam(value = "size", required = false) String size, Principal p,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ReceiptVariant variant;
         try {
-            Path file = Paths.get("uploads/receipts").resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
-            
-            if (resource.exists() || resource.isReadable()) {
-                return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
+            variant = ReceiptVariant.fromParam(size);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported receipt size: " + size);
+            return;
+        }
+        ReceiptFile receipt = receiptService.getReceipt(filename, variant);
+        if (receipt == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        boolean staff = request.isUserInRole("TEACHER") || request.isUserInRole("ADMIN");
+        if (!staff && !receipt.isOwnedBy(p.getName())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        if (receipt.getVariant() == variant) {
+            // Stored names are content hashes, so the browser may keep the file for good
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        } else {
+            // The original standing in for a copy still being built; ask again next time
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (new ServletWebRequest(request, response).checkNotModified(receipt.getETag(), receipt.getLastModified())) {
+            return;
+        }
+
+        long length = receipt.getLength();
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), receipt)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds != null && bounds.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(receipt.getContentType());
+        ContentDisposition disposition = (INLINE_RECEIPT_TYPES.contains(receipt.getContentType())
+                ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(receipt.getFileName()).build();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        response.setContentLengthLong(count);
+        if (count <= 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        // Larger bodies are handed to Tomcat, which writes them with sendfile after we return
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, receipt.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(receipt.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    /**
+     * Single byte range from a Range header. Multiple ranges and malformed
+     * headers are ignored, which RFC 9110 allows, and the whole file is sent.
+     *
+     * @return inclusive {start, end}, null to send the whole file, or an empty array if unsatisfiable
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
             } else {
-                return ResponseEntity.notFound().build();
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+                if (start < 0 || end < start) {
+                    return null;
+                }
+                end = Math.min(end, length - 1);
             }
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            return start < length ? new long[] {start, end} : new long[0];
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** A Range is only honoured if If-Range, when sent, still names this version of the file. */
+    private static boolean ifRangeMatches(String ifRange, ReceiptFile receipt) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(receipt.getETag());
+        }
+        try {
+            return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+                    == receipt.getLastModified();
+        } catch (DateTimeParseException e) {
+            return false;
         }
     }
 }
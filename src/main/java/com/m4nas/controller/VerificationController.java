@@ -2,6 +2,7 @@ package com.m4nas.controller;
 
 import com.m4nas.model.UserDtls;
 import com.m4nas.repository.UserRepository;
+import com.m4nas.service.CurrentUserService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,9 +12,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class VerificationController {
 
     private final UserRepository userRepository;
+    private final CurrentUserService currentUserService;
 
-    public VerificationController(UserRepository userRepository) {
+    public VerificationController(UserRepository userRepository, CurrentUserService currentUserService) {
         this.userRepository = userRepository;
+        this.currentUserService = currentUserService;
     }
 
     @GetMapping("/verify")
@@ -32,6 +35,7 @@ public class VerificationController {
             user.setEnable(true);
             user.setVerificationCode("LOCAL_OAUTH_VERIFIED"); // Set proper verification status
             userRepository.save(user);
+            currentUserService.evict(user.getEmail());
             return "verify_success";
         }
     }
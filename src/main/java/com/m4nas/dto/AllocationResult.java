@@ -0,0 +1,33 @@
+package com.m4nas.dto;
+
+import java.util.Map;
+
+/**
+ * Outcome of one seat allocation round.
+ */
+public class AllocationResult {
+
+    private final int candidates;
+    private final int allocated;
+    private final int firstPreference;
+    private final Map<String, Integer> seatsLeft;
+    private final long elapsedMillis;
+
+    public AllocationResult(int candidates, int allocated, int firstPreference,
+                            Map<String, Integer> seatsLeft, long elapsedMillis) {
+        this.candidates = candidates;
+        this.allocated = allocated;
+        this.firstPreference = firstPreference;
+        this.seatsLeft = seatsLeft;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getCandidates() { return candidates; }
+    public int getAllocated() { return allocated; }
+    public int getFirstPreference() { return firstPreference; }
+    public int getUnplaced() { return candidates - allocated; }
+
+    /** Seats still free per "course / branch" after this round. */
+    public Map<String, Integer> getSeatsLeft() { return seatsLeft; }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -0,0 +1,40 @@
+package com.m4nas.dto;
+
+import com.m4nas.model.Announcement;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precomputed list of active announcements for one audience, newest first.
+ * Shared by every request until the next rebuild, so the announcements in it
+ * must be treated as read-only.
+ */
+public class AnnouncementFeed {
+
+    private final String audience;
+    private final List<Announcement> announcements;
+    private final String version;
+
+    public AnnouncementFeed(String audience, List<Announcement> announcements, String version) {
+        this.audience = audience;
+        this.announcements = List.copyOf(announcements);
+        this.version = version;
+    }
+
+    public String getAudience() { return audience; }
+    public List<Announcement> getAnnouncements() { return announcements; }
+
+    /** Changes whenever the announcements in this feed change. */
+    public String getVersion() { return version; }
+
+    /**
+     * Strong ETag for a page built from this feed.
+     *
+     * @param pageState everything else the page renders (user, session, ...)
+     * @return quoted entity tag
+     */
+    public String eTag(Object... pageState) {
+        return "\"" + audience + "-" + version + "-" + Integer.toHexString(Arrays.hashCode(pageState)) + "\"";
+    }
+}
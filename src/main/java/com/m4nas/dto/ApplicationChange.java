@@ -0,0 +1,25 @@
+package com.m4nas.dto;
+
+/**
+ * One edited cell from the seat-management grid.
+ */
+public class ApplicationChange {
+
+    public static final String STATUS = "status";
+    public static final String COURSE = "course";
+    public static final String ALLOCATED_BRANCH = "allocatedBranch";
+
+    private final String applicationId;
+    private final String field;
+    private final String value;
+
+    public ApplicationChange(String applicationId, String field, String value) {
+        this.applicationId = applicationId;
+        this.field = field;
+        this.value = value;
+    }
+
+    public String getApplicationId() { return applicationId; }
+    public String getField() { return field; }
+    public String getValue() { return value; }
+}
@@ -0,0 +1,60 @@
+package com.m4nas.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Keyset position in the merit ordering (percentage12 DESC, submissionDate, id, missing values last).
+ * Encoded as an opaque URL-safe token so pages can be linked with ?cursor=...
+ * The rank of the last row is carried along so the next page can keep numbering.
+ */
+public class ApplicationCursor {
+
+    private final Double percentage12;
+    private final LocalDate submissionDate;
+    private final String id;
+    private final int rank;
+
+    public ApplicationCursor(Double percentage12, LocalDate submissionDate, String id, int rank) {
+        this.percentage12 = percentage12;
+        this.submissionDate = submissionDate;
+        this.id = id;
+        this.rank = rank;
+    }
+
+    public Double getPercentage12() { return percentage12; }
+    public LocalDate getSubmissionDate() { return submissionDate; }
+    public String getId() { return id; }
+    public int getRank() { return rank; }
+
+    public String encode() {
+        String raw = (percentage12 != null ? percentage12.toString() : "")
+                + "|" + (submissionDate != null ? submissionDate.toString() : "")
+                + "|" + rank
+                + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     *
+     * @param token the cursor token, may be null or empty for the first page
+     * @return the decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ApplicationCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            Double percentage12 = parts[0].isEmpty() ? null : Double.valueOf(parts[0]);
+            LocalDate submissionDate = parts[1].isEmpty() ? null : LocalDate.parse(parts[1]);
+            return new ApplicationCursor(percentage12, submissionDate, parts[3], Integer.parseInt(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
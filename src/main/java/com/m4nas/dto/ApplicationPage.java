@@ -0,0 +1,31 @@
+package com.m4nas.dto;
+
+import com.m4nas.model.UserApplication;
+
+import java.util.List;
+
+/**
+ * One page of applications in merit order, plus the cursor for the next page.
+ */
+public class ApplicationPage {
+
+    private final List<UserApplication> applications;
+    private final int rankOffset;
+    private final String nextCursor;
+
+    public ApplicationPage(List<UserApplication> applications, int rankOffset, String nextCursor) {
+        this.applications = applications;
+        this.rankOffset = rankOffset;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserApplication> getApplications() { return applications; }
+
+    /** Number of rows ranked before this page; rank of row i is rankOffset + i + 1. */
+    public int getRankOffset() { return rankOffset; }
+
+    /** Token for the following page, or null when this is the last page. */
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasNext() { return nextCursor != null; }
+}
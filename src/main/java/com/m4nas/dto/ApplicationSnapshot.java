@@ -0,0 +1,39 @@
+package com.m4nas.dto;
+
+import com.m4nas.model.UserApplication;
+
+/**
+ * The fields of an application that feed the dashboard counters, captured
+ * before and after a write so the counters can be adjusted by the difference.
+ */
+public class ApplicationSnapshot {
+
+    private final String status;
+    private final boolean seatAccepted;
+    private final String allocatedBranch;
+    private final Integer obtain12Marks;
+
+    private ApplicationSnapshot(UserApplication app) {
+        this.status = app.getStatus();
+        this.seatAccepted = Boolean.TRUE.equals(app.getSeatAccepted());
+        this.allocatedBranch = app.getAllocatedBranch();
+        this.obtain12Marks = app.getObtain12Marks();
+    }
+
+    /**
+     * @param app the application, may be null when it does not exist (yet / any more)
+     * @return snapshot of the counter fields, or null for a missing application
+     */
+    public static ApplicationSnapshot of(UserApplication app) {
+        return app != null ? new ApplicationSnapshot(app) : null;
+    }
+
+    public String getStatus() { return status; }
+    public String getAllocatedBranch() { return allocatedBranch; }
+    public Integer getObtain12Marks() { return obtain12Marks; }
+
+    /** Matches findAllocatedApplicationsPendingResponse (ALLOCATED and not yet accepted). */
+    public boolean isAllocatedPendingResponse() {
+        return "ALLOCATED".equals(status) && !seatAccepted;
+    }
+}
@@ -0,0 +1,68 @@
+package com.m4nas.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-row outcomes of a bulk update, in submission order.
+ *
+ * @param <C> the submitted change type
+ */
+public class BulkUpdateResult<C> {
+
+    private final List<C> changes;
+    private final List<RowOutcome<C>> outcomes;
+    private int succeeded;
+
+    @SuppressWarnings("unchecked")
+    public BulkUpdateResult(List<C> changes) {
+        this.changes = changes;
+        this.outcomes = Arrays.asList(new RowOutcome[changes.size()]);
+    }
+
+    /** @param index position of the change in the submitted list */
+    public void success(int index) {
+        outcomes.set(index, new RowOutcome<>(changes.get(index), true, null));
+        succeeded++;
+    }
+
+    /** @param index position of the change in the submitted list */
+    public void failure(int index, String message) {
+        outcomes.set(index, new RowOutcome<>(changes.get(index), false, message));
+    }
+
+    public List<RowOutcome<C>> getOutcomes() { return Collections.unmodifiableList(outcomes); }
+    public int getTotal() { return outcomes.size(); }
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return outcomes.size() - succeeded; }
+
+    public List<RowOutcome<C>> getFailures() {
+        List<RowOutcome<C>> failures = new ArrayList<>();
+        for (RowOutcome<C> outcome : outcomes) {
+            if (outcome != null && !outcome.isSuccess()) {
+                failures.add(outcome);
+            }
+        }
+        return failures;
+    }
+
+    public static class RowOutcome<C> {
+        private final C change;
+        private final boolean success;
+        private final String message;
+
+        RowOutcome(C change, boolean success, String message) {
+            this.change = change;
+            this.success = success;
+            this.message = message;
+        }
+
+        public C getChange() { return change; }
+        public boolean isSuccess() { return success; }
+
+        /** Why the change was rejected; null on success. */
+        public String getMessage() { return message; }
+    }
+}
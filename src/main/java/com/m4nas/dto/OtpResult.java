@@ -0,0 +1,62 @@
+package com.m4nas.dto;
+
+/**
+ * Outcome of issuing or checking a password-reset OTP.
+ */
+public class OtpResult {
+
+    public enum Status {
+        /** A new code was issued; it is in {@link #getCode()}. */
+        ISSUED,
+        /** Too many requests for this email or from this client. */
+        THROTTLED,
+        /** The code matched; {@link #getResetToken()} authorises one password change. */
+        VALID,
+        /** Wrong code; {@link #getAttemptsLeft()} tries remain. */
+        INVALID,
+        /** No code is outstanding for this email, or it has run out. */
+        EXPIRED,
+        /** Too many wrong codes; a new one has to be requested. */
+        LOCKED
+    }
+
+    private final Status status;
+    private final int code;
+    private final String resetToken;
+    private final int attemptsLeft;
+    private final long retryAfterSeconds;
+
+    private OtpResult(Status status, int code, String resetToken, int attemptsLeft, long retryAfterSeconds) {
+        this.status = status;
+        this.code = code;
+        this.resetToken = resetToken;
+        this.attemptsLeft = attemptsLeft;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static OtpResult issued(int code) {
+        return new OtpResult(Status.ISSUED, code, null, 0, 0);
+    }
+
+    public static OtpResult throttled(long retryAfterSeconds) {
+        return new OtpResult(Status.THROTTLED, 0, null, 0, retryAfterSeconds);
+    }
+
+    public static OtpResult valid(String resetToken) {
+        return new OtpResult(Status.VALID, 0, resetToken, 0, 0);
+    }
+
+    public static OtpResult invalid(int attemptsLeft) {
+        return new OtpResult(Status.INVALID, 0, null, attemptsLeft, 0);
+    }
+
+    public static OtpResult of(Status status) {
+        return new OtpResult(status, 0, null, 0, 0);
+    }
+
+    public Status getStatus() { return status; }
+    public int getCode() { return code; }
+    public String getResetToken() { return resetToken; }
+    public int getAttemptsLeft() { return attemptsLeft; }
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
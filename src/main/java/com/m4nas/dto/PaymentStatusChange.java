@@ -0,0 +1,20 @@
+package com.m4nas.dto;
+
+import com.m4nas.model.Payment;
+
+/**
+ * One edited status cell from the payment-management grid.
+ */
+public class PaymentStatusChange {
+
+    private final Long paymentId;
+    private final Payment.PaymentStatus status;
+
+    public PaymentStatusChange(Long paymentId, Payment.PaymentStatus status) {
+        this.paymentId = paymentId;
+        this.status = status;
+    }
+
+    public Long getPaymentId() { return paymentId; }
+    public Payment.PaymentStatus getStatus() { return status; }
+}
@@ -0,0 +1,54 @@
+package com.m4nas.dto;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A stored receipt ready to be served: where it is, who owns it and the
+ * validators used for conditional and range requests.
+ */
+public class ReceiptFile {
+
+    private final Path path;
+    private final String fileName;
+    private final List<String> ownerEmails;
+    private final String contentType;
+    private final long length;
+    private final long lastModified;
+    private final String eTag;
+    private final ReceiptVariant variant;
+
+    public ReceiptFile(Path path, String fileName, List<String> ownerEmails, String contentType,
+                       long length, long lastModified, String eTag, ReceiptVariant variant) {
+        this.path = path;
+        this.fileName = fileName;
+        this.ownerEmails = List.copyOf(ownerEmails);
+        this.contentType = contentType;
+        this.length = length;
+        this.lastModified = lastModified;
+        this.eTag = eTag;
+        this.variant = variant;
+    }
+
+    public Path getPath() { return path; }
+    public String getFileName() { return fileName; }
+
+    /** Students whose payments carry this receipt; identical uploads share one file. */
+    public List<String> getOwnerEmails() { return ownerEmails; }
+
+    public boolean isOwnedBy(String email) {
+        return ownerEmails.stream().anyMatch(owner -> owner.equalsIgnoreCase(email));
+    }
+
+    public String getContentType() { return contentType; }
+    public long getLength() { return length; }
+
+    /** Epoch millis, truncated to whole seconds as HTTP dates are. */
+    public long getLastModified() { return lastModified; }
+
+    /** Quoted strong entity tag derived from the file content. */
+    public String getETag() { return eTag; }
+
+    /** Size actually served; the original stands in while a smaller copy is being built. */
+    public ReceiptVariant getVariant() { return variant; }
+}
@@ -0,0 +1,43 @@
+package com.m4nas.dto;
+
+import java.util.Locale;
+
+/**
+ * Sizes a receipt can be served in. Image receipts get a thumbnail for the
+ * review grids and a recompressed copy for on-screen viewing; the original
+ * is only fetched on demand.
+ */
+public enum ReceiptVariant {
+
+    ORIGINAL(0, 0f),
+    THUMB(240, 0.75f),
+    WEB(1280, 0.8f);
+
+    private final int maxEdge;
+    private final float jpegQuality;
+
+    ReceiptVariant(int maxEdge, float jpegQuality) {
+        this.maxEdge = maxEdge;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /** Longest side in pixels; 0 for the original. */
+    public int getMaxEdge() { return maxEdge; }
+    public float getJpegQuality() { return jpegQuality; }
+
+    /** Appended to the content hash for the stored derivative, e.g. ".thumb.jpg". */
+    public String getSuffix() {
+        return this == ORIGINAL ? "" : "." + name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+
+    /**
+     * @param value "thumb", "web" or "original", case-insensitive; null means the original
+     * @throws IllegalArgumentException for any other value
+     */
+    public static ReceiptVariant fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ORIGINAL;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
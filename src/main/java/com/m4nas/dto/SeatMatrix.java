@@ -0,0 +1,92 @@
+package com.m4nas.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Seat capacity per (course, branch). Mutable: the allocation engine draws seats
+ * from a copy as it assigns them.
+ */
+public class SeatMatrix {
+
+    private final Map<String, Integer> seats = new LinkedHashMap<>();
+
+    public void setSeats(String course, String branch, int count) {
+        seats.put(key(course, branch), Math.max(0, count));
+    }
+
+    public int getSeats(String course, String branch) {
+        return seats.getOrDefault(key(course, branch), 0);
+    }
+
+    /**
+     * Takes one seat if available.
+     *
+     * @return true if a seat was taken
+     */
+    public boolean take(String course, String branch) {
+        String key = key(course, branch);
+        Integer left = seats.get(key);
+        if (left == null || left <= 0) {
+            return false;
+        }
+        seats.put(key, left - 1);
+        return true;
+    }
+
+    /** Removes seats already held (ALLOCATED/ACCEPTED) from the capacity. */
+    public void reserve(String course, String branch, long count) {
+        String key = key(course, branch);
+        Integer left = seats.get(key);
+        if (left != null) {
+            seats.put(key, (int) Math.max(0, left - count));
+        }
+    }
+
+    public SeatMatrix copy() {
+        SeatMatrix copy = new SeatMatrix();
+        copy.seats.putAll(seats);
+        return copy;
+    }
+
+    /** @return remaining seats keyed by "course / branch", in insertion order */
+    public Map<String, Integer> asMap() {
+        Map<String, Integer> view = new LinkedHashMap<>();
+        seats.forEach((key, count) -> view.put(key.replace("\u0000", " / "), count));
+        return view;
+    }
+
+    /**
+     * Parses the seat-management form format: one "course,branch,seats" entry per line.
+     *
+     * @param text the matrix as typed by the teacher
+     * @return the parsed matrix
+     * @throws IllegalArgumentException on a malformed line
+     */
+    public static SeatMatrix parse(String text) {
+        SeatMatrix matrix = new SeatMatrix();
+        if (text == null) {
+            return matrix;
+        }
+        for (String line : text.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] parts = trimmed.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected course,branch,seats but got: " + trimmed);
+            }
+            try {
+                matrix.setSeats(parts[0].trim(), parts[1].trim(), Integer.parseInt(parts[2].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid seat count in: " + trimmed, e);
+            }
+        }
+        return matrix;
+    }
+
+    private static String key(String course, String branch) {
+        return course + '\u0000' + branch;
+    }
+}
@@ -0,0 +1,67 @@
+package com.m4nas.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * RFC 4180 CSV with a UTF-8 BOM so spreadsheet programs pick the right encoding.
+ */
+class CsvRowWriter implements RowWriter {
+
+    /** Phone-number-like values start with + or - but are not formulas. */
+    private static final Pattern PLAIN_NUMBER = Pattern.compile("[+-]?[0-9 ().-]+");
+
+    private final Writer writer;
+
+    CsvRowWriter(OutputStream out, List<String> headers) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+        writeRow(headers.toArray());
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Number) {
+                writer.write(value.toString());
+            } else {
+                writeText(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeText(String text) throws IOException {
+        // Keep spreadsheet programs from evaluating user-supplied text as a formula
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0 && !PLAIN_NUMBER.matcher(text).matches()) {
+            text = "'" + text;
+        }
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (quote) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
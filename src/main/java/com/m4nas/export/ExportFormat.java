@@ -0,0 +1,41 @@
+package com.m4nas.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Output formats for the streaming exports.
+ */
+public enum ExportFormat {
+
+    CSV("csv", "text/csv; charset=UTF-8"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() { return extension; }
+    public String getContentType() { return contentType; }
+
+    public RowWriter open(OutputStream out, String sheetName, List<String> headers) throws IOException {
+        return this == XLSX ? new XlsxRowWriter(out, sheetName, headers) : new CsvRowWriter(out, headers);
+    }
+
+    /**
+     * @param value "csv" or "xlsx", case-insensitive; null means CSV
+     * @throws IllegalArgumentException for any other value
+     */
+    public static ExportFormat fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,21 @@
+package com.m4nas.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes one row at a time straight to the underlying stream; nothing is
+ * buffered beyond the current row, so exports run in constant memory.
+ */
+public interface RowWriter extends Closeable {
+
+    /**
+     * @param values cell values; Numbers are written as numbers, null as an empty cell,
+     *               anything else via toString()
+     */
+    void writeRow(Object... values) throws IOException;
+
+    /** Finishes the document. Does not close the underlying stream. */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,258 @@
+package com.m4nas.importer;
+
+import com.m4nas.model.UserApplication;
+import com.m4nas.util.RandomString;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Upserts one chunk of imported applications keyed on user email. Must run inside
+ * the caller's transaction; the connection is taken from it so a chunk is all or nothing.
+ *
+ * <p>On PostgreSQL the rows are streamed into a temporary staging table with COPY and
+ * merged with two set-based statements; elsewhere they go out as JDBC batches.
+ */
+public class ApplicationChunkWriter {
+
+    private static final String TABLE = "user_applications";
+    private static final String STAGE_TABLE = "application_import_stage";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Consumer<UserApplication> percentageCalculator;
+    private final List<ImportColumn> columns = ImportColumn.all();
+
+    private final String updateSql;
+    private final String insertSql;
+    private final String columnList;
+
+    /** Per-chunk outcome. */
+    public static final class Result {
+        private final int inserted;
+        private final int updated;
+
+        Result(int inserted, int updated) {
+            this.inserted = inserted;
+            this.updated = updated;
+        }
+
+        public int getInserted() { return inserted; }
+        public int getUpdated() { return updated; }
+    }
+
+    public ApplicationChunkWriter(DataSource dataSource, Consumer<UserApplication> percentageCalculator) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.percentageCalculator = percentageCalculator;
+
+        List<String> names = columns.stream().map(ImportColumn::getColumn).collect(Collectors.toList());
+        names.add("percentage10");
+        names.add("percentage12");
+        this.columnList = String.join(", ", names);
+        // Blank cells keep whatever the application already had
+        this.updateSql = "UPDATE " + TABLE + " SET "
+                + names.stream().map(c -> c + " = COALESCE(?, " + c + ")").collect(Collectors.joining(", "))
+                + " WHERE id = ?";
+        this.insertSql = "INSERT INTO " + TABLE + " (id, " + columnList + ", status, seat_accepted, submission_date) VALUES ("
+                + String.join(", ", Collections.nCopies(names.size() + 4, "?")) + ")";
+    }
+
+    public Result write(List<ImportRow> rows) throws SQLException {
+        // A later row for the same email overrides the non-blank cells of an earlier one
+        Map<String, UserApplication> byEmail = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            UserApplication incoming = row.getApplication();
+            UserApplication merged = byEmail.putIfAbsent(incoming.getUserEmail(), incoming);
+            if (merged != null) {
+                for (ImportColumn column : columns) {
+                    Object value = column.get(incoming);
+                    if (value != null) {
+                        column.set(merged, value);
+                    }
+                }
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return new Result(0, 0);
+        }
+
+        List<String> emails = new ArrayList<>(byEmail.keySet());
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        Map<String, Object[]> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT user_email, id, total10marks, obtain10marks, total12marks, obtain12marks FROM " + TABLE
+                        + " WHERE user_email IN (" + placeholders + ") ORDER BY id",
+                rs -> {
+                    existing.putIfAbsent(rs.getString(1), new Object[] {
+                            rs.getString(2), rs.getObject(3), rs.getObject(4), rs.getObject(5), rs.getObject(6) });
+                }, emails.toArray());
+        Map<String, String> userIds = new HashMap<>();
+        jdbcTemplate.query("SELECT email, id FROM user_dtls WHERE email IN (" + placeholders + ")",
+                rs -> {
+                    userIds.put(rs.getString(1), rs.getString(2));
+                }, emails.toArray());
+
+        List<UserApplication> updates = new ArrayList<>();
+        List<UserApplication> inserts = new ArrayList<>();
+        for (UserApplication application : byEmail.values()) {
+            Object[] current = existing.get(application.getUserEmail());
+            if (current != null) {
+                application.setId((String) current[0]);
+                // Percentages need both halves of a pair; take the missing half from the stored row
+                if (application.getTotal10Marks() == null) application.setTotal10Marks(toInteger(current[1]));
+                if (application.getObtain10Marks() == null) application.setObtain10Marks(toInteger(current[2]));
+                if (application.getTotal12Marks() == null) application.setTotal12Marks(toInteger(current[3]));
+                if (application.getObtain12Marks() == null) application.setObtain12Marks(toInteger(current[4]));
+                updates.add(application);
+            } else {
+                String userId = userIds.get(application.getUserEmail());
+                application.setId(userId != null ? userId : RandomString.generateUserId());
+                inserts.add(application);
+            }
+            percentageCalculator.accept(application);
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        if (connection.isWrapperFor(PGConnection.class)) {
+            copyAndMerge(connection.unwrap(PGConnection.class), connection, updates, inserts);
+        } else {
+            batch(updateSql, updates, true);
+            batch(insertSql, inserts, false);
+        }
+        return new Result(inserts.size(), updates.size());
+    }
+
+    private void batch(String sql, List<UserApplication> applications, boolean update) {
+        if (applications.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UserApplication application = applications.get(i);
+                int index = 1;
+                if (!update) {
+                    ps.setString(index++, application.getId());
+                }
+                for (ImportColumn column : columns) {
+                    Object value = column.get(application);
+                    if (value == null) {
+                        ps.setNull(index++, column.getSqlType());
+                    } else if (value instanceof LocalDate) {
+                        ps.setDate(index++, Date.valueOf((LocalDate) value));
+                    } else {
+                        ps.setObject(index++, value, column.getSqlType());
+                    }
+                }
+                setDouble(ps, index++, application.getPercentage10());
+                setDouble(ps, index++, application.getPercentage12());
+                if (update) {
+                    ps.setString(index, application.getId());
+                } else {
+                    ps.setString(index++, "SUBMITTED");
+                    ps.setBoolean(index++, false);
+                    ps.setDate(index, Date.valueOf(today));
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return applications.size();
+            }
+        });
+    }
+
+    private void copyAndMerge(PGConnection pg, Connection connection, List<UserApplication> updates,
+                              List<UserApplication> inserts) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE IF NOT EXISTS " + STAGE_TABLE
+                    + " (LIKE " + TABLE + " INCLUDING DEFAULTS) ON COMMIT DELETE ROWS");
+        }
+
+        // Rows are written straight into the COPY stream; a failure part way rolls back the chunk's transaction
+        PGCopyOutputStream copy = new PGCopyOutputStream(pg,
+                "COPY " + STAGE_TABLE + " (id, " + columnList + ") FROM STDIN WITH (FORMAT csv)");
+        try (Writer csv = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8))) {
+            for (List<UserApplication> group : List.of(updates, inserts)) {
+                for (UserApplication application : group) {
+                    writeCsv(csv, application.getId());
+                    for (ImportColumn column : columns) {
+                        csv.write(',');
+                        writeCsv(csv, column.get(application));
+                    }
+                    csv.write(',');
+                    writeCsv(csv, application.getPercentage10());
+                    csv.write(',');
+                    writeCsv(csv, application.getPercentage12());
+                    csv.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + STAGE_TABLE + " failed", e);
+        }
+
+        String[] names = columnList.split(", ");
+        String assignments = Arrays.stream(names)
+                .map(c -> c + " = COALESCE(s." + c + ", t." + c + ")")
+                .collect(Collectors.joining(", "));
+        String selected = Arrays.stream(names).map(c -> "s." + c).collect(Collectors.joining(", "));
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE " + TABLE + " t SET " + assignments + " FROM " + STAGE_TABLE + " s WHERE t.id = s.id");
+            statement.executeUpdate("INSERT INTO " + TABLE + " (id, " + columnList + ", status, seat_accepted, submission_date)"
+                    + " SELECT s.id, " + selected + ", 'SUBMITTED', false, CURRENT_DATE FROM " + STAGE_TABLE + " s"
+                    + " WHERE NOT EXISTS (SELECT 1 FROM " + TABLE + " t WHERE t.id = s.id)");
+        }
+    }
+
+    /** COPY csv format: an unquoted empty field is NULL, a quoted one is an empty string. */
+    private static void writeCsv(Writer csv, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            csv.write('"');
+            csv.write(((String) value).replace("\"", "\"\""));
+            csv.write('"');
+        } else {
+            csv.write(value.toString());
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private static Integer toInteger(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+}
@@ -0,0 +1,191 @@
+package com.m4nas.importer;
+
+import com.m4nas.model.UserApplication;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A UserApplication property that can be set from an import file. Header names
+ * match the property name, ignoring case, spaces and underscores
+ * ("obtain12Marks", "OBTAIN_12_MARKS" and "Obtain 12 Marks" are the same column).
+ */
+public final class ImportColumn {
+
+    public enum Type {
+        TEXT(Types.VARCHAR), INTEGER(Types.INTEGER), DATE(Types.DATE);
+
+        final int sqlType;
+
+        Type(int sqlType) {
+            this.sqlType = sqlType;
+        }
+    }
+
+    private final String property;
+    private final String column;
+    private final Type type;
+    private final BiConsumer<UserApplication, Object> setter;
+    private final Function<UserApplication, Object> getter;
+
+    private ImportColumn(String property, Type type, BiConsumer<UserApplication, Object> setter,
+                         Function<UserApplication, Object> getter) {
+        this.property = property;
+        this.column = physicalName(property);
+        this.type = type;
+        this.setter = setter;
+        this.getter = getter;
+    }
+
+    public String getProperty() { return property; }
+    public String getColumn() { return column; }
+    public Type getType() { return type; }
+    public int getSqlType() { return type.sqlType; }
+
+    public Object get(UserApplication application) {
+        return getter.apply(application);
+    }
+
+    public void set(UserApplication application, Object value) {
+        setter.accept(application, value);
+    }
+
+    /**
+     * Converts a raw cell; blank cells mean "not provided" and return null.
+     *
+     * @throws IllegalArgumentException with a user-facing message on a bad value
+     */
+    public Object parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        String value = raw.trim();
+        switch (type) {
+            case INTEGER:
+                try {
+                    return Integer.valueOf(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(property + " must be a whole number, got '" + value + "'");
+                }
+            case DATE:
+                try {
+                    return LocalDate.parse(value);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException(property + " must be a date (yyyy-MM-dd), got '" + value + "'");
+                }
+            default:
+                return value;
+        }
+    }
+
+    // ===== COLUMN REGISTRY =====
+
+    public static final ImportColumn USER_EMAIL = text("userEmail", UserApplication::setUserEmail, UserApplication::getUserEmail);
+
+    private static final List<ImportColumn> ALL;
+    private static final Map<String, ImportColumn> BY_HEADER = new HashMap<>();
+
+    static {
+        List<ImportColumn> all = new ArrayList<>();
+        all.add(USER_EMAIL);
+        all.add(date("dob", UserApplication::setDob, UserApplication::getDob));
+        all.add(text("gender", UserApplication::setGender, UserApplication::getGender));
+        all.add(text("phoneNo", UserApplication::setPhoneNo, UserApplication::getPhoneNo));
+        all.add(text("address", UserApplication::setAddress, UserApplication::getAddress));
+        all.add(text("religion", UserApplication::setReligion, UserApplication::getReligion));
+        all.add(text("caste", UserApplication::setCaste, UserApplication::getCaste));
+        all.add(text("city", UserApplication::setCity, UserApplication::getCity));
+        all.add(text("state", UserApplication::setState, UserApplication::getState));
+        all.add(integer("pincode", UserApplication::setPincode, UserApplication::getPincode));
+        all.add(text("parentsName", UserApplication::setParentsName, UserApplication::getParentsName));
+        all.add(text("parentsPhoneNo", UserApplication::setParentsPhoneNo, UserApplication::getParentsPhoneNo));
+
+        all.add(integer("passing10Year", UserApplication::setPassing10Year, UserApplication::getPassing10Year));
+        all.add(text("schoolName10", UserApplication::setSchoolName10, UserApplication::getSchoolName10));
+        all.add(text("board10Name", UserApplication::setBoard10Name, UserApplication::getBoard10Name));
+        all.add(text("rollNo10", UserApplication::setRollNo10, UserApplication::getRollNo10));
+        all.add(integer("class10Math", UserApplication::setClass10Math, UserApplication::getClass10Math));
+        all.add(integer("class10Science", UserApplication::setClass10Science, UserApplication::getClass10Science));
+        all.add(integer("class10English", UserApplication::setClass10English, UserApplication::getClass10English));
+        all.add(integer("class10Hindi", UserApplication::setClass10Hindi, UserApplication::getClass10Hindi));
+        all.add(integer("class10Social", UserApplication::setClass10Social, UserApplication::getClass10Social));
+        all.add(integer("total10Marks", UserApplication::setTotal10Marks, UserApplication::getTotal10Marks));
+        all.add(integer("obtain10Marks", UserApplication::setObtain10Marks, UserApplication::getObtain10Marks));
+
+        all.add(integer("passing12Year", UserApplication::setPassing12Year, UserApplication::getPassing12Year));
+        all.add(text("schoolName12", UserApplication::setSchoolName12, UserApplication::getSchoolName12));
+        all.add(text("board12Name", UserApplication::setBoard12Name, UserApplication::getBoard12Name));
+        all.add(text("rollNo12", UserApplication::setRollNo12, UserApplication::getRollNo12));
+        all.add(integer("class12Physics", UserApplication::setClass12Physics, UserApplication::getClass12Physics));
+        all.add(integer("class12Chemistry", UserApplication::setClass12Chemistry, UserApplication::getClass12Chemistry));
+        all.add(integer("class12Maths", UserApplication::setClass12Maths, UserApplication::getClass12Maths));
+        all.add(integer("class12English", UserApplication::setClass12English, UserApplication::getClass12English));
+        all.add(integer("class12Optional", UserApplication::setClass12Optional, UserApplication::getClass12Optional));
+        all.add(integer("total12Marks", UserApplication::setTotal12Marks, UserApplication::getTotal12Marks));
+        all.add(integer("obtain12Marks", UserApplication::setObtain12Marks, UserApplication::getObtain12Marks));
+
+        all.add(text("entranceName", UserApplication::setEntranceName, UserApplication::getEntranceName));
+        all.add(text("entranceRollNo", UserApplication::setEntranceRollNo, UserApplication::getEntranceRollNo));
+        all.add(integer("entranceYear", UserApplication::setEntranceYear, UserApplication::getEntranceYear));
+        all.add(integer("entranceRank", UserApplication::setEntranceRank, UserApplication::getEntranceRank));
+
+        all.add(text("course", UserApplication::setCourse, UserApplication::getCourse));
+        all.add(text("branch1", UserApplication::setBranch1, UserApplication::getBranch1));
+        all.add(text("branch2", UserApplication::setBranch2, UserApplication::getBranch2));
+
+        ALL = Collections.unmodifiableList(all);
+        for (ImportColumn column : ALL) {
+            BY_HEADER.put(normalize(column.property), column);
+        }
+    }
+
+    /** Every importable column, in a fixed order. */
+    public static List<ImportColumn> all() {
+        return ALL;
+    }
+
+    /** @return the column for a header cell, or null if it is not importable */
+    public static ImportColumn forHeader(String header) {
+        return header == null ? null : BY_HEADER.get(normalize(header));
+    }
+
+    private static String normalize(String header) {
+        return header.replaceAll("[\\s_\\-]", "").replace("\uFEFF", "").toLowerCase(Locale.ROOT);
+    }
+
+    /** Same rule as Spring's CamelCaseToUnderscoresNamingStrategy: "rollNo12" -> "roll_no12". */
+    static String physicalName(String property) {
+        StringBuilder name = new StringBuilder(property);
+        for (int i = 1; i < name.length() - 1; i++) {
+            if (Character.isLowerCase(name.charAt(i - 1)) && Character.isUpperCase(name.charAt(i))
+                    && Character.isLowerCase(name.charAt(i + 1))) {
+                name.insert(i++, '_');
+            }
+        }
+        return name.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static ImportColumn text(String property, BiConsumer<UserApplication, String> setter,
+                                     Function<UserApplication, String> getter) {
+        return new ImportColumn(property, Type.TEXT, (app, value) -> setter.accept(app, (String) value), getter::apply);
+    }
+
+    private static ImportColumn integer(String property, BiConsumer<UserApplication, Integer> setter,
+                                        Function<UserApplication, Integer> getter) {
+        return new ImportColumn(property, Type.INTEGER, (app, value) -> setter.accept(app, (Integer) value), getter::apply);
+    }
+
+    private static ImportColumn date(String property, BiConsumer<UserApplication, LocalDate> setter,
+                                     Function<UserApplication, LocalDate> getter) {
+        return new ImportColumn(property, Type.DATE, (app, value) -> setter.accept(app, (LocalDate) value), getter::apply);
+    }
+}
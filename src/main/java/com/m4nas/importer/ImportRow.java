@@ -0,0 +1,18 @@
+package com.m4nas.importer;
+
+import com.m4nas.model.UserApplication;
+
+/** A validated data row; only the columns present (and non-blank) in the file are set. */
+public class ImportRow {
+
+    private final long line;
+    private final UserApplication application;
+
+    public ImportRow(long line, UserApplication application) {
+        this.line = line;
+        this.application = application;
+    }
+
+    public long getLine() { return line; }
+    public UserApplication getApplication() { return application; }
+}
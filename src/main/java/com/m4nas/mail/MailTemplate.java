@@ -0,0 +1,86 @@
+package com.m4nas.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML mail template split once into literal text and [[placeholder]]
+ * segments. Rendering appends the segments in order with no searching or
+ * intermediate strings. Values are HTML-escaped.
+ */
+public final class MailTemplate {
+
+    private static final String OPEN = "[[";
+    private static final String CLOSE = "]]";
+
+    /** literals[i] is followed by placeholders[i]; the last literal has no placeholder. */
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private MailTemplate(List<String> literals, List<String> placeholders) {
+        this.literals = literals.toArray(new String[0]);
+        this.placeholders = placeholders.toArray(new String[0]);
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate parse(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            literals.add(source.substring(from, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+        return new MailTemplate(literals, placeholders);
+    }
+
+    /**
+     * @param out buffer to append to
+     * @param values placeholder values; a placeholder without a value is kept as written
+     */
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+        out.ensureCapacity(out.length() + literalLength + 64 * placeholders.length);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(placeholders[i]);
+            if (value != null) {
+                appendEscaped(out, value.toString());
+            } else {
+                out.append(OPEN).append(placeholders[i]).append(CLOSE);
+            }
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    /** Names of the placeholders in order of appearance, repeats included. */
+    public List<String> getPlaceholders() {
+        return List.of(placeholders);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
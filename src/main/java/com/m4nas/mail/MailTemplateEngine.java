@@ -0,0 +1,94 @@
+package com.m4nas.mail;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders mail bodies from classpath templates.
+ *
+ * Placeholder templates (templates/NAME.html with [[key]] markers) are parsed
+ * once, the configured ones at startup, and rendered into a per-thread buffer
+ * that is reused across mails. Thymeleaf templates (templates/mail/NAME.html)
+ * go through a dedicated engine whose template cache is always on, independent
+ * of spring.thymeleaf.cache for the pages.
+ */
+@Component
+public class MailTemplateEngine {
+
+    /** Buffers that grew past this are dropped rather than kept per thread. */
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final ResourceLoader resourceLoader;
+    private final Map<String, MailTemplate> templates = new ConcurrentHashMap<>();
+    private final SpringTemplateEngine thymeleaf;
+
+    public MailTemplateEngine(ResourceLoader resourceLoader,
+                              @Value("${app.mail.templates:verification-mail-template,forget_otp_mail}") List<String> preload) {
+        this.resourceLoader = resourceLoader;
+        for (String name : preload) {
+            templates.put(name, load(name));
+        }
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/mail/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        this.thymeleaf = new SpringTemplateEngine();
+        this.thymeleaf.setTemplateResolver(resolver);
+        this.thymeleaf.setEnableSpringELCompiler(true);
+    }
+
+    /**
+     * @param name placeholder template under templates/, without .html
+     * @param values placeholder values, HTML-escaped on output
+     * @return rendered body
+     */
+    public String render(String name, Map<String, ?> values) {
+        MailTemplate template = templates.computeIfAbsent(name, this::load);
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, values);
+        String body = buffer.toString();
+        if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return body;
+    }
+
+    /**
+     * @param name Thymeleaf template under templates/mail/, without .html
+     * @param variables template variables
+     * @return rendered body
+     */
+    public String renderThymeleaf(String name, Map<String, Object> variables) {
+        return thymeleaf.process(name, new Context(Locale.getDefault(), variables));
+    }
+
+    private MailTemplate load(String name) {
+        Resource resource = resourceLoader.getResource("classpath:templates/" + name + ".html");
+        try (InputStream in = resource.getInputStream()) {
+            return MailTemplate.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Mail template not found: " + name, e);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.m4nas.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "announcements")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "announcements")
 public class Announcement {
 
     @Id
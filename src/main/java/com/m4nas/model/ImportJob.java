@@ -0,0 +1,103 @@
+package com.m4nas.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one bulk application import. Keyed by the SHA-256 of the uploaded
+ * file, so uploading the same file again resumes after the last committed chunk.
+ */
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "status")
+    private String status = QUEUED;
+
+    /** Data rows (valid or not) covered by committed chunks; the resume point. */
+    @Column(name = "rows_processed")
+    private long rowsProcessed;
+
+    @Column(name = "rows_inserted")
+    private long rowsInserted;
+
+    @Column(name = "rows_updated")
+    private long rowsUpdated;
+
+    @Column(name = "error_count")
+    private long errorCount;
+
+    /** First few row errors, one "line N: message" per line. */
+    @Column(name = "errors", columnDefinition = "TEXT")
+    private String errors;
+
+    @Column(name = "started_by")
+    private String startedBy;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ImportJob() {
+    }
+
+    public ImportJob(String id, String fileName, String startedBy) {
+        this.id = id;
+        this.fileName = fileName;
+        this.startedBy = startedBy;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = this.startedAt;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getRowsProcessed() { return rowsProcessed; }
+    public void setRowsProcessed(long rowsProcessed) { this.rowsProcessed = rowsProcessed; }
+
+    public long getRowsInserted() { return rowsInserted; }
+    public void setRowsInserted(long rowsInserted) { this.rowsInserted = rowsInserted; }
+
+    public long getRowsUpdated() { return rowsUpdated; }
+    public void setRowsUpdated(long rowsUpdated) { this.rowsUpdated = rowsUpdated; }
+
+    public long getErrorCount() { return errorCount; }
+    public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+
+    public String getErrors() { return errors; }
+    public void setErrors(String errors) { this.errors = errors; }
+
+    public String getStartedBy() { return startedBy; }
+    public void setStartedBy(String startedBy) { this.startedBy = startedBy; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isFinished() {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+}
@@ -0,0 +1,55 @@
+package com.m4nas.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The outstanding password-reset code for one email, and the reset token it
+ * was exchanged for. Kept in the database so every node sees the same code,
+ * attempt count and token; rows past both expiries are purged periodically.
+ */
+@Entity
+@Table(name = "otp_codes", indexes = @Index(name = "idx_otp_expires_at", columnList = "expires_at"))
+public class OtpCode {
+
+    /** Trimmed, lower-case email. */
+    @Id
+    @Column(name = "email")
+    private String email;
+
+    /** Null once the code has been used or discarded. */
+    @Column(name = "code", length = 6)
+    private String code;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    /** Hex SHA-256 of the reset token; null until a code is verified and after the token is used. */
+    @Column(name = "reset_token_hash", length = 64)
+    private String resetTokenHash;
+
+    @Column(name = "reset_expires_at")
+    private LocalDateTime resetExpiresAt;
+
+    // Getters and Setters
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public String getResetTokenHash() { return resetTokenHash; }
+    public void setResetTokenHash(String resetTokenHash) { this.resetTokenHash = resetTokenHash; }
+
+    public LocalDateTime getResetExpiresAt() { return resetExpiresAt; }
+    public void setResetExpiresAt(LocalDateTime resetExpiresAt) { this.resetExpiresAt = resetExpiresAt; }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payment_user_email", columnList = "user_email"),
+        @Index(name = "idx_payment_receipt_file", columnList = "receipt_file_name")
+})
 public class Payment {
     
     @Id
@@ -0,0 +1,48 @@
+package com.m4nas.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One stored receipt file, identified by the SHA-256 of its content. Payments
+ * that uploaded the same bytes share it; refCount counts them, and the file is
+ * removed once nothing references it.
+ */
+@Entity
+@Table(name = "receipt_blobs", indexes = @Index(name = "idx_receipt_blob_unreferenced", columnList = "ref_count, updated_at"))
+public class ReceiptBlob {
+
+    /** Lower-case hex SHA-256 of the content. */
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "size")
+    private long size;
+
+    @Column(name = "ref_count")
+    private int refCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /** Last time refCount changed. */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -3,8 +3,12 @@ package com.m4nas.model;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+// The merit-order indexes are expression indexes, created by schema-postgresql.sql
 @Entity
-@Table(name = "user_applications")
+@Table(name = "user_applications", uniqueConstraints = {
+        // One application per student; the CSV import upserts on it
+        @UniqueConstraint(name = "uk_application_user_email", columnNames = "user_email")
+})
 public class UserApplication {
 
     @Id
@@ -2,11 +2,18 @@ package com.m4nas.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.io.Serializable;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-accounts")
+@NaturalIdCache(region = "user-accounts-by-email")
 public class UserDtls implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -17,6 +24,7 @@ public class UserDtls implements Serializable {
 
     private String fullName;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String email;
 
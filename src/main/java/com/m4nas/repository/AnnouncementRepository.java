@@ -3,16 +3,26 @@ package com.m4nas.repository;
 import com.m4nas.model.Announcement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 
 public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
     
+    // Results are cached until the announcements table is written through Hibernate
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "announcement-queries")})
     @Query("SELECT a FROM Announcement a WHERE a.active = true ORDER BY a.createdAt DESC")
     List<Announcement> findActiveAnnouncements();
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "announcement-queries")})
     @Query("SELECT a FROM Announcement a WHERE a.active = true AND a.targetAudience IN ('ALL', ?1) ORDER BY a.createdAt DESC")
     List<Announcement> findActiveAnnouncementsByAudience(String audience);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "announcement-queries")})
     @Query("SELECT a FROM Announcement a WHERE a.createdBy = ?1 ORDER BY a.createdAt DESC")
     List<Announcement> findByCreatedBy(String createdBy);
 }
\ No newline at end of file
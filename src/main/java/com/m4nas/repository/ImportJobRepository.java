@@ -0,0 +1,16 @@
+package com.m4nas.repository;
+
+import com.m4nas.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findTop10ByOrderByStartedAtDesc();
+
+    List<ImportJob> findByStatusIn(Collection<String> statuses);
+}
@@ -0,0 +1,67 @@
+package com.m4nas.repository;
+
+import com.m4nas.model.OtpCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OtpCodeRepository extends JpaRepository<OtpCode, String> {
+
+    /** Replaces the code of an existing row, resetting its attempts and dropping any reset token. */
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.code = :code, o.attempts = 0, o.expiresAt = :expiresAt, " +
+           "o.resetTokenHash = NULL, o.resetExpiresAt = NULL WHERE o.email = :email")
+    int reissue(@Param("email") String email, @Param("code") String code, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Concurrent first requests for an email both succeed; only one row is created. */
+    @Modifying
+    @Query(value = "INSERT INTO otp_codes (email, code, attempts, expires_at) " +
+                   "VALUES (:email, :code, 0, :expiresAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("email") String email, @Param("code") String code, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Counts a guess against a live code. The row stays locked until the
+     * transaction ends, so concurrent guesses are judged one at a time.
+     *
+     * @return 0 if there is no live code
+     */
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.attempts = o.attempts + 1 WHERE o.email = :email AND o.code IS NOT NULL AND o.expiresAt > :now")
+    int countAttempt(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.code = NULL WHERE o.email = :email")
+    int discardCode(@Param("email") String email);
+
+    /** Uses up the code and stores the token it was exchanged for. */
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.code = NULL, o.resetTokenHash = :tokenHash, o.resetExpiresAt = :expiresAt WHERE o.email = :email")
+    int grantReset(@Param("email") String email, @Param("tokenHash") String tokenHash, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** @return 1 for the one caller that used the token, 0 for everyone else */
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.resetTokenHash = NULL, o.resetExpiresAt = NULL " +
+           "WHERE o.email = :email AND o.resetTokenHash = :tokenHash AND o.resetExpiresAt > :now")
+    int consumeReset(@Param("email") String email, @Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(o) > 0 FROM OtpCode o WHERE o.email = :email AND o.code IS NOT NULL AND o.expiresAt > :now")
+    boolean hasLiveCode(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(o) > 0 FROM OtpCode o " +
+           "WHERE o.email = :email AND o.resetTokenHash = :tokenHash AND o.resetExpiresAt > :now")
+    boolean hasLiveReset(@Param("email") String email, @Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(o) FROM OtpCode o WHERE o.code IS NOT NULL AND o.expiresAt > :now")
+    long countLiveCodes(@Param("now") LocalDateTime now);
+
+    /** Deletes rows whose code and reset token are both used up or expired. */
+    @Modifying
+    @Query("DELETE FROM OtpCode o WHERE (o.code IS NULL OR o.expiresAt <= :now) " +
+           "AND (o.resetTokenHash IS NULL OR o.resetExpiresAt <= :now)")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
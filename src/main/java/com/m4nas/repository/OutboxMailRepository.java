@@ -0,0 +1,43 @@
+package com.m4nas.repository;
+
+import com.m4nas.model.OutboxMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+    @Query("SELECT m.id FROM OutboxMail m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /** Only rows still PENDING are claimed, so two dispatchers never send the same mail. */
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = 'SENDING', m.claimToken = :token, m.claimedAt = :now " +
+           "WHERE m.id IN :ids AND m.status = 'PENDING'")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    List<OutboxMail> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = 'SENT', m.sentAt = :now, m.claimToken = null WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /** Hands mails claimed by a dispatcher that died mid-send back to the queue. */
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = 'PENDING', m.claimToken = null " +
+           "WHERE m.status = 'SENDING' AND m.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT MIN(m.nextAttemptAt) FROM OutboxMail m WHERE m.status = 'PENDING'")
+    LocalDateTime findNextAttemptAt();
+
+    long countByStatus(String status);
+}
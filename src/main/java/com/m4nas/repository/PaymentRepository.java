@@ -1,8 +1,11 @@
 package com.m4nas.repository;
 
 import com.m4nas.model.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +24,19 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByStatus(Payment.PaymentStatus status);
     
     boolean existsByUserEmailAndStatus(String userEmail, Payment.PaymentStatus status);
+    
+    /** [status, count] for every status that has payments. */
+    @Query("SELECT p.status, COUNT(p) FROM Payment p GROUP BY p.status")
+    List<Object[]> countByStatus();
+    
+    @Query("SELECT p.userEmail FROM Payment p WHERE p.receiptFileName = ?1")
+    List<String> findUserEmailsByReceiptFileName(String receiptFileName);
+    
+    /** (id, receiptFileName) of payments with a receipt, in id order, for keyset-paged scans. */
+    @Query("SELECT p.id, p.receiptFileName FROM Payment p WHERE p.receiptFileName IS NOT NULL AND p.id > :after ORDER BY p.id")
+    List<Object[]> findReceiptsAfter(@Param("after") long after, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Payment p SET p.receiptFileName = :newName WHERE p.id = :id AND p.receiptFileName = :oldName")
+    int renameReceipt(@Param("id") Long id, @Param("oldName") String oldName, @Param("newName") String newName);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.m4nas.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits the values for an IN (...) list into chunks that stay well below
+ * driver bind-parameter limits, for repository calls that take a collection.
+ */
+public final class QueryChunks {
+
+    public static final int SIZE = 1000;
+
+    private QueryChunks() {
+    }
+
+    /**
+     * @param values the values to bind; duplicates and nulls are passed through as given
+     * @return consecutive views of at most {@link #SIZE} values each
+     */
+    public static <T> List<List<T>> of(Collection<T> values) {
+        List<T> all = values instanceof List<T> list ? list : new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += SIZE) {
+            chunks.add(all.subList(from, Math.min(from + SIZE, all.size())));
+        }
+        return chunks;
+    }
+}
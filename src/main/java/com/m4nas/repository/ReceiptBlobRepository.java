@@ -0,0 +1,38 @@
+package com.m4nas.repository;
+
+import com.m4nas.model.ReceiptBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReceiptBlobRepository extends JpaRepository<ReceiptBlob, String> {
+
+    /** Concurrent uploads of the same content both succeed; only one row is created. */
+    @Modifying
+    @Query(value = "INSERT INTO receipt_blobs (hash, size, ref_count, created_at, updated_at) " +
+                   "VALUES (:hash, :size, 0, :now, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("size") long size, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReceiptBlob b SET b.refCount = b.refCount + 1, b.updatedAt = :now WHERE b.hash = :hash")
+    int increment(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReceiptBlob b SET b.refCount = b.refCount - 1, b.updatedAt = :now WHERE b.hash = :hash AND b.refCount > 0")
+    int decrement(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    /** Re-checks the count under the row lock, so a concurrent upload of the same content keeps the row. */
+    @Modifying
+    @Query("DELETE FROM ReceiptBlob b WHERE b.hash = :hash AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    @Query("SELECT b.hash FROM ReceiptBlob b WHERE b.refCount = 0 AND b.updatedAt < :cutoff")
+    List<String> findUnreferencedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -1,14 +1,17 @@
 package com.m4nas.repository;
 
 import com.m4nas.model.UserApplication;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface UserApplicationRepository extends JpaRepository<UserApplication, String> {
+public interface UserApplicationRepository extends JpaRepository<UserApplication, String>, UserApplicationRepositoryCustom {
 
     // ===== BASIC USER OPERATIONS =====
     UserApplication findByUserEmail(String userEmail); // Find application by user email
@@ -20,6 +23,19 @@ public interface UserApplicationRepository extends JpaRepository<UserApplication
     List<UserApplication> findByStatus(String status); // Find applications by status
     List<UserApplication> findByAllocatedBranch(String branch); // Find applications by allocated branch
 
+    // Bulk phone lookup for payment management (one query per page, backed by uk_application_user_email)
+    @Query("SELECT ua.userEmail, ua.phoneNo FROM UserApplication ua WHERE ua.userEmail IN :emails AND ua.phoneNo IS NOT NULL")
+    List<Object[]> findPhoneNumbersByUserEmailIn(@Param("emails") Collection<String> emails);
+
+    // The fields the notifications timeline shows, [status, allocatedBranch], without loading the application
+    @Query("SELECT ua.status, ua.allocatedBranch FROM UserApplication ua WHERE ua.userEmail = :email")
+    List<Object[]> findTimelineStateByUserEmail(@Param("email") String email);
+
+    // Searchable fields for building the applicant search index in one pass:
+    // [id, fullName, userEmail, rollNo10, rollNo12, entranceRollNo, phoneNo, schoolName10, schoolName12, city]
+    @Query("SELECT ua.id, u.fullName, ua.userEmail, ua.rollNo10, ua.rollNo12, ua.entranceRollNo, ua.phoneNo, ua.schoolName10, ua.schoolName12, ua.city FROM UserApplication ua LEFT JOIN UserDtls u ON u.email = ua.userEmail")
+    List<Object[]> findSearchFields();
+
     // ===== TEACHER OPERATIONS (NEW/UPDATED) =====
 
     // Get applications pending teacher approval (SUBMITTED STATUS)
@@ -38,6 +54,19 @@ public interface UserApplicationRepository extends JpaRepository<UserApplication
     @Query("SELECT ua FROM UserApplication ua WHERE ua.status IN :statuses ORDER BY ua.obtain12Marks DESC")
     List<UserApplication> findByStatusIn(@Param("statuses") List<String> statuses);
 
+    // Lightweight candidate rows for the allocation engine: [id, course, branch1, branch2, percentage12, submissionDate]
+    @Query("SELECT ua.id, ua.course, ua.branch1, ua.branch2, ua.percentage12, ua.submissionDate FROM UserApplication ua WHERE ua.status = 'APPROVED'")
+    List<Object[]> findAllocationCandidates();
+
+    // Seats already held per course/branch (offered or accepted); declined seats drop out and are re-offered
+    @Query("SELECT ua.course, ua.allocatedBranch, COUNT(ua) FROM UserApplication ua WHERE ua.status IN ('ALLOCATED', 'ACCEPTED') AND ua.allocatedBranch IS NOT NULL GROUP BY ua.course, ua.allocatedBranch")
+    List<Object[]> countHeldSeats();
+
+    // Batched write-back of one branch's offers; the status guard skips rows changed since the candidates were read
+    @Modifying
+    @Query("UPDATE UserApplication ua SET ua.allocatedBranch = :branch, ua.status = 'ALLOCATED', ua.seatAccepted = false WHERE ua.id IN :ids AND ua.status = 'APPROVED'")
+    int allocateBranch(@Param("branch") String branch, @Param("ids") Collection<String> ids);
+
     // ===== ADMIN OPERATIONS (READ-ONLY) =====
 
     // Get all applications for admin dashboard - using findAll() in service
@@ -51,6 +80,17 @@ public interface UserApplicationRepository extends JpaRepository<UserApplication
     @Query("SELECT ua.allocatedBranch, COUNT(ua), AVG(ua.obtain12Marks) FROM UserApplication ua WHERE ua.allocatedBranch IS NOT NULL GROUP BY ua.allocatedBranch")
     List<Object[]> getBranchWiseStatistics();
 
+    // Raw branch totals so the dashboard can maintain the average incrementally
+    @Query("SELECT ua.allocatedBranch, COUNT(ua), SUM(ua.obtain12Marks), COUNT(ua.obtain12Marks) FROM UserApplication ua WHERE ua.allocatedBranch IS NOT NULL GROUP BY ua.allocatedBranch")
+    List<Object[]> getBranchMarkTotals();
+
+    @Query("SELECT COUNT(ua) FROM UserApplication ua WHERE ua.status = 'ALLOCATED' AND ua.seatAccepted = false")
+    long countAllocatedPendingResponse();
+
+    // Most recent submissions for the dashboard (limit through the Pageable)
+    @Query("SELECT ua FROM UserApplication ua ORDER BY ua.submissionDate DESC NULLS LAST")
+    List<UserApplication> findRecentApplications(Pageable pageable);
+
     // ===== LEGACY METHODS (Keep for backward compatibility) =====
 
     // Find all submitted applications ordered by marks (for ranking)
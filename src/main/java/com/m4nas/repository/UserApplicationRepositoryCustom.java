@@ -0,0 +1,33 @@
+package com.m4nas.repository;
+
+import com.m4nas.dto.ApplicationCursor;
+import com.m4nas.model.UserApplication;
+
+import java.util.List;
+
+/**
+ * Queries that need dynamic SQL and therefore live outside the derived-query interface.
+ */
+public interface UserApplicationRepositoryCustom {
+
+    /**
+     * Merit order as a key with no nulls (percentage12 DESC, submission date ASC,
+     * id ASC, missing marks and dates last), for native queries on user_applications
+     * aliased ua. Matches the expression indexes in schema-postgresql.sql, so keep
+     * the two in step.
+     */
+    String MERIT_KEY = "-COALESCE(ua.percentage12, -1), COALESCE(ua.submission_date, DATE '9999-12-31'), ua.id";
+
+    /**
+     * Keyset page in merit order (see {@link #MERIT_KEY}).
+     *
+     * @param status optional status filter
+     * @param course optional course filter
+     * @param branch optional first-preference branch filter
+     * @param after position of the last row already shown, null for the first page
+     * @param limit maximum number of rows to return
+     * @return the next rows after the cursor
+     */
+    List<UserApplication> findMeritPage(String status, String course, String branch,
+                                        ApplicationCursor after, int limit);
+}
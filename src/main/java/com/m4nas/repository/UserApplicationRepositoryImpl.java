@@ -0,0 +1,65 @@
+package com.m4nas.repository;
+
+import com.m4nas.dto.ApplicationCursor;
+import com.m4nas.model.UserApplication;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UserApplicationRepositoryImpl implements UserApplicationRepositoryCustom {
+
+    // The COALESCE defaults in MERIT_KEY, for turning a cursor into key values
+    private static final double MISSING_PERCENTAGE = -1;
+    private static final LocalDate MISSING_DATE = LocalDate.of(9999, 12, 31);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Native SQL so the ORDER BY and the cursor predicate are written exactly as
+     * the expression indexes are; a row-value comparison on the non-null merit
+     * key lets the database seek straight to the cursor.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserApplication> findMeritPage(String status, String course, String branch,
+                                               ApplicationCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        if (status != null) {
+            conditions.add("ua.status = :status");
+            params.put("status", status);
+        }
+        if (course != null) {
+            conditions.add("ua.course = :course");
+            params.put("course", course);
+        }
+        if (branch != null) {
+            conditions.add("ua.branch1 = :branch");
+            params.put("branch", branch);
+        }
+        if (after != null) {
+            conditions.add("(" + MERIT_KEY + ") > (:cursorPct, :cursorDate, :cursorId)");
+            params.put("cursorPct", -(after.getPercentage12() != null ? after.getPercentage12() : MISSING_PERCENTAGE));
+            params.put("cursorDate", after.getSubmissionDate() != null ? after.getSubmissionDate() : MISSING_DATE);
+            params.put("cursorId", after.getId());
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ua.* FROM user_applications ua");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(MERIT_KEY);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), UserApplication.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
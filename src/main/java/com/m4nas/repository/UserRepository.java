@@ -1,7 +1,14 @@
 package com.m4nas.repository;
 
 import com.m4nas.model.UserDtls;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -11,7 +18,7 @@ import java.util.List;
  * @author College Technical Team
  * @version 1.0
  */
-public interface UserRepository extends JpaRepository<UserDtls, String> {
+public interface UserRepository extends JpaRepository<UserDtls, String>, UserRepositoryCustom {
 
     /**
      * Checks if a user exists with the given email address.
@@ -21,14 +28,6 @@ public interface UserRepository extends JpaRepository<UserDtls, String> {
      */
     boolean existsByEmail(String email);
 
-    /**
-     * Finds a user by their email address.
-     * 
-     * @param email the email address to search for
-     * @return the user entity or null if not found
-     */
-    UserDtls findByEmail(String email);
-
     /**
      * Finds a user by their verification code.
      * Used for email verification process.
@@ -45,4 +44,27 @@ public interface UserRepository extends JpaRepository<UserDtls, String> {
      * @return list of users with the specified role
      */
     List<UserDtls> findByRole(String role);
+
+    /**
+     * Loads a user by email straight from the database, skipping the
+     * second-level cache that {@link #findByEmail(String)} reads. Used where
+     * credentials or the enabled flag are checked, so a login never sees a
+     * cached password hash.
+     *
+     * @param email the email address to search for
+     * @return the user entity or null if not found
+     */
+    @Query("SELECT u FROM UserDtls u WHERE u.email = :email")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    UserDtls findForLogin(@Param("email") String email);
+
+    /**
+     * Resolves display names for a batch of email addresses in a single query.
+     * Used by list pages instead of calling findByEmail once per row.
+     *
+     * @param emails the email addresses to resolve
+     * @return rows of [email, fullName] for the users that exist
+     */
+    @Query("SELECT u.email, u.fullName FROM UserDtls u WHERE u.email IN :emails")
+    List<Object[]> findNamesByEmailIn(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,19 @@
+package com.m4nas.repository;
+
+import com.m4nas.model.UserDtls;
+
+/**
+ * Lookups that go through Hibernate's natural-id API rather than a derived query.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Finds a user by email through the natural-id cache, so repeat lookups
+     * (page headers, list pages) are served without a query until the user
+     * changes. Credential checks use UserRepository.findForLogin instead.
+     *
+     * @param email the email address to search for
+     * @return the user entity or null if not found
+     */
+    UserDtls findByEmail(String email);
+}
@@ -0,0 +1,23 @@
+package com.m4nas.repository;
+
+import com.m4nas.model.UserDtls;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Outside a transaction the shared EntityManager closes the unwrapped Session after each call
+    @Override
+    @Transactional(readOnly = true)
+    public UserDtls findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(UserDtls.class).load(email);
+    }
+}
@@ -1,12 +1,29 @@
 package com.m4nas.service;
 
+import com.m4nas.dto.AnnouncementFeed;
 import com.m4nas.model.Announcement;
 import java.util.List;
 
 public interface AnnouncementService {
+    String FEED_ALL = "ALL";
+    String FEED_STUDENT = "STUDENT";
+    String FEED_TEACHER = "TEACHER";
+
     Announcement saveAnnouncement(Announcement announcement);
     List<Announcement> getActiveAnnouncements();
     List<Announcement> getAnnouncementsByAudience(String audience);
     List<Announcement> getAnnouncementsByCreator(String createdBy);
     void deleteAnnouncement(Long id);
-}
\ No newline at end of file
+
+    /**
+     * In-memory feed snapshot; reading it never touches the database.
+     *
+     * @param audience FEED_ALL for every active announcement, FEED_STUDENT or
+     *                 FEED_TEACHER for that audience plus those targeted at ALL
+     * @return the current feed
+     */
+    AnnouncementFeed getFeed(String audience);
+
+    /** Rebuilds all feeds from the database, e.g. after writes that bypassed this service. */
+    void refreshFeeds();
+}
@@ -1,34 +1,58 @@
 package com.m4nas.service;
 
+import com.m4nas.dto.AnnouncementFeed;
 import com.m4nas.model.Announcement;
 import com.m4nas.repository.AnnouncementRepository;
+import com.m4nas.util.TransactionCallbacks;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
+@Timed(value = "app.service", description = "Service method calls by class, method and exception")
 public class AnnouncementServiceImpl implements AnnouncementService {
 
     @Autowired
     private AnnouncementRepository announcementRepository;
 
+    /** Keeps versions from a previous run from matching a browser's cached ETag. */
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+
+    /** Immutable; replaced wholesale on every rebuild so reads need no locking. */
+    private volatile Map<String, AnnouncementFeed> feeds;
+
+    private long lastVersion;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
     @Override
     public Announcement saveAnnouncement(Announcement announcement) {
         announcement.setCreatedAt(LocalDateTime.now());
         announcement.setActive(true);
         announcement.setCreatorRole("TEACHER");
-        return announcementRepository.save(announcement);
+        Announcement saved = announcementRepository.save(announcement);
+        refreshFeedsAfterCommit();
+        return saved;
     }
 
     @Override
     public List<Announcement> getActiveAnnouncements() {
-        return announcementRepository.findActiveAnnouncements();
+        return getFeed(FEED_ALL).getAnnouncements();
     }
 
     @Override
     public List<Announcement> getAnnouncementsByAudience(String audience) {
-        return announcementRepository.findActiveAnnouncementsByAudience(audience);
+        AnnouncementFeed feed = current().get(audience);
+        return feed != null ? feed.getAnnouncements() : announcementRepository.findActiveAnnouncementsByAudience(audience);
     }
 
     @Override
@@ -39,5 +63,107 @@ public class AnnouncementServiceImpl implements AnnouncementService {
     @Override
     public void deleteAnnouncement(Long id) {
         announcementRepository.deleteById(id);
+        refreshFeedsAfterCommit();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refreshFeeds();
+    }
+
+    @Override
+    public AnnouncementFeed getFeed(String audience) {
+        AnnouncementFeed feed = current().get(audience);
+        if (feed == null) {
+            throw new IllegalArgumentException("Unknown announcement feed: " + audience);
+        }
+        return feed;
+    }
+
+    /**
+     * Loads the active announcements once and splits them into the audience feeds.
+     * A feed keeps its version when its announcements did not change, so a post
+     * for teachers does not invalidate what students have cached.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.announcements.feed-refresh-ms:300000}",
+            initialDelayString = "${app.announcements.feed-refresh-ms:300000}")
+    public void refreshFeeds() {
+        refreshLock.lock();
+        try {
+            rebuildFeeds();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void rebuildFeeds() {
+        List<Announcement> active = announcementRepository.findActiveAnnouncements();
+        List<Announcement> forStudents = new ArrayList<>();
+        List<Announcement> forTeachers = new ArrayList<>();
+        for (Announcement announcement : active) {
+            String target = announcement.getTargetAudience();
+            if (FEED_ALL.equals(target) || FEED_STUDENT.equals(target)) {
+                forStudents.add(announcement);
+            }
+            if (FEED_ALL.equals(target) || FEED_TEACHER.equals(target)) {
+                forTeachers.add(announcement);
+            }
+        }
+
+        String version = generation + "." + (++lastVersion);
+        Map<String, AnnouncementFeed> next = new HashMap<>();
+        next.put(FEED_ALL, feed(FEED_ALL, active, version));
+        next.put(FEED_STUDENT, feed(FEED_STUDENT, forStudents, version));
+        next.put(FEED_TEACHER, feed(FEED_TEACHER, forTeachers, version));
+        feeds = Map.copyOf(next);
+    }
+
+    private AnnouncementFeed feed(String audience, List<Announcement> announcements, String version) {
+        AnnouncementFeed previous = feeds != null ? feeds.get(audience) : null;
+        if (previous != null && sameAnnouncements(previous.getAnnouncements(), announcements)) {
+            return previous;
+        }
+        return new AnnouncementFeed(audience, announcements, version);
+    }
+
+    /** Same announcements in the same order with the same fields, so an edit in place is a new version. */
+    private static boolean sameAnnouncements(List<Announcement> a, List<Announcement> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!sameContent(a.get(i), b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameContent(Announcement a, Announcement b) {
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getContent(), b.getContent())
+                && Objects.equals(a.getAnnouncementType(), b.getAnnouncementType())
+                && Objects.equals(a.getTargetAudience(), b.getTargetAudience())
+                && Objects.equals(a.getCreatedBy(), b.getCreatedBy())
+                && Objects.equals(a.getCreatorRole(), b.getCreatorRole())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt())
+                && Objects.equals(a.getEventDate(), b.getEventDate())
+                && Objects.equals(a.getEventTime(), b.getEventTime());
+    }
+
+    /** Rolled-back writes never reach the feeds. */
+    private void refreshFeedsAfterCommit() {
+        TransactionCallbacks.afterCommit(this::refreshFeeds);
+    }
+
+    private Map<String, AnnouncementFeed> current() {
+        Map<String, AnnouncementFeed> snapshot = feeds;
+        if (snapshot == null) {
+            refreshFeeds();
+            snapshot = feeds;
+        }
+        return snapshot;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,427 @@
+package com.m4nas.service;
+
+import com.m4nas.model.UserApplication;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process inverted index over applicant name, email, roll numbers, phone,
+ * school and city, for search-as-you-type on the teacher pages.
+ *
+ * Terms live in a sorted dictionary so a query token matches exact terms and
+ * term prefixes with one range scan. A trigram index over the dictionary (not
+ * the documents) handles infix matches such as the middle digits of a phone or
+ * roll number. Built once at startup and updated after every committed write in
+ * UserApplicationServiceImpl. A rebuild builds a fresh index off to the side and
+ * replays the writes committed while it ran before swapping it in.
+ */
+@Component
+public class ApplicantSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicantSearchIndex.class);
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int INFIX_SCORE = 1;
+
+    /** Shortest query token expanded to prefix matches; shorter tokens match exactly. */
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int GRAM = 3;
+
+    private final UserApplicationRepository userApplicationRepo;
+    private final StudentNameService studentNameService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    /** Guarded by lock */
+    private Index index = new Index();
+    /** Writes applied while a rebuild runs, replayed onto the new index; null when none runs. Guarded by lock. */
+    private List<Consumer<Index>> pendingWrites;
+
+    public ApplicantSearchIndex(UserApplicationRepository userApplicationRepo, StudentNameService studentNameService) {
+        this.userApplicationRepo = userApplicationRepo;
+        this.studentNameService = studentNameService;
+    }
+
+    // ===== QUERIES =====
+
+    /**
+     * Finds applications matching every token of the query, best matches first.
+     *
+     * @param query free text as typed, e.g. "rahul 9876" or a roll number
+     * @param limit maximum number of ids to return
+     * @return application ids ordered by score, then id
+     */
+    public List<String> search(String query, int limit) {
+        Set<String> unique = new LinkedHashSet<>();
+        addTokens(unique, query);
+        if (unique.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // Longer tokens are usually more selective: expand the longest through the index and
+        // check the remaining tokens against each candidate's own terms instead of their postings
+        List<String> tokens = new ArrayList<>(unique);
+        tokens.sort(Comparator.comparingInt(String::length).reversed());
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = matchToken(tokens.get(0));
+            for (int t = 1; t < tokens.size() && !scores.isEmpty(); t++) {
+                String token = tokens.get(t);
+                Iterator<Map.Entry<String, Integer>> it = scores.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, Integer> entry = it.next();
+                    int score = scoreTerms(index.documents.get(entry.getKey()), token);
+                    if (score == 0) {
+                        it.remove();
+                    } else {
+                        entry.setValue(entry.getValue() + score);
+                    }
+                }
+            }
+            return topIds(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Highest scores first, ties by id; a bounded heap avoids sorting every match. */
+    private static List<String> topIds(Map<String, Integer> scores, int limit) {
+        Comparator<Map.Entry<String, Integer>> ranking = Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<String, Integer>> heap = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (ranking.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(heap);
+        top.sort(ranking);
+        List<String> ids = new ArrayList<>(top.size());
+        for (Map.Entry<String, Integer> entry : top) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Best score per document for one query token. Caller holds the read lock. */
+    private Map<String, Integer> matchToken(String token) {
+        Map<String, Integer> scores = new HashMap<>();
+        if (token.length() < MIN_PREFIX_LENGTH) {
+            addPostings(scores, index.postings.get(token), EXACT_SCORE);
+            return scores;
+        }
+        for (Map.Entry<String, Set<String>> entry : index.postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            addPostings(scores, entry.getValue(), entry.getKey().equals(token) ? EXACT_SCORE : PREFIX_SCORE);
+        }
+        if (token.length() >= GRAM) {
+            for (String term : termsContaining(token)) {
+                if (!term.startsWith(token)) {
+                    addPostings(scores, index.postings.get(term), INFIX_SCORE);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /** Same scoring as matchToken, applied to one document's terms. */
+    private static int scoreTerms(Set<String> terms, String token) {
+        int best = 0;
+        if (terms == null) {
+            return best;
+        }
+        for (String term : terms) {
+            if (term.equals(token)) {
+                return EXACT_SCORE;
+            } else if (token.length() >= MIN_PREFIX_LENGTH && term.startsWith(token)) {
+                best = PREFIX_SCORE;
+            } else if (best == 0 && token.length() >= GRAM && term.contains(token)) {
+                best = INFIX_SCORE;
+            }
+        }
+        return best;
+    }
+
+    /** Terms containing the token: verify the terms of its rarest trigram. */
+    private Set<String> termsContaining(String token) {
+        Set<String> rarest = null;
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            Set<String> terms = index.grams.get(token.substring(i, i + GRAM));
+            if (terms == null) {
+                return Collections.emptySet();
+            }
+            if (rarest == null || terms.size() < rarest.size()) {
+                rarest = terms;
+            }
+        }
+        Set<String> matches = new HashSet<>();
+        for (String term : rarest) {
+            if (term.contains(token)) {
+                matches.add(term);
+            }
+        }
+        return matches;
+    }
+
+    private static void addPostings(Map<String, Integer> scores, Set<String> ids, int score) {
+        if (ids != null) {
+            for (String id : ids) {
+                scores.merge(id, score, Math::max);
+            }
+        }
+    }
+
+    // ===== WRITES =====
+
+    /**
+     * Re-indexes an application after the current transaction commits, keeping
+     * the student name already indexed for it. Only an application not indexed
+     * yet has its name looked up.
+     *
+     * @param application the saved application; its fields are read now
+     */
+    public void indexAfterCommit(UserApplication application) {
+        if (application == null || application.getId() == null) {
+            return;
+        }
+        String name;
+        lock.readLock().lock();
+        try {
+            name = index.names.get(application.getId());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (name == null && application.getUserEmail() != null) {
+            name = studentNameService.getStudentNames(List.of(application.getUserEmail())).get(application.getUserEmail());
+        }
+        indexAfterCommit(application, name);
+    }
+
+    /**
+     * Re-indexes an application under the given student name after the current
+     * transaction commits, e.g. after the student renamed their account.
+     *
+     * @param application the saved application; its fields are read now
+     * @param name the student's current full name
+     */
+    public void indexAfterCommit(UserApplication application, String name) {
+        if (application == null || application.getId() == null) {
+            return;
+        }
+        String id = application.getId();
+        Set<String> terms = terms(name, application.getUserEmail(), application.getRollNo10(), application.getRollNo12(),
+                application.getEntranceRollNo(), application.getPhoneNo(), application.getSchoolName10(),
+                application.getSchoolName12(), application.getCity());
+        TransactionCallbacks.afterCommit(() -> write(target -> target.put(id, name, terms)));
+    }
+
+    /** Removes an application after the current transaction commits. */
+    public void removeAfterCommit(String applicationId) {
+        if (applicationId != null) {
+            TransactionCallbacks.afterCommit(() -> write(target -> target.remove(applicationId)));
+        }
+    }
+
+    private void write(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingWrites != null) {
+                pendingWrites.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== REBUILD =====
+
+    /**
+     * Builds a new index from a single projection query while searches keep
+     * using the current one, then replays the writes committed in the meantime
+     * onto it and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Index rebuilt = new Index();
+            boolean complete = false;
+            try {
+                for (Object[] row : userApplicationRepo.findSearchFields()) {
+                    String name = (String) row[1];
+                    rebuilt.put((String) row[0], name, terms(name, (String) row[2], (String) row[3], (String) row[4],
+                            (String) row[5], (String) row[6], (String) row[7], (String) row[8], (String) row[9]));
+                }
+                complete = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (complete) {
+                        // Writes committed while the query ran may or may not be in its rows; replaying them in order is safe either way
+                        pendingWrites.forEach(change -> change.accept(rebuilt));
+                        index = rebuilt;
+                    }
+                    pendingWrites = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            logger.info("Applicant search index built: {} applications, {} terms in {} ms",
+                    rebuilt.documents.size(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /** The index structures; all access goes through the enclosing read/write lock. */
+    private static final class Index {
+        /** term -> application ids */
+        final TreeMap<String, Set<String>> postings = new TreeMap<>();
+        /** trigram -> terms containing it */
+        final Map<String, Set<String>> grams = new HashMap<>();
+        /** application id -> its indexed terms, for removal */
+        final Map<String, Set<String>> documents = new HashMap<>();
+        /** application id -> the student name indexed for it */
+        final Map<String, String> names = new HashMap<>();
+
+        void put(String id, String name, Set<String> terms) {
+            remove(id);
+            documents.put(id, terms);
+            if (name != null) {
+                names.put(id, name);
+            }
+            for (String term : terms) {
+                Set<String> ids = postings.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>(2);
+                    postings.put(term, ids);
+                    for (String gram : gramsOf(term)) {
+                        grams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                    }
+                }
+                ids.add(id);
+            }
+        }
+
+        void remove(String id) {
+            names.remove(id);
+            Set<String> previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous) {
+                Set<String> ids = postings.get(term);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(term);
+                    for (String gram : gramsOf(term)) {
+                        Set<String> terms = grams.get(gram);
+                        if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                            grams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // ===== TOKENIZING =====
+
+    /**
+     * Order: name, email, rollNo10, rollNo12, entranceRollNo, phone, school10, school12, city.
+     */
+    private static Set<String> terms(String name, String email, String rollNo10, String rollNo12, String entranceRollNo,
+                                     String phone, String school10, String school12, String city) {
+        Set<String> terms = new HashSet<>();
+        addTokens(terms, name);
+        if (email != null) {
+            String normalized = email.trim().toLowerCase(Locale.ROOT);
+            terms.add(normalized);
+            addTokens(terms, normalized);
+        }
+        addIdentifier(terms, rollNo10);
+        addIdentifier(terms, rollNo12);
+        addIdentifier(terms, entranceRollNo);
+        addIdentifier(terms, phone);
+        addTokens(terms, school10);
+        addTokens(terms, school12);
+        addTokens(terms, city);
+        return terms;
+    }
+
+    /** Words split on anything that is not a letter or digit. */
+    private static void addTokens(Set<String> terms, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+    }
+
+    /** Roll and phone numbers are indexed whole, with separators stripped, plus their parts. */
+    private static void addIdentifier(Set<String> terms, String value) {
+        if (value == null) {
+            return;
+        }
+        String compact = value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+        if (!compact.isEmpty()) {
+            terms.add(compact);
+        }
+        addTokens(terms, value);
+    }
+
+    private static List<String> gramsOf(String term) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            result.add(term.substring(i, i + GRAM));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.m4nas.service;
+
+import com.m4nas.model.ImportJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Bulk import of applications and board marks from CSV, upserting on user email.
+ * Imports run in the background; progress is committed chunk by chunk, so a job
+ * interrupted by a restart or a failure carries on from its last committed chunk
+ * when the same file is uploaded again (or on startup, if the file is still there).
+ */
+public interface ApplicationImportService {
+
+    /**
+     * Stores the upload and queues it. If the same file was seen before, the existing
+     * job is returned: completed and running jobs as they are, failed or interrupted
+     * ones resumed.
+     */
+    ImportJob startImport(String fileName, InputStream content, String startedBy) throws IOException;
+
+    ImportJob getJob(String jobId);
+
+    List<ImportJob> getRecentJobs();
+}
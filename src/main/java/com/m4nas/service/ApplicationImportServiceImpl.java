@@ -0,0 +1,404 @@
+package com.m4nas.service;
+
+import com.m4nas.importer.ApplicationChunkWriter;
+import com.m4nas.importer.CsvRecordReader;
+import com.m4nas.importer.ImportColumn;
+import com.m4nas.importer.ImportRow;
+import com.m4nas.model.ImportJob;
+import com.m4nas.model.UserApplication;
+import com.m4nas.repository.ImportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+@Service
+public class ApplicationImportServiceImpl implements ApplicationImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationImportServiceImpl.class);
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    /** Row errors kept on the job for display; errorCount still counts every one. */
+    private static final int MAX_STORED_ERRORS = 200;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private ApplicantSearchIndex applicantSearchIndex;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.dir:uploads/imports}")
+    private String importDir;
+
+    /** Data rows per transaction and per validation task. */
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    /** Serialises job lookup and queueing; a lock, since it spans database and file I/O. */
+    private final ReentrantLock submitLock = new ReentrantLock();
+    private final int validationThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private ThreadPoolTaskExecutor jobExecutor;
+    private ThreadPoolTaskExecutor validationPool;
+    private ApplicationChunkWriter writer;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        jobExecutor = new ThreadPoolTaskExecutor();
+        jobExecutor.setCorePoolSize(1);
+        jobExecutor.setMaxPoolSize(1);
+        jobExecutor.setThreadNamePrefix("application-import-");
+        jobExecutor.setDaemon(true);
+        jobExecutor.initialize();
+        validationPool = new ThreadPoolTaskExecutor();
+        validationPool.setCorePoolSize(validationThreads);
+        validationPool.setMaxPoolSize(validationThreads);
+        validationPool.setThreadNamePrefix("application-import-validate-");
+        validationPool.setDaemon(true);
+        validationPool.initialize();
+        writer = new ApplicationChunkWriter(dataSource, userApplicationService::calculatePercentages);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdown();
+        validationPool.shutdown();
+    }
+
+    @Override
+    public ImportJob startImport(String fileName, InputStream content, String startedBy) throws IOException {
+        Path dir = Paths.get(importDir);
+        Files.createDirectories(dir);
+        Path upload = Files.createTempFile(dir, "upload-", ".part");
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(content, sha256)) {
+            Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING);
+        }
+        String jobId = HexFormat.of().formatHex(sha256.digest());
+
+        submitLock.lock();
+        try {
+            ImportJob job = importJobRepository.findById(jobId).orElse(null);
+            if (job != null && (ImportJob.COMPLETED.equals(job.getStatus()) || activeJobs.contains(jobId))) {
+                Files.deleteIfExists(upload);
+                return job;
+            }
+            Files.move(upload, dataFile(jobId), StandardCopyOption.REPLACE_EXISTING);
+            if (job == null) {
+                job = new ImportJob(jobId, fileName, startedBy);
+            } else {
+                logger.info("Resuming import {} after {} rows", jobId, job.getRowsProcessed());
+            }
+            job.setStatus(ImportJob.QUEUED);
+            job.setUpdatedAt(LocalDateTime.now());
+            job = importJobRepository.save(job);
+            submit(jobId);
+            return job;
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    @Override
+    public ImportJob getJob(String jobId) {
+        return importJobRepository.findById(jobId).orElse(null);
+    }
+
+    @Override
+    public List<ImportJob> getRecentJobs() {
+        return importJobRepository.findTop10ByOrderByStartedAtDesc();
+    }
+
+    /** Picks up jobs that were queued or running when the application last stopped. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (ImportJob job : importJobRepository.findByStatusIn(List.of(ImportJob.QUEUED, ImportJob.RUNNING))) {
+            if (Files.exists(dataFile(job.getId()))) {
+                logger.info("Resuming interrupted import {} ({}) after {} rows", job.getId(), job.getFileName(), job.getRowsProcessed());
+                submit(job.getId());
+            } else {
+                job.setStatus(ImportJob.FAILED);
+                job.setErrors(appendLine(job.getErrors(), "Import was interrupted and the uploaded file is gone; upload it again"));
+                importJobRepository.save(job);
+            }
+        }
+    }
+
+    private void submit(String jobId) {
+        activeJobs.add(jobId);
+        jobExecutor.execute(() -> {
+            try {
+                runJob(jobId);
+            } finally {
+                activeJobs.remove(jobId);
+            }
+        });
+    }
+
+    // ===== PIPELINE =====
+
+    /**
+     * Records are tokenized on this thread (quoted cells may span lines, so splitting
+     * the file blindly is not safe), converted and validated on the pool, and written
+     * back in file order, one transaction per chunk. At most two chunks per validation
+     * thread are in flight, which bounds memory regardless of file size.
+     */
+    private void runJob(String jobId) {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ImportJob.RUNNING);
+        job.setUpdatedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+
+        long start = System.currentTimeMillis();
+        Path file = dataFile(jobId);
+        String failure = null;
+        try (CsvRecordReader reader = new CsvRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            ImportColumn[] mapping = mapHeader(header);
+
+            for (long skipped = 0; skipped < job.getRowsProcessed() && reader.next() != null; skipped++) {
+                // already committed by an earlier run
+            }
+
+            Deque<Future<ValidatedChunk>> pending = new ArrayDeque<>();
+            List<CsvLine> lines;
+            while (!(lines = readChunk(reader)).isEmpty()) {
+                List<CsvLine> chunk = lines;
+                pending.add(validationPool.submit(() -> validate(chunk, mapping)));
+                if (pending.size() >= validationThreads * 2) {
+                    commitChunk(jobId, pending.poll().get());
+                }
+            }
+            while (!pending.isEmpty()) {
+                commitChunk(jobId, pending.poll().get());
+            }
+        } catch (IllegalArgumentException e) {
+            failure = e.getMessage();
+        } catch (ExecutionException e) {
+            failure = "Unexpected error: " + e.getCause().getMessage();
+            logger.error("Import {} failed", jobId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Import {} interrupted; it will resume on next start", jobId);
+            return;
+        } catch (IOException | RuntimeException e) {
+            failure = "Unexpected error: " + e.getMessage();
+            logger.error("Import {} failed", jobId, e);
+        }
+
+        job = importJobRepository.findById(jobId).orElse(job);
+        job.setUpdatedAt(LocalDateTime.now());
+        if (failure == null) {
+            job.setStatus(ImportJob.COMPLETED);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete import file {}", file, e);
+            }
+        } else {
+            job.setStatus(ImportJob.FAILED);
+            job.setErrors(appendLine(job.getErrors(), failure));
+        }
+        importJobRepository.save(job);
+        logger.info("Import {} {}: {} rows, {} inserted, {} updated, {} errors in {} ms", jobId, job.getStatus(),
+                job.getRowsProcessed(), job.getRowsInserted(), job.getRowsUpdated(), job.getErrorCount(),
+                System.currentTimeMillis() - start);
+
+        // The rows went in with plain JDBC, so refresh the in-memory views once rather than per row
+        dashboardCounters.reconcile();
+        applicantSearchIndex.rebuild();
+    }
+
+    private ImportColumn[] mapHeader(List<String> header) {
+        ImportColumn[] mapping = new ImportColumn[header.size()];
+        boolean hasEmail = false;
+        for (int i = 0; i < header.size(); i++) {
+            ImportColumn column = ImportColumn.forHeader(header.get(i));
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown column '" + header.get(i) + "'");
+            }
+            for (int j = 0; j < i; j++) {
+                if (mapping[j] == column) {
+                    throw new IllegalArgumentException("Column '" + header.get(i) + "' appears more than once");
+                }
+            }
+            mapping[i] = column;
+            hasEmail |= column == ImportColumn.USER_EMAIL;
+        }
+        if (!hasEmail) {
+            throw new IllegalArgumentException("The file needs a userEmail column");
+        }
+        return mapping;
+    }
+
+    private List<CsvLine> readChunk(CsvRecordReader reader) throws IOException {
+        List<CsvLine> chunk = new ArrayList<>(chunkSize);
+        List<String> cells;
+        while (chunk.size() < chunkSize && (cells = reader.next()) != null) {
+            chunk.add(new CsvLine(reader.getRecordLine(), cells));
+        }
+        return chunk;
+    }
+
+    private ValidatedChunk validate(List<CsvLine> lines, ImportColumn[] mapping) {
+        ValidatedChunk result = new ValidatedChunk(lines.size());
+        for (CsvLine line : lines) {
+            List<String> cells = line.cells;
+            if (cells.size() == 1 && cells.get(0).isBlank()) {
+                continue;
+            }
+            if (cells.size() != mapping.length) {
+                result.errors.add("line " + line.number + ": expected " + mapping.length + " values but found " + cells.size());
+                continue;
+            }
+            UserApplication application = new UserApplication();
+            List<String> problems = new ArrayList<>();
+            for (int i = 0; i < mapping.length; i++) {
+                try {
+                    Object value = mapping[i].parse(cells.get(i));
+                    if (value instanceof Integer && (Integer) value < 0) {
+                        problems.add(mapping[i].getProperty() + " cannot be negative");
+                    } else if (value != null) {
+                        mapping[i].set(application, value);
+                    }
+                } catch (IllegalArgumentException e) {
+                    problems.add(e.getMessage());
+                }
+            }
+            if (application.getUserEmail() == null) {
+                problems.add("userEmail is required");
+            } else if (!EMAIL.matcher(application.getUserEmail()).matches()) {
+                problems.add("userEmail '" + application.getUserEmail() + "' is not a valid email");
+            }
+            checkMarks(problems, "10th", application.getObtain10Marks(), application.getTotal10Marks());
+            checkMarks(problems, "12th", application.getObtain12Marks(), application.getTotal12Marks());
+
+            if (problems.isEmpty()) {
+                result.rows.add(new ImportRow(line.number, application));
+            } else {
+                result.errors.add("line " + line.number + ": " + String.join("; ", problems));
+            }
+        }
+        return result;
+    }
+
+    private static void checkMarks(List<String> problems, String level, Integer obtained, Integer total) {
+        if (obtained != null && total != null && obtained > total) {
+            problems.add(level + " obtained marks (" + obtained + ") exceed total marks (" + total + ")");
+        }
+    }
+
+    private void commitChunk(String jobId, ValidatedChunk chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ApplicationChunkWriter.Result written;
+            try {
+                written = writer.write(chunk.rows);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not write import chunk: " + e.getMessage(), e);
+            }
+            // Progress is committed with the rows it describes, so a resume never skips or repeats a chunk
+            ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+            long storedErrors = Math.min(job.getErrorCount(), MAX_STORED_ERRORS);
+            String errors = job.getErrors();
+            for (String error : chunk.errors) {
+                if (storedErrors++ >= MAX_STORED_ERRORS) {
+                    break;
+                }
+                errors = appendLine(errors, error);
+            }
+            job.setErrors(errors);
+            job.setErrorCount(job.getErrorCount() + chunk.errors.size());
+            job.setRowsProcessed(job.getRowsProcessed() + chunk.records);
+            job.setRowsInserted(job.getRowsInserted() + written.getInserted());
+            job.setRowsUpdated(job.getRowsUpdated() + written.getUpdated());
+            job.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    private Path dataFile(String jobId) {
+        return Paths.get(importDir).resolve(jobId + ".csv");
+    }
+
+    private static String appendLine(String text, String line) {
+        return text == null || text.isEmpty() ? line : text + "\n" + line;
+    }
+
+    private static final class CsvLine {
+        final long number;
+        final List<String> cells;
+
+        CsvLine(long number, List<String> cells) {
+            this.number = number;
+            this.cells = cells;
+        }
+    }
+
+    private static final class ValidatedChunk {
+        final int records;
+        final List<ImportRow> rows = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+
+        ValidatedChunk(int records) {
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.m4nas.service;
+
+import com.m4nas.model.UserDtls;
+
+import java.security.Principal;
+
+/**
+ * Resolves the signed-in user's account without a database query on every page.
+ * The account is looked up at most once per request, through the second-level
+ * natural-id cache on UserDtls.
+ *
+ * Callers get a copy without the password hash or verification code, so it is
+ * safe to read and pass to templates; code that changes the account or checks
+ * credentials must load it from UserRepository, and after saving call
+ * {@link #evict(String)}.
+ */
+public interface CurrentUserService {
+
+    /**
+     * @param principal the authenticated principal, may be null
+     * @return the principal's account, or null if not signed in or not found
+     */
+    UserDtls getCurrentUser(Principal principal);
+
+    /**
+     * Lookup by email for code that only needs to read the account.
+     *
+     * @param email the account email, may be null
+     * @return the account, or null if there is none
+     */
+    UserDtls getUser(String email);
+
+    /**
+     * Drops the current request's copy of the account. Must be called whenever
+     * a user's profile, role, enabled flag or password changes, or the user is
+     * deleted, so the rest of the request sees the change.
+     *
+     * @param email the email whose copy is stale
+     */
+    void evict(String email);
+}
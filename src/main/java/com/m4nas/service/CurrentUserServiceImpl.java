@@ -0,0 +1,75 @@
+package com.m4nas.service;
+
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.security.Principal;
+
+@Service
+public class CurrentUserServiceImpl implements CurrentUserService {
+
+    /** Request attribute prefix for the per-request copy. */
+    private static final String REQUEST_ATTRIBUTE = CurrentUserServiceImpl.class.getName() + ".";
+
+    private final UserRepository userRepo;
+
+    public CurrentUserServiceImpl(UserRepository userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    @Override
+    public UserDtls getCurrentUser(Principal principal) {
+        return principal != null ? getUser(principal.getName()) : null;
+    }
+
+    @Override
+    public UserDtls getUser(String email) {
+        if (email == null) {
+            return null;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            UserDtls resolved = (UserDtls) request.getAttribute(REQUEST_ATTRIBUTE + email, RequestAttributes.SCOPE_REQUEST);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+
+        // Resolved through the second-level natural-id cache, which Hibernate keeps current on every save
+        UserDtls user = userRepo.findByEmail(email);
+        if (user == null) {
+            return null;
+        }
+        UserDtls copy = copy(user);
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE + email, copy, RequestAttributes.SCOPE_REQUEST);
+        }
+        return copy;
+    }
+
+    @Override
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE + email, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /** The account without its password hash or verification code. */
+    private static UserDtls copy(UserDtls source) {
+        UserDtls copy = new UserDtls();
+        copy.setId(source.getId());
+        copy.setFullName(source.getFullName());
+        copy.setEmail(source.getEmail());
+        copy.setRole(source.getRole());
+        copy.setEnable(source.isEnable());
+        copy.setProvider(source.getProvider());
+        return copy;
+    }
+}
@@ -0,0 +1,271 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.ApplicationSnapshot;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory read model for the teacher/admin dashboards.
+ *
+ * Per-status and per-branch counters are adjusted after every committed write in
+ * UserApplicationServiceImpl and periodically reconciled against the GROUP BY
+ * queries. Reads never touch the database.
+ */
+@Component
+public class DashboardCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCounters.class);
+
+    private final UserApplicationRepository userApplicationRepo;
+
+    /** Immutable; replaced wholesale on every change so reads need no locking. */
+    private volatile Counts counts;
+
+    /**
+     * Bumped when a change is recorded and again when its transaction ends, so
+     * reconciliation can detect writes that overlapped its queries.
+     */
+    private long version;
+
+    /**
+     * Changes recorded in transactions that have not finished. Such a change may
+     * already be committed, and so visible to the GROUP BY queries, while its
+     * delta has not been applied yet.
+     */
+    private int pending;
+
+    public DashboardCounters(UserApplicationRepository userApplicationRepo) {
+        this.userApplicationRepo = userApplicationRepo;
+    }
+
+    // ===== READS =====
+
+    public long countByStatus(String status) {
+        return current().statusCounts.getOrDefault(status, 0L);
+    }
+
+    public long countAllocatedPendingResponse() {
+        return current().allocatedPendingResponse;
+    }
+
+    /** Same shape as getApplicationStatusCounts: [status, count]. */
+    public List<Object[]> getStatusCounts() {
+        List<Object[]> rows = new ArrayList<>();
+        current().statusCounts.forEach((status, count) -> rows.add(new Object[]{status, count}));
+        return rows;
+    }
+
+    /** Same shape as getBranchWiseStatistics: [branch, count, avg obtain12Marks]. */
+    public List<Object[]> getBranchStatistics() {
+        List<Object[]> rows = new ArrayList<>();
+        current().branchTotals.forEach((branch, totals) -> rows.add(new Object[]{branch, totals.count, totals.average()}));
+        return rows;
+    }
+
+    // ===== WRITES =====
+
+    /**
+     * Records a change to one application. Applied after commit when called inside
+     * a transaction, so rolled-back writes never reach the counters.
+     *
+     * @param before state before the write, null for a new application
+     * @param after state after the write, null for a deleted application
+     */
+    public void recordChange(ApplicationSnapshot before, ApplicationSnapshot after) {
+        synchronized (this) {
+            pending++;
+            version++;
+        }
+        TransactionCallbacks.afterCompletion(committed -> complete(committed, before, after));
+    }
+
+    /**
+     * Schedules a full reload for after the current transaction commits. Used by
+     * bulk JPQL updates, which change rows without going through recordChange.
+     */
+    public void reconcileAfterCommit() {
+        TransactionCallbacks.afterCommit(this::reconcile);
+    }
+
+    private synchronized void complete(boolean committed, ApplicationSnapshot before, ApplicationSnapshot after) {
+        pending--;
+        version++;
+        if (!committed) {
+            return;
+        }
+        if (counts == null) {
+            // Not loaded yet; the first read will load from the database
+            return;
+        }
+        Counts next = counts.copy();
+        next.add(before, -1);
+        next.add(after, 1);
+        counts = next;
+    }
+
+    // ===== RECONCILIATION =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the counters from the GROUP BY queries and logs any drift.
+     * Retries if a write was in flight when the queries started or was
+     * recorded or finished while they ran: its delta might already be in
+     * their result and then be applied on top of it.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long startVersion;
+            int startPending;
+            synchronized (this) {
+                startVersion = version;
+                startPending = pending;
+            }
+            Counts fresh = loadFromDatabase();
+            synchronized (this) {
+                if (startPending == 0 && version == startVersion) {
+                    if (counts != null && !counts.equals(fresh)) {
+                        logger.warn("Dashboard counters drifted from database, resetting");
+                    }
+                    counts = fresh;
+                    return;
+                }
+            }
+        }
+        logger.info("Dashboard reconciliation skipped: applications changing too fast, will retry next run");
+    }
+
+    private Counts current() {
+        Counts snapshot = counts;
+        if (snapshot == null) {
+            reconcile();
+            snapshot = counts;
+        }
+        return snapshot != null ? snapshot : Counts.EMPTY;
+    }
+
+    private Counts loadFromDatabase() {
+        Counts fresh = new Counts();
+        for (Object[] row : userApplicationRepo.getApplicationStatusCounts()) {
+            fresh.statusCounts.put((String) row[0], (Long) row[1]);
+        }
+        for (Object[] row : userApplicationRepo.getBranchMarkTotals()) {
+            BranchTotals totals = new BranchTotals();
+            totals.count = (Long) row[1];
+            totals.marksSum = row[2] != null ? ((Number) row[2]).longValue() : 0L;
+            totals.marksCount = (Long) row[3];
+            fresh.branchTotals.put((String) row[0], totals);
+        }
+        fresh.allocatedPendingResponse = userApplicationRepo.countAllocatedPendingResponse();
+        return fresh;
+    }
+
+    // ===== STATE =====
+
+    private static final class Counts {
+
+        static final Counts EMPTY = new Counts();
+
+        final Map<String, Long> statusCounts = new HashMap<>();
+        final Map<String, BranchTotals> branchTotals = new TreeMap<>();
+        long allocatedPendingResponse;
+
+        Counts copy() {
+            Counts copy = new Counts();
+            copy.statusCounts.putAll(statusCounts);
+            branchTotals.forEach((branch, totals) -> copy.branchTotals.put(branch, totals.copy()));
+            copy.allocatedPendingResponse = allocatedPendingResponse;
+            return copy;
+        }
+
+        void add(ApplicationSnapshot app, int sign) {
+            if (app == null) {
+                return;
+            }
+            // GROUP BY status puts null statuses in their own group
+            statusCounts.merge(app.getStatus(), (long) sign, Long::sum);
+            if (statusCounts.get(app.getStatus()) == 0L) {
+                statusCounts.remove(app.getStatus());
+            }
+            if (app.isAllocatedPendingResponse()) {
+                allocatedPendingResponse += sign;
+            }
+            if (app.getAllocatedBranch() != null) {
+                BranchTotals totals = branchTotals.computeIfAbsent(app.getAllocatedBranch(), b -> new BranchTotals());
+                totals.count += sign;
+                if (app.getObtain12Marks() != null) {
+                    totals.marksSum += (long) sign * app.getObtain12Marks();
+                    totals.marksCount += sign;
+                }
+                if (totals.count == 0) {
+                    branchTotals.remove(app.getAllocatedBranch());
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Counts)) {
+                return false;
+            }
+            Counts other = (Counts) o;
+            return statusCounts.equals(other.statusCounts)
+                    && branchTotals.equals(other.branchTotals)
+                    && allocatedPendingResponse == other.allocatedPendingResponse;
+        }
+
+        @Override
+        public int hashCode() {
+            return statusCounts.hashCode();
+        }
+    }
+
+    private static final class BranchTotals {
+        long count;
+        long marksSum;
+        long marksCount;
+
+        BranchTotals copy() {
+            BranchTotals copy = new BranchTotals();
+            copy.count = count;
+            copy.marksSum = marksSum;
+            copy.marksCount = marksCount;
+            return copy;
+        }
+
+        Double average() {
+            return marksCount > 0 ? (double) marksSum / marksCount : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BranchTotals)) {
+                return false;
+            }
+            BranchTotals other = (BranchTotals) o;
+            return count == other.count && marksSum == other.marksSum && marksCount == other.marksCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(count);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.m4nas.service;
+
+import com.m4nas.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming exports. Rows are read through a forward-only JDBC cursor and
+ * written straight to the output stream, so memory use does not depend on
+ * the number of rows.
+ */
+public interface ExportService {
+
+    /** @return number of data rows written */
+    long exportApplications(String status, ExportFormat format, OutputStream out) throws IOException;
+
+    /** Applications in merit order with their rank; filters are optional. */
+    long exportMeritList(String status, String course, String branch, ExportFormat format, OutputStream out) throws IOException;
+
+    /** @return number of data rows written */
+    long exportPayments(String status, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,152 @@
+package com.m4nas.service;
+
+import com.m4nas.export.ExportFormat;
+import com.m4nas.export.RowWriter;
+import com.m4nas.repository.UserApplicationRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    /** Rows fetched per round trip; PostgreSQL only honours this inside a transaction. */
+    private static final int FETCH_SIZE = 500;
+
+    private static final List<String> APPLICATION_HEADERS = Arrays.asList(
+            "Application ID", "Name", "Email", "Phone", "Date of Birth", "Gender", "City", "State",
+            "Course", "Branch 1", "Branch 2", "10th %", "12th Marks", "12th Total", "12th %",
+            "Entrance Exam", "Entrance Rank", "Status", "Allocated Branch", "Seat Accepted", "Submitted");
+
+    private static final String APPLICATION_COLUMNS =
+            "ua.id, u.full_name, ua.user_email, ua.phone_no, ua.dob, ua.gender, ua.city, ua.state, "
+            + "ua.course, ua.branch1, ua.branch2, ua.percentage10, ua.obtain12marks, ua.total12marks, ua.percentage12, "
+            + "ua.entrance_name, ua.entrance_rank, ua.status, ua.allocated_branch, ua.seat_accepted, ua.submission_date";
+
+    private static final String APPLICATION_FROM =
+            " FROM user_applications ua LEFT JOIN user_dtls u ON u.email = ua.user_email";
+
+    private static final List<String> PAYMENT_HEADERS = Arrays.asList(
+            "Payment ID", "Student Name", "Email", "Course", "Branch", "Amount", "Method", "Transaction ID",
+            "Status", "Submitted", "Verified", "Verified By");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ExportServiceImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportApplications(String status, ExportFormat format, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + APPLICATION_COLUMNS + APPLICATION_FROM;
+        if (status != null) {
+            sql += " WHERE ua.status = ?";
+            params.add(status);
+        }
+        sql += " ORDER BY ua.submission_date DESC NULLS LAST, ua.id";
+        return stream(sql, params, format, out, "Applications", APPLICATION_HEADERS, 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportMeritList(String status, String course, String branch, ExportFormat format, OutputStream out) throws IOException {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (status != null) {
+            conditions.add("ua.status = ?");
+            params.add(status);
+        }
+        if (course != null) {
+            conditions.add("ua.course = ?");
+            params.add(course);
+        }
+        if (branch != null) {
+            conditions.add("ua.branch1 = ?");
+            params.add(branch);
+        }
+        String sql = "SELECT " + APPLICATION_COLUMNS + APPLICATION_FROM
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                // Same order as the merit list pages, served by the same indexes
+                + " ORDER BY " + UserApplicationRepositoryCustom.MERIT_KEY;
+        List<String> headers = new ArrayList<>();
+        headers.add("Rank");
+        headers.addAll(APPLICATION_HEADERS);
+        return stream(sql, params, format, out, "Merit List", headers, 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPayments(String status, ExportFormat format, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT p.id, p.student_name, p.user_email, p.course, p.branch, p.amount, p.payment_method, "
+                + "p.transaction_id, p.status, p.submission_date, p.verification_date, p.verified_by FROM payments p";
+        if (status != null) {
+            sql += " WHERE p.status = ?";
+            params.add(status);
+        }
+        sql += " ORDER BY p.submission_date DESC, p.id";
+        return stream(sql, params, format, out, "Payments", PAYMENT_HEADERS, 0);
+    }
+
+    /**
+     * Runs the query and writes each row as it is fetched.
+     *
+     * @param rankColumns 1 to prepend a running rank column, 0 otherwise
+     */
+    private long stream(String sql, List<Object> params, ExportFormat format, OutputStream out,
+                        String sheetName, List<String> headers, int rankColumns) throws IOException {
+        int columns = headers.size() - rankColumns;
+        long[] rows = {0};
+        try (RowWriter writer = format.open(out, sheetName, headers)) {
+            Object[] cells = new Object[headers.size()];
+            jdbcTemplate.query(sql, (ResultSet rs) -> {
+                rows[0]++;
+                if (rankColumns > 0) {
+                    cells[0] = rows[0];
+                }
+                for (int i = 0; i < columns; i++) {
+                    cells[rankColumns + i] = cell(rs, i + 1);
+                }
+                try {
+                    writer.writeRow(cells);
+                } catch (IOException e) {
+                    // Client went away; abandon the cursor
+                    throw new UncheckedIOException(e);
+                }
+            }, params.toArray());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private static Object cell(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().withNano(0).toString().replace('T', ' ');
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().toString();
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "Yes" : "No";
+        }
+        return value;
+    }
+}
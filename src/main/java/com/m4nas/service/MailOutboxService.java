@@ -0,0 +1,25 @@
+package com.m4nas.service;
+
+/**
+ * Queues outgoing mail in the database and delivers it in the background, so
+ * request threads never wait on the SMTP relay.
+ */
+public interface MailOutboxService {
+
+    /**
+     * Queues an HTML email. Joins the caller's transaction: the mail is only
+     * sent if that transaction commits.
+     *
+     * @param to recipient address
+     * @param subject subject line
+     * @param htmlBody rendered HTML body
+     */
+    void enqueue(String to, String subject, String htmlBody);
+
+    /**
+     * Sends everything that is due now, then returns.
+     *
+     * @return number of mails attempted
+     */
+    int dispatchDue();
+}
@@ -0,0 +1,350 @@
+package com.m4nas.service;
+
+import com.m4nas.model.OutboxMail;
+import com.m4nas.repository.OutboxMailRepository;
+import com.m4nas.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class MailOutboxServiceImpl implements MailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutboxServiceImpl.class);
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.mail.from:kabiranas7890@gmail.com}")
+    private String fromAddress;
+
+    @Value("${app.mail.from-name:College Technical Team}")
+    private String fromName;
+
+    /** Threads sending in parallel; each holds one SMTP connection while it sends. */
+    @Value("${app.mail.outbox.workers:4}")
+    private int workers;
+
+    /** Mails sent over one SMTP connection before it is closed. */
+    @Value("${app.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${app.mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    /** A mail still SENDING after this long is assumed lost with its dispatcher and retried. */
+    @Value("${app.mail.outbox.claim-timeout-ms:600000}")
+    private long claimTimeoutMs;
+
+    private ThreadPoolTaskExecutor dispatcher;
+    private ThreadPoolTaskExecutor workerPool;
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    /** Earliest time anything may be due (epoch millis); lets the poller skip the database while idle. */
+    private final AtomicLong nextDueMillis = new AtomicLong(0);
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter deadCounter;
+    private Timer batchTimer;
+    private Timer lagTimer;
+
+    @PostConstruct
+    void init() {
+        dispatcher = new ThreadPoolTaskExecutor();
+        dispatcher.setCorePoolSize(1);
+        dispatcher.setMaxPoolSize(1);
+        dispatcher.setThreadNamePrefix("mail-outbox-dispatch-");
+        dispatcher.setDaemon(true);
+        dispatcher.initialize();
+        workerPool = new ThreadPoolTaskExecutor();
+        workerPool.setCorePoolSize(workers);
+        workerPool.setMaxPoolSize(workers);
+        workerPool.setThreadNamePrefix("mail-outbox-");
+        workerPool.setDaemon(true);
+        workerPool.initialize();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        sentCounter = Counter.builder("mail.outbox.sent").description("Mails delivered to the SMTP relay").register(meterRegistry);
+        retryCounter = Counter.builder("mail.outbox.retries").description("Failed attempts that will be retried").register(meterRegistry);
+        deadCounter = Counter.builder("mail.outbox.dead").description("Mails given up after the last attempt").register(meterRegistry);
+        batchTimer = Timer.builder("mail.outbox.batch").description("Time to send one batch over one SMTP connection").register(meterRegistry);
+        lagTimer = Timer.builder("mail.outbox.lag").description("Time from enqueue to delivery").register(meterRegistry);
+        Gauge.builder("mail.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Mails waiting to be sent, as of the last dispatch").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdown();
+        workerPool.shutdown();
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(String to, String subject, String htmlBody) {
+        outboxMailRepository.save(new OutboxMail(to, subject, htmlBody));
+        TransactionCallbacks.afterCommit(this::wake);
+    }
+
+    /** Cheap in-memory check; only touches the database when something may be due. */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (System.currentTimeMillis() >= nextDueMillis.get()) {
+            wake();
+        }
+    }
+
+    /**
+     * Picks up mail queued by other instances or left claimed by a crashed one.
+     * Also runs at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.mail.outbox.sweep-interval-ms:60000}",
+            initialDelayString = "${app.mail.outbox.sweep-interval-ms:60000}")
+    public void sweep() {
+        int released = transactionTemplate.execute(status ->
+                outboxMailRepository.releaseStaleClaims(LocalDateTime.now().minus(Duration.ofMillis(claimTimeoutMs))));
+        if (released > 0) {
+            logger.warn("Released {} outbox mails left in SENDING by an interrupted dispatcher", released);
+        }
+        wake();
+    }
+
+    private void wake() {
+        if (dispatchQueued.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchQueued.set(false);
+                try {
+                    dispatchDue();
+                } catch (RuntimeException e) {
+                    logger.error("Mail outbox dispatch failed", e);
+                    nextDueMillis.set(System.currentTimeMillis() + initialBackoffMs);
+                }
+            });
+        }
+    }
+
+    /**
+     * Claims up to workers x batchSize due mails at a time and sends them as one
+     * batch per worker, so each worker reuses a single SMTP connection for its batch.
+     */
+    @Override
+    public int dispatchDue() {
+        dispatchLock.lock();
+        try {
+            return dispatchDueLocked();
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private int dispatchDueLocked() {
+        int attempted = 0;
+        int limit = workers * batchSize;
+        while (true) {
+            List<OutboxMail> claimed = claimDue(limit);
+            if (claimed.isEmpty()) {
+                break;
+            }
+            List<Future<?>> batches = new ArrayList<>();
+            for (int i = 0; i < claimed.size(); i += batchSize) {
+                List<OutboxMail> batch = claimed.subList(i, Math.min(i + batchSize, claimed.size()));
+                batches.add(workerPool.submit(() -> sendBatch(batch)));
+            }
+            for (Future<?> batch : batches) {
+                try {
+                    batch.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return attempted;
+                } catch (ExecutionException e) {
+                    // Claimed mails stay SENDING and come back after claim-timeout-ms
+                    logger.error("Mail outbox batch failed", e.getCause());
+                }
+            }
+            attempted += claimed.size();
+            if (claimed.size() < limit) {
+                break;
+            }
+        }
+
+        // With nothing left the poller stays idle until the next enqueue or sweep
+        LocalDateTime next = outboxMailRepository.findNextAttemptAt();
+        nextDueMillis.set(next != null ? toMillis(next) : Long.MAX_VALUE);
+        pendingCount.set(outboxMailRepository.countByStatus(OutboxMail.PENDING));
+        return attempted;
+    }
+
+    private List<OutboxMail> claimDue(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxMailRepository.findDueIds(now, PageRequest.of(0, limit));
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            String token = UUID.randomUUID().toString();
+            outboxMailRepository.claim(ids, token, now);
+            return outboxMailRepository.findByClaimToken(token);
+        });
+    }
+
+    private void sendBatch(List<OutboxMail> batch) {
+        Map<MimeMessage, OutboxMail> messages = new IdentityHashMap<>();
+        Map<OutboxMail, Exception> failures = new IdentityHashMap<>();
+        for (OutboxMail mail : batch) {
+            try {
+                messages.put(toMessage(mail), mail);
+            } catch (Exception e) {
+                failures.put(mail, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                // One connection for the whole batch; per-message failures come back in the exception
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, error) -> {
+                    OutboxMail mail = messages.get(message);
+                    if (mail != null) {
+                        failures.put(mail, error);
+                    }
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(mail -> failures.put(mail, e));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(mail -> failures.put(mail, e));
+            } finally {
+                sample.stop(batchTimer);
+            }
+        }
+
+        recordResults(batch, failures);
+    }
+
+    private void recordResults(List<OutboxMail> batch, Map<OutboxMail, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sent = new ArrayList<>();
+        List<OutboxMail> failed = new ArrayList<>();
+        for (OutboxMail mail : batch) {
+            Exception error = failures.get(mail);
+            if (error == null) {
+                sent.add(mail.getId());
+                sentCounter.increment();
+                lagTimer.record(Duration.between(mail.getCreatedAt(), now));
+                continue;
+            }
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setClaimToken(null);
+            mail.setLastError(truncate(error.getMessage()));
+            if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(OutboxMail.DEAD);
+                deadCounter.increment();
+                logger.error("Giving up on mail {} to {} after {} attempts: {}",
+                        mail.getId(), mail.getRecipient(), mail.getAttempts(), error.getMessage());
+            } else {
+                mail.setStatus(OutboxMail.PENDING);
+                mail.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMs(mail.getAttempts()))));
+                retryCounter.increment();
+                logger.warn("Mail {} to {} failed (attempt {}), retrying at {}: {}",
+                        mail.getId(), mail.getRecipient(), mail.getAttempts(), mail.getNextAttemptAt(), error.getMessage());
+            }
+            failed.add(mail);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxMailRepository.markSent(sent, now);
+            }
+            outboxMailRepository.saveAll(failed);
+        });
+    }
+
+    private MimeMessage toMessage(OutboxMail mail) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setFrom(fromAddress, fromName);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody(), true);
+        return message;
+    }
+
+    /** Exponential: initial, 2x, 4x, ... capped at max-backoff-ms, with +/-20% jitter. */
+    private long backoffMs(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > maxBackoffMs) {
+            delay = maxBackoffMs;
+        }
+        return (long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,42 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.OtpResult;
+
+/**
+ * One-time passwords for the forgot-password flow.
+ *
+ * Codes are kept per email in the database, not in the HTTP session, so the
+ * flow does not depend on which node served the previous step. Issuing is throttled per email and per client address, each code
+ * allows a limited number of guesses, and a verified code is exchanged for a
+ * single-use reset token that the reset form posts back.
+ */
+public interface OtpService {
+
+    /**
+     * Issues a fresh code for the email, replacing any outstanding one.
+     *
+     * @param clientAddress remote address of the requester, for per-client throttling
+     * @return ISSUED with the code to send, or THROTTLED with the seconds to wait
+     */
+    OtpResult issue(String email, String clientAddress);
+
+    /**
+     * Checks a code entered by the user.
+     *
+     * @return VALID with a reset token, INVALID with the attempts left, or EXPIRED / LOCKED
+     */
+    OtpResult verify(String email, String code);
+
+    /** Whether a code has been issued for the email and can still be entered. */
+    boolean hasPendingCode(String email);
+
+    /** Whether the token was issued for the email and has not been used or expired. */
+    boolean isResetTokenValid(String email, String resetToken);
+
+    /**
+     * Uses up a reset token. Only one caller can succeed for a given token.
+     *
+     * @return true if the token was valid and the password may be changed
+     */
+    boolean consumeResetToken(String email, String resetToken);
+}
@@ -0,0 +1,264 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.OtpResult;
+import com.m4nas.model.OtpCode;
+import com.m4nas.repository.OtpCodeRepository;
+import com.m4nas.util.TimingWheel;
+import com.m4nas.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OTP store backed by the otp_codes table, so a code issued on one node can
+ * be verified on another and attempts are counted once for all of them.
+ * Expiry is checked in every query; a periodic purge only deletes dead rows.
+ *
+ * Throttling stays in this process: buckets live in memory and are forgotten
+ * through a timing wheel once they have refilled. With several nodes each one
+ * allows the configured burst, so the effective limit is that many times
+ * higher unless requests are routed to nodes by client address.
+ */
+@Service
+public class OtpServiceImpl implements OtpService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtpServiceImpl.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OtpCodeRepository otpCodeRepository;
+
+    @Value("${app.otp.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    /** Wrong codes allowed before the code is discarded. */
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    /** Time to choose a new password after entering the code. */
+    @Value("${app.otp.reset-ttl-seconds:600}")
+    private long resetTtlSeconds;
+
+    @Value("${app.otp.email.burst:3}")
+    private int emailBurst;
+
+    @Value("${app.otp.email.refill-seconds:120}")
+    private long emailRefillSeconds;
+
+    @Value("${app.otp.client.burst:10}")
+    private int clientBurst;
+
+    @Value("${app.otp.client.refill-seconds:30}")
+    private long clientRefillSeconds;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, TokenBucket> emailBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+
+    private TimingWheel wheel;
+
+    private Counter issuedCounter;
+    private Counter emailThrottledCounter;
+    private Counter clientThrottledCounter;
+    private Counter lockedCounter;
+
+    @PostConstruct
+    void init() {
+        // One-second ticks; a revolution covers most refills without extra rounds
+        wheel = new TimingWheel(1, TimeUnit.SECONDS, 512, "otp-buckets");
+        issuedCounter = Counter.builder("otp.issued").description("Password-reset codes issued").register(meterRegistry);
+        emailThrottledCounter = Counter.builder("otp.throttled").tag("scope", "email").description("Code requests refused by rate limiting").register(meterRegistry);
+        clientThrottledCounter = Counter.builder("otp.throttled").tag("scope", "client").description("Code requests refused by rate limiting").register(meterRegistry);
+        lockedCounter = Counter.builder("otp.locked").description("Codes discarded after too many wrong attempts").register(meterRegistry);
+        Gauge.builder("otp.pending", otpCodeRepository, repository -> repository.countLiveCodes(LocalDateTime.now()))
+                .description("Codes issued and not yet used or expired").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wheel.close();
+    }
+
+    @Override
+    @Transactional
+    public OtpResult issue(String email, String clientAddress) {
+        String key = normalize(email);
+        long now = System.nanoTime();
+
+        long wait = take(clientBuckets, clientAddress, clientBurst, clientRefillSeconds, now);
+        if (wait > 0) {
+            clientThrottledCounter.increment();
+            logger.warn("OTP request from {} throttled", clientAddress);
+            return OtpResult.throttled(toSeconds(wait));
+        }
+        wait = take(emailBuckets, key, emailBurst, emailRefillSeconds, now);
+        if (wait > 0) {
+            emailThrottledCounter.increment();
+            logger.warn("OTP request for {} throttled", key);
+            return OtpResult.throttled(toSeconds(wait));
+        }
+
+        int code = 100000 + random.nextInt(900000);
+        String value = Integer.toString(code);
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds);
+        // A new code supersedes the old one and any reset that was already authorised
+        if (otpCodeRepository.reissue(key, value, expiresAt) == 0
+                && otpCodeRepository.insertIfAbsent(key, value, expiresAt) == 0) {
+            // A concurrent first request created the row
+            otpCodeRepository.reissue(key, value, expiresAt);
+        }
+        issuedCounter.increment();
+        return OtpResult.issued(code);
+    }
+
+    @Override
+    @Transactional
+    public OtpResult verify(String email, String code) {
+        String key = normalize(email);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Counted before comparing, so concurrent guesses cannot exceed the limit
+        if (otpCodeRepository.countAttempt(key, now) == 0) {
+            return OtpResult.of(OtpResult.Status.EXPIRED);
+        }
+        OtpCode otp = otpCodeRepository.findById(key).orElseThrow();
+        if (!matches(otp.getCode(), code)) {
+            int left = maxAttempts - otp.getAttempts();
+            if (left > 0) {
+                return OtpResult.invalid(left);
+            }
+            otpCodeRepository.discardCode(key);
+            lockedCounter.increment();
+            logger.warn("OTP for {} discarded after {} wrong attempts", key, maxAttempts);
+            return OtpResult.of(OtpResult.Status.LOCKED);
+        }
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        otpCodeRepository.grantReset(key, tokenHash(token), now.plusSeconds(resetTtlSeconds));
+        return OtpResult.valid(token);
+    }
+
+    @Override
+    public boolean hasPendingCode(String email) {
+        return otpCodeRepository.hasLiveCode(normalize(email), LocalDateTime.now());
+    }
+
+    @Override
+    public boolean isResetTokenValid(String email, String resetToken) {
+        return resetToken != null
+                && otpCodeRepository.hasLiveReset(normalize(email), tokenHash(resetToken), LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public boolean consumeResetToken(String email, String resetToken) {
+        return resetToken != null
+                && otpCodeRepository.consumeReset(normalize(email), tokenHash(resetToken), LocalDateTime.now()) > 0;
+    }
+
+    /** Deletes rows whose code and reset token have both been used or run out. */
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:300000}",
+               initialDelayString = "${app.otp.purge-interval-ms:300000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = otpCodeRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.debug("Purged {} expired OTP rows", purged);
+        }
+    }
+
+    /**
+     * Takes a token from the key's bucket, creating it on first use.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    private long take(Map<String, TokenBucket> buckets, String key, int burst, long refillSeconds, long now) {
+        if (key == null) {
+            return 0;
+        }
+        long nanosPerToken = TimeUnit.SECONDS.toNanos(refillSeconds);
+        long[] wait = new long[1];
+        // Under the map's bin lock, so eviction cannot drop a bucket between lookup and use
+        buckets.compute(key, (k, bucket) -> {
+            if (bucket == null) {
+                bucket = new TokenBucket(burst, nanosPerToken, now);
+                scheduleEviction(buckets, k, bucket, burst * nanosPerToken);
+            }
+            if (!bucket.tryConsume(now)) {
+                wait[0] = Math.max(1, bucket.nanosUntilAvailable(now));
+            }
+            return bucket;
+        });
+        return wait[0];
+    }
+
+    /** A full bucket behaves exactly like a missing one, so it is dropped then. */
+    private void scheduleEviction(Map<String, TokenBucket> buckets, String key, TokenBucket bucket, long delayNanos) {
+        wheel.schedule(() -> {
+            long now = System.nanoTime();
+            buckets.computeIfPresent(key, (k, current) -> {
+                if (current != bucket) {
+                    return current;
+                }
+                long untilFull = current.nanosUntilFull(now);
+                if (untilFull == 0) {
+                    return null;
+                }
+                scheduleEviction(buckets, k, current, untilFull);
+                return current;
+            });
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Constant-time, so response timing does not reveal how much of a guess was right. */
+    private static boolean matches(String expected, String actual) {
+        if (actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                actual.trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Tokens are stored and looked up hashed, so a read of the table cannot be replayed. */
+    private static String tokenHash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.trim().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
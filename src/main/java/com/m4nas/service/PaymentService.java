@@ -1,5 +1,7 @@
 package com.m4nas.service;
 
+import com.m4nas.dto.BulkUpdateResult;
+import com.m4nas.dto.PaymentStatusChange;
 import com.m4nas.model.Payment;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,4 +22,12 @@ public interface PaymentService {
     Payment rejectPayment(Long paymentId, String verifiedBy);
     
     boolean hasVerifiedPayment(String userEmail);
+    
+    Payment updatePaymentStatus(Long paymentId, Payment.PaymentStatus status, String updatedBy);
+    
+    /**
+     * Applies payment-management grid edits in one transaction: one batched load,
+     * JDBC-batched updates, and an outcome per submitted change.
+     */
+    BulkUpdateResult<PaymentStatusChange> bulkUpdateStatus(List<PaymentStatusChange> changes, String updatedBy);
 }
\ No newline at end of file
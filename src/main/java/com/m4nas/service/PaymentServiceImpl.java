@@ -1,55 +1,44 @@
 package com.m4nas.service;
 
+import com.m4nas.dto.BulkUpdateResult;
+import com.m4nas.dto.PaymentStatusChange;
 import com.m4nas.model.Payment;
 import com.m4nas.repository.PaymentRepository;
+import com.m4nas.repository.QueryChunks;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Timed(value = "app.service", description = "Service method calls by class, method and exception")
 public class PaymentServiceImpl implements PaymentService {
     
     @Autowired
     private PaymentRepository paymentRepository;
     
-    private final String uploadDir = "uploads/receipts/";
+    @Autowired
+    private ReceiptService receiptService;
     
     @Override
+    @Transactional
     public Payment submitPayment(String userEmail, String studentName, String course, String branch,
                                 Double amount, String paymentMethod, String transactionId,
                                 MultipartFile receiptFile, String notes) {
         
         String receiptFileName = null;
         
-        // Handle file upload if provided
+        // Identical uploads share one stored file
         if (receiptFile != null && !receiptFile.isEmpty()) {
-            try {
-                // Create upload directory if it doesn't exist
-                Path uploadPath = Paths.get(uploadDir);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-                
-                // Generate unique filename
-                String originalFilename = receiptFile.getOriginalFilename();
-                String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-                receiptFileName = UUID.randomUUID().toString() + extension;
-                
-                // Save file
-                Path filePath = uploadPath.resolve(receiptFileName);
-                Files.copy(receiptFile.getInputStream(), filePath);
-                
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to upload receipt file", e);
-            }
+            receiptFileName = receiptService.storeReceipt(receiptFile);
         }
         
         Payment payment = new Payment(userEmail, studentName, course, branch, amount, 
@@ -97,19 +86,59 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentRepository.existsByUserEmailAndStatus(userEmail, Payment.PaymentStatus.VERIFIED);
     }
     
+    @Override
     public Payment updatePaymentStatus(Long paymentId, Payment.PaymentStatus status, String updatedBy) {
         Payment payment = paymentRepository.findById(paymentId)
             .orElseThrow(() -> new RuntimeException("Payment not found"));
         
+        applyStatus(payment, status, updatedBy, LocalDateTime.now());
+        
+        return paymentRepository.save(payment);
+    }
+    
+    @Override
+    @Transactional
+    public BulkUpdateResult<PaymentStatusChange> bulkUpdateStatus(List<PaymentStatusChange> changes, String updatedBy) {
+        BulkUpdateResult<PaymentStatusChange> result = new BulkUpdateResult<>(changes);
+        
+        Set<Long> ids = new LinkedHashSet<>();
+        for (PaymentStatusChange change : changes) {
+            if (change.getPaymentId() != null) {
+                ids.add(change.getPaymentId());
+            }
+        }
+        Map<Long, Payment> payments = new HashMap<>();
+        for (List<Long> chunk : QueryChunks.of(ids)) {
+            for (Payment payment : paymentRepository.findAllById(chunk)) {
+                payments.put(payment.getId(), payment);
+            }
+        }
+        
+        // Managed entities are flushed on commit; hibernate.jdbc.batch_size groups the UPDATEs
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < changes.size(); i++) {
+            PaymentStatusChange change = changes.get(i);
+            Payment payment = change.getPaymentId() != null ? payments.get(change.getPaymentId()) : null;
+            if (payment == null) {
+                result.failure(i, "Payment not found");
+            } else if (change.getStatus() == null) {
+                result.failure(i, "Missing status");
+            } else {
+                applyStatus(payment, change.getStatus(), updatedBy, now);
+                result.success(i);
+            }
+        }
+        return result;
+    }
+    
+    private void applyStatus(Payment payment, Payment.PaymentStatus status, String updatedBy, LocalDateTime now) {
         payment.setStatus(status);
         if (status != Payment.PaymentStatus.PENDING) {
-            payment.setVerificationDate(LocalDateTime.now());
+            payment.setVerificationDate(now);
             payment.setVerifiedBy(updatedBy);
         } else {
             payment.setVerificationDate(null);
             payment.setVerifiedBy(null);
         }
-        
-        return paymentRepository.save(payment);
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.ReceiptVariant;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Builds the thumbnail and web-size copies of image receipts on a bounded
+ * background executor, so uploads return as soon as the original is stored.
+ */
+public interface ReceiptImageService {
+
+    /**
+     * Queues generation of the given derivatives. Already queued sources and
+     * a full queue are skipped; the next request for a missing derivative
+     * queues it again. A source that cannot be decoded is marked as failed
+     * and never queued again.
+     *
+     * @param source original image
+     * @param targets where each derivative goes
+     * @param failedMarker empty file written when the source cannot be decoded
+     * @return true if the work was queued
+     */
+    boolean schedule(Path source, Map<ReceiptVariant, Path> targets, Path failedMarker);
+
+    /**
+     * Decodes the source once and writes every derivative, on the calling thread.
+     *
+     * @return false if the source is not an image this JVM can decode
+     */
+    boolean generate(Path source, Map<ReceiptVariant, Path> targets) throws IOException;
+}
@@ -0,0 +1,219 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.ReceiptVariant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+@Service
+public class ReceiptImageServiceImpl implements ReceiptImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptImageServiceImpl.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Images decoded at once; each holds a full decoded bitmap while it works. */
+    @Value("${app.receipts.thumbnails.workers:2}")
+    private int workers;
+
+    @Value("${app.receipts.thumbnails.queue-capacity:1000}")
+    private int queueCapacity;
+
+    /** Larger images are left alone rather than decoded (decompression bombs). */
+    @Value("${app.receipts.thumbnails.max-pixels:100000000}")
+    private long maxPixels;
+
+    private ThreadPoolTaskExecutor executor;
+    private final Set<Path> queued = ConcurrentHashMap.newKeySet();
+
+    private Timer generateTimer;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        // Decode from memory, not through temp files
+        ImageIO.setUseCache(false);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("receipt-images-");
+        executor.setDaemon(true);
+        executor.initialize();
+        generateTimer = Timer.builder("receipts.thumbnails").description("Time to decode a receipt and write its smaller copies").register(meterRegistry);
+        failedCounter = Counter.builder("receipts.thumbnails.failed").description("Receipts whose smaller copies could not be built").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean schedule(Path source, Map<ReceiptVariant, Path> targets, Path failedMarker) {
+        if (Files.exists(failedMarker) || !queued.add(source)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!generateTimer.recordCallable(() -> generate(source, targets))) {
+                        // Decoding the same bytes again would fail the same way
+                        failedCounter.increment();
+                        Files.write(failedMarker, new byte[0]);
+                    }
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    logger.warn("Could not build smaller copies of receipt {}", source.getFileName(), e);
+                } finally {
+                    queued.remove(source);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(source);
+            logger.debug("Receipt image queue full, {} left for later", source.getFileName());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean generate(Path source, Map<ReceiptVariant, Path> targets) throws IOException {
+        List<Map.Entry<ReceiptVariant, Path>> largestFirst = targets.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<ReceiptVariant, Path> e) -> e.getKey().getMaxEdge()).reversed())
+                .collect(Collectors.toList());
+        if (largestFirst.isEmpty()) {
+            return true;
+        }
+        BufferedImage image = decode(source, largestFirst.get(0).getKey().getMaxEdge());
+        if (image == null) {
+            return false;
+        }
+        // Each size is scaled from the one before it, not from the full decode
+        for (Map.Entry<ReceiptVariant, Path> target : largestFirst) {
+            image = scale(image, target.getKey().getMaxEdge());
+            writeJpeg(image, target.getKey().getJpegQuality(), target.getValue());
+        }
+        return true;
+    }
+
+    /**
+     * Reads the first image, subsampled while decoding so a 12MP photo never
+     * becomes a 12MP bitmap when only 1280px is needed.
+     */
+    private BufferedImage decode(Path source, int largestEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.warn("Receipt {} is {}x{}, too large to build smaller copies", source.getFileName(), width, height);
+                    return null;
+                }
+                // Keep at least twice the target so the final downscale can still smooth
+                int step = Math.max(1, Math.max(width, height) / (2 * largestEdge));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Halves with bilinear filtering until close, then draws the final size onto white (JPEG has no alpha). */
+    private static BufferedImage scale(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight
+                || current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /** Written beside the target and renamed, so a reader never sees half a file. */
+    private static void writeJpeg(BufferedImage image, float quality, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path partial = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(partial.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(partial);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.ReceiptFile;
+import com.m4nas.dto.ReceiptVariant;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Content-addressed storage for payment receipts.
+ *
+ * A receipt is stored once per distinct content, under its SHA-256 in
+ * sharded directories (ab/cd/abcd...), and named HASH.ext on the payment.
+ * Payments uploading the same bytes share the file; it is deleted when the
+ * last of them releases it. Image receipts also get a thumbnail and a
+ * web-size copy (ab/cd/abcd....thumb.jpg, ....web.jpg), built in the
+ * background after upload. Receipts uploaded before this scheme keep their
+ * flat UUID names until {@link #migrateLegacyReceipts()} moves them.
+ */
+public interface ReceiptService {
+
+    /**
+     * Looks up an uploaded payment receipt.
+     *
+     * @param fileName stored receipt name as kept on the payment
+     * @return the receipt, or null if the name is invalid, belongs to no payment or the file is gone
+     */
+    ReceiptFile getReceipt(String fileName);
+
+    /**
+     * Looks up a receipt in the given size. A smaller copy that does not exist
+     * yet is queued, and never stands in for the original.
+     *
+     * @return the receipt, or null as for {@link #getReceipt(String)} or if a smaller copy
+     *         is requested that is not available: not an image, a legacy file, not built
+     *         yet, or the image could not be decoded
+     */
+    ReceiptFile getReceipt(String fileName, ReceiptVariant variant);
+
+    /**
+     * Stores an upload and takes a reference on it in the caller's transaction.
+     * If that transaction rolls back, the reference is dropped with it; once it
+     * commits, smaller copies of an image are queued.
+     *
+     * @return name to keep on the payment
+     */
+    String storeReceipt(MultipartFile file);
+
+    /**
+     * Drops a payment's reference in the caller's transaction; the file is
+     * deleted after commit if no other payment uses it.
+     */
+    void releaseReceipt(String fileName);
+
+    /**
+     * Moves receipts still stored under flat UUID names into content-addressed
+     * storage and renames them on their payments. Safe to run repeatedly.
+     *
+     * @return number of payments migrated
+     */
+    int migrateLegacyReceipts();
+}
@@ -0,0 +1,460 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.ReceiptFile;
+import com.m4nas.dto.ReceiptVariant;
+import com.m4nas.repository.PaymentRepository;
+import com.m4nas.repository.ReceiptBlobRepository;
+import com.m4nas.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class ReceiptServiceImpl implements ReceiptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptServiceImpl.class);
+
+    /** Content-addressed name: hex SHA-256 plus the uploaded extension. */
+    private static final Pattern STORED_NAME = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+
+    /** Flat UUID + extension names from before content addressing; anything else never reaches the file system. */
+    private static final Pattern LEGACY_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*(\\.[A-Za-z0-9]{1,10})?");
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.[a-z0-9]{1,10}");
+
+    /** Uploads are staged here, on the same file system, so they can be renamed into place. */
+    private static final String STAGING_DIR = "tmp";
+
+    private static final int MIGRATION_BATCH_SIZE = 500;
+
+    private final PaymentRepository paymentRepository;
+    private final ReceiptBlobRepository blobRepository;
+    private final ReceiptImageService imageService;
+    private final TransactionTemplate requiresNew;
+    private final Path receiptDir;
+    private final long sweepIntervalMs;
+    private final Map<String, String> legacyETags;
+
+    /**
+     * Serialises placing and deleting the file of one hash within this instance.
+     * Locks rather than monitors, as the sections do I/O and would otherwise pin
+     * virtual threads to their carrier.
+     */
+    private final ReentrantLock[] locks = new ReentrantLock[64];
+
+    public ReceiptServiceImpl(PaymentRepository paymentRepository,
+                              ReceiptBlobRepository blobRepository,
+                              ReceiptImageService imageService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.receipts.dir:uploads/receipts}") String receiptDir,
+                              @Value("${app.receipts.etag-cache-size:10000}") int maxSize,
+                              @Value("${app.receipts.sweep-interval-ms:3600000}") long sweepIntervalMs) {
+        this.paymentRepository = paymentRepository;
+        this.blobRepository = blobRepository;
+        this.imageService = imageService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.receiptDir = Paths.get(receiptDir).toAbsolutePath().normalize();
+        this.sweepIntervalMs = sweepIntervalMs;
+        this.legacyETags = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        });
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public ReceiptFile getReceipt(String fileName) {
+        return getReceipt(fileName, ReceiptVariant.ORIGINAL);
+    }
+
+    @Override
+    public ReceiptFile getReceipt(String fileName, ReceiptVariant variant) {
+        if (fileName == null) {
+            return null;
+        }
+        Matcher stored = STORED_NAME.matcher(fileName);
+        Path path;
+        String eTag = null;
+        if (stored.matches()) {
+            path = blobPath(stored.group(1));
+            eTag = "\"" + stored.group(1) + "\"";
+        } else if (LEGACY_NAME.matcher(fileName).matches()) {
+            path = receiptDir.resolve(fileName).normalize();
+            if (!path.getParent().equals(receiptDir)) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+
+        List<String> owners = paymentRepository.findUserEmailsByReceiptFileName(fileName);
+        if (owners.isEmpty()) {
+            return null;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+
+        if (eTag == null) {
+            // Legacy files are hashed once per version; a replaced file changes size or mtime
+            String key = fileName + "/" + length + "/" + lastModified;
+            eTag = legacyETags.get(key);
+            if (eTag == null) {
+                eTag = "\"" + hash(path) + "\"";
+                legacyETags.put(key, eTag);
+            }
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (variant != ReceiptVariant.ORIGINAL) {
+            if (!"image".equals(mediaType.getType())) {
+                return null;
+            }
+            if (!stored.matches()) {
+                // Legacy files have no smaller copies
+                return null;
+            }
+            ReceiptFile copy = getVariant(stored.group(1), variant, owners);
+            if (copy == null) {
+                // Not built yet, or the image could not be decoded; the page shows its placeholder
+                scheduleVariants(stored.group(1));
+            }
+            return copy;
+        }
+        return new ReceiptFile(path, fileName, owners, mediaType.toString(), length, lastModified, eTag,
+                ReceiptVariant.ORIGINAL);
+    }
+
+    @Override
+    @Transactional
+    public String storeReceipt(MultipartFile file) {
+        Path staged = null;
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest sha256 = sha256();
+            staged = stage(in, sha256);
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            String extension = extensionOf(file.getOriginalFilename());
+            reference(hash, staged);
+            if (isImage(extension)) {
+                TransactionCallbacks.afterCommit(() -> scheduleVariants(hash));
+            }
+            return hash + extension;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to upload receipt file", e);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void releaseReceipt(String fileName) {
+        if (fileName == null) {
+            return;
+        }
+        Matcher stored = STORED_NAME.matcher(fileName);
+        if (stored.matches()) {
+            String hash = stored.group(1);
+            blobRepository.decrement(hash, LocalDateTime.now());
+            TransactionCallbacks.afterCommit(() -> collect(hash));
+        } else if (LEGACY_NAME.matcher(fileName).matches()) {
+            // Legacy names were unique per payment
+            Path legacy = receiptDir.resolve(fileName);
+            TransactionCallbacks.afterCommit(() -> deleteQuietly(legacy));
+        }
+    }
+
+    @Override
+    public int migrateLegacyReceipts() {
+        int migrated = 0;
+        long after = 0;
+        List<Object[]> rows;
+        do {
+            rows = paymentRepository.findReceiptsAfter(after, PageRequest.of(0, MIGRATION_BATCH_SIZE));
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                String fileName = (String) row[1];
+                after = id;
+                if (STORED_NAME.matcher(fileName).matches() || !LEGACY_NAME.matcher(fileName).matches()) {
+                    continue;
+                }
+                Path legacy = receiptDir.resolve(fileName);
+                if (!Files.isRegularFile(legacy)) {
+                    logger.warn("Receipt {} of payment {} is missing, not migrated", fileName, id);
+                    continue;
+                }
+                Boolean done = requiresNew.execute(status -> migrate(id, fileName, legacy, status));
+                if (Boolean.TRUE.equals(done)) {
+                    migrated++;
+                }
+            }
+        } while (rows.size() == MIGRATION_BATCH_SIZE);
+        logger.info("Migrated {} receipts to content-addressed storage", migrated);
+        return migrated;
+    }
+
+    /**
+     * Deletes files no payment references any more: ones whose after-commit
+     * cleanup did not run, and staged uploads left by a crash.
+     */
+    @Scheduled(fixedDelayString = "${app.receipts.sweep-interval-ms:3600000}",
+               initialDelayString = "${app.receipts.sweep-interval-ms:3600000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(sweepIntervalMs, ChronoUnit.MILLIS);
+        List<String> unreferenced = blobRepository.findUnreferencedBefore(cutoff, PageRequest.of(0, MIGRATION_BATCH_SIZE));
+        for (String hash : unreferenced) {
+            collect(hash);
+        }
+
+        Path staging = receiptDir.resolve(STAGING_DIR);
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        Instant stale = Instant.now().minusMillis(sweepIntervalMs);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(staging)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(stale)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean receipt staging directory", e);
+        }
+    }
+
+    private boolean migrate(Long paymentId, String fileName, Path legacy, TransactionStatus status) {
+        Path staged = null;
+        try (InputStream in = Files.newInputStream(legacy)) {
+            MessageDigest sha256 = sha256();
+            staged = stage(in, sha256);
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            String extension = extensionOf(fileName);
+            reference(hash, staged);
+            if (paymentRepository.renameReceipt(paymentId, fileName, hash + extension) == 0) {
+                // The payment changed underneath us; drop the reference again
+                status.setRollbackOnly();
+                return false;
+            }
+            TransactionCallbacks.afterCommit(() -> deleteQuietly(legacy));
+            if (isImage(extension)) {
+                TransactionCallbacks.afterCommit(() -> scheduleVariants(hash));
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to migrate receipt " + fileName, e);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    /** Copies the content to a staging file while feeding it through the digest. */
+    private Path stage(InputStream in, MessageDigest digest) throws IOException {
+        Path staging = Files.createDirectories(receiptDir.resolve(STAGING_DIR));
+        Path staged = Files.createTempFile(staging, "upload-", ".part");
+        try (InputStream digesting = new DigestInputStream(in, digest)) {
+            Files.copy(digesting, staged, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(staged);
+            throw e;
+        }
+        return staged;
+    }
+
+    /**
+     * Counts one more reference to the content in the current transaction and
+     * moves the staged copy into place unless the content is already stored.
+     */
+    private void reference(String hash, Path staged) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long size = Files.size(staged);
+            blobRepository.insertIfAbsent(hash, size, now);
+            blobRepository.increment(hash, now);
+            Path target = blobPath(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            // A rolled-back upload may have placed a file nothing references
+            TransactionCallbacks.afterRollback(() -> discard(hash, size));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cleans up after a rolled-back upload. The rollback took this upload's
+     * row with it, so an unreferenced row is put back and collected: the
+     * insert waits for a concurrent upload of the same content, and the
+     * file only goes if this call then deleted the row.
+     */
+    private void discard(String hash, long size) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            requiresNew.executeWithoutResult(status -> blobRepository.insertIfAbsent(hash, size, LocalDateTime.now()));
+        } finally {
+            lock.unlock();
+        }
+        collect(hash);
+    }
+
+    /** Deletes the row and file of content nothing references any more. */
+    private void collect(String hash) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Boolean unreferenced = requiresNew.execute(status ->
+                    blobRepository.deleteIfUnreferenced(hash) > 0);
+            if (Boolean.TRUE.equals(unreferenced)) {
+                deleteQuietly(blobPath(hash));
+                deleteQuietly(failedMarkerPath(hash));
+                for (ReceiptVariant variant : ReceiptVariant.values()) {
+                    if (variant != ReceiptVariant.ORIGINAL) {
+                        deleteQuietly(variantPath(hash, variant));
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReceiptFile getVariant(String hash, ReceiptVariant variant, List<String> owners) {
+        Path path = variantPath(hash, variant);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new ReceiptFile(path, hash + variant.getSuffix(), owners, MediaType.IMAGE_JPEG_VALUE, attributes.size(),
+                    attributes.lastModifiedTime().toMillis() / 1000 * 1000,
+                    "\"" + hash + "-" + variant.name().toLowerCase(Locale.ROOT) + "\"", variant);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Queues every smaller copy of the content; existing ones are rebuilt, which is harmless. */
+    private void scheduleVariants(String hash) {
+        Map<ReceiptVariant, Path> targets = new EnumMap<>(ReceiptVariant.class);
+        for (ReceiptVariant variant : ReceiptVariant.values()) {
+            if (variant != ReceiptVariant.ORIGINAL) {
+                targets.put(variant, variantPath(hash, variant));
+            }
+        }
+        imageService.schedule(blobPath(hash), targets, failedMarkerPath(hash));
+    }
+
+    private static boolean isImage(String extension) {
+        return MediaTypeFactory.getMediaType("receipt" + extension)
+                .map(type -> "image".equals(type.getType()))
+                .orElse(false);
+    }
+
+    private Path variantPath(String hash, ReceiptVariant variant) {
+        return blobPath(hash).resolveSibling(hash + variant.getSuffix());
+    }
+
+    /** Left by the image service when the content is not an image it can decode. */
+    private Path failedMarkerPath(String hash) {
+        return blobPath(hash).resolveSibling(hash + ".failed");
+    }
+
+    /** Two levels of 256 directories keep each one small with millions of receipts. */
+    private Path blobPath(String hash) {
+        return receiptDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null || fileName.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    private static String hash(Path path) {
+        MessageDigest sha256 = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), sha256)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read receipt " + path.getFileName(), e);
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}", path, e);
+        }
+    }
+}
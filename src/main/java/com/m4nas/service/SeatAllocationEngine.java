@@ -0,0 +1,101 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.SeatMatrix;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merit-ordered deferred acceptance over branch1/branch2 preferences.
+ *
+ * Every branch ranks applicants by the same merit order (percentage12 DESC,
+ * submissionDate, id), so the student-proposing deferred acceptance outcome is
+ * reached by letting applicants pick in merit order: each one takes their first
+ * preference if a seat is left, otherwise their second. The result is stable and
+ * fully deterministic, and runs in O(n log n) for the sort plus O(n) to assign.
+ *
+ * Only unallocated applicants take part. A later re-offer round does not move
+ * someone who holds a second-preference seat into a first-preference seat that
+ * has since been declined; that seat goes to the best unallocated applicant
+ * instead. Moving a holder would change an offer the student may be accepting
+ * or paying for at that moment, so such upgrades are left to staff on the seat
+ * management page.
+ *
+ * Plain class without Spring or JPA dependencies so it can be benchmarked directly.
+ */
+public class SeatAllocationEngine {
+
+    /** Same ordering as the merit list pages; id breaks every remaining tie. */
+    public static final Comparator<Candidate> MERIT_ORDER = Comparator
+            .comparing((Candidate c) -> c.percentage12, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(c -> c.submissionDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(c -> c.id);
+
+    /**
+     * Runs one allocation round.
+     *
+     * @param candidates unallocated applicants (APPROVED); not modified
+     * @param seats seats still free per course/branch; not modified
+     * @return the seat offers, in merit order
+     */
+    public List<Allocation> allocate(List<Candidate> candidates, SeatMatrix seats) {
+        SeatMatrix remaining = seats.copy();
+        List<Candidate> ordered = new ArrayList<>(candidates);
+        ordered.sort(MERIT_ORDER);
+
+        List<Allocation> allocations = new ArrayList<>();
+        for (Candidate candidate : ordered) {
+            if (candidate.branch1 != null && remaining.take(candidate.course, candidate.branch1)) {
+                allocations.add(new Allocation(candidate.id, candidate.course, candidate.branch1, 1));
+            } else if (candidate.branch2 != null && !candidate.branch2.equals(candidate.branch1)
+                    && remaining.take(candidate.course, candidate.branch2)) {
+                allocations.add(new Allocation(candidate.id, candidate.course, candidate.branch2, 2));
+            }
+        }
+        return allocations;
+    }
+
+    public static class Candidate {
+        final String id;
+        final String course;
+        final String branch1;
+        final String branch2;
+        final Double percentage12;
+        final LocalDate submissionDate;
+
+        public Candidate(String id, String course, String branch1, String branch2,
+                         Double percentage12, LocalDate submissionDate) {
+            this.id = id;
+            this.course = course;
+            this.branch1 = branch1;
+            this.branch2 = branch2;
+            this.percentage12 = percentage12;
+            this.submissionDate = submissionDate;
+        }
+
+        public String getId() { return id; }
+    }
+
+    public static class Allocation {
+        private final String applicationId;
+        private final String course;
+        private final String branch;
+        private final int preference;
+
+        public Allocation(String applicationId, String course, String branch, int preference) {
+            this.applicationId = applicationId;
+            this.course = course;
+            this.branch = branch;
+            this.preference = preference;
+        }
+
+        public String getApplicationId() { return applicationId; }
+        public String getCourse() { return course; }
+        public String getBranch() { return branch; }
+
+        /** 1 if the applicant got their first preference, 2 for the second. */
+        public int getPreference() { return preference; }
+    }
+}
@@ -0,0 +1,18 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.AllocationResult;
+import com.m4nas.dto.SeatMatrix;
+
+public interface SeatAllocationService {
+
+    /**
+     * Offers seats to all APPROVED applications in merit order.
+     *
+     * Seats already ALLOCATED or ACCEPTED are deducted from the matrix first, so
+     * running another round after students decline re-offers only the freed seats.
+     *
+     * @param seats total seats per course/branch
+     * @return summary of the round
+     */
+    AllocationResult runAllocationRound(SeatMatrix seats);
+}
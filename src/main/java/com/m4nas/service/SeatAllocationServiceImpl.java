@@ -0,0 +1,84 @@
+package com.m4nas.service;
+
+import com.m4nas.dto.AllocationResult;
+import com.m4nas.dto.SeatMatrix;
+import com.m4nas.repository.QueryChunks;
+import com.m4nas.repository.UserApplicationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class SeatAllocationServiceImpl implements SeatAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatAllocationServiceImpl.class);
+
+    @Autowired
+    private UserApplicationRepository userApplicationRepo;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    private final SeatAllocationEngine engine = new SeatAllocationEngine();
+
+    @Override
+    @Transactional
+    public AllocationResult runAllocationRound(SeatMatrix seats) {
+        long start = System.currentTimeMillis();
+
+        SeatMatrix free = freeSeats(seats);
+
+        List<SeatAllocationEngine.Candidate> candidates = new ArrayList<>();
+        for (Object[] row : userApplicationRepo.findAllocationCandidates()) {
+            candidates.add(new SeatAllocationEngine.Candidate((String) row[0], (String) row[1], (String) row[2],
+                    (String) row[3], (Double) row[4], (LocalDate) row[5]));
+        }
+
+        List<SeatAllocationEngine.Allocation> allocations = engine.allocate(candidates, free);
+
+        // Group ids per preference and branch (sorted for a stable statement order) and write back in
+        // chunks; the counts come from the rows actually updated
+        Map<Integer, Map<String, List<String>>> idsByPreference = new TreeMap<>();
+        for (SeatAllocationEngine.Allocation allocation : allocations) {
+            idsByPreference.computeIfAbsent(allocation.getPreference(), p -> new TreeMap<>())
+                    .computeIfAbsent(allocation.getBranch(), b -> new ArrayList<>()).add(allocation.getApplicationId());
+        }
+        int updated = 0;
+        int firstPreference = 0;
+        for (Map.Entry<Integer, Map<String, List<String>>> preference : idsByPreference.entrySet()) {
+            for (Map.Entry<String, List<String>> entry : preference.getValue().entrySet()) {
+                for (List<String> chunk : QueryChunks.of(entry.getValue())) {
+                    int rows = userApplicationRepo.allocateBranch(entry.getKey(), chunk);
+                    updated += rows;
+                    if (preference.getKey() == 1) {
+                        firstPreference += rows;
+                    }
+                }
+            }
+        }
+        dashboardCounters.reconcileAfterCommit();
+        // The status guard may have skipped offers, so count what is actually held now
+        SeatMatrix remaining = freeSeats(seats);
+
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Seat allocation round: {} candidates, {} allocated ({} skipped as changed), {} ms",
+                candidates.size(), updated, allocations.size() - updated, elapsed);
+        return new AllocationResult(candidates.size(), updated, firstPreference, remaining.asMap(), elapsed);
+    }
+
+    private SeatMatrix freeSeats(SeatMatrix seats) {
+        SeatMatrix free = seats.copy();
+        for (Object[] row : userApplicationRepo.countHeldSeats()) {
+            free.reserve((String) row[0], (String) row[1], (Long) row[2]);
+        }
+        return free;
+    }
+}
@@ -0,0 +1,29 @@
+package com.m4nas.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Resolves student display names for list pages (applications, seat management,
+ * payments) without issuing one query per row.
+ */
+public interface StudentNameService {
+
+    /**
+     * Resolves names for the given emails using the cache and a single
+     * set-based query for any emails not cached yet.
+     *
+     * @param emails the student emails shown on a page (nulls are ignored)
+     * @return map of email to full name for every email that belongs to a user
+     */
+    Map<String, String> getStudentNames(Collection<String> emails);
+
+    /**
+     * Drops the cached name for an email. Must be called after a user's name
+     * change or deletion is committed; lookups already in flight then do not
+     * cache the name they read.
+     *
+     * @param email the email whose cached name is stale
+     */
+    void evict(String email);
+}
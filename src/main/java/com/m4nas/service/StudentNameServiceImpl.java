@@ -0,0 +1,87 @@
+package com.m4nas.service;
+
+import com.m4nas.repository.QueryChunks;
+import com.m4nas.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class StudentNameServiceImpl implements StudentNameService {
+
+    private final UserRepository userRepo;
+    private final Map<String, String> nameCache;
+    // Bumped by every evict; a lookup that started before an evict must not cache what it read
+    private long generation;
+
+    public StudentNameServiceImpl(UserRepository userRepo,
+                                  @Value("${app.cache.student-names.max-size:10000}") int maxSize) {
+        this.userRepo = userRepo;
+        this.nameCache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    @Override
+    public Map<String, String> getStudentNames(Collection<String> emails) {
+        Map<String, String> names = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String email : emails) {
+            if (email == null || names.containsKey(email)) {
+                continue;
+            }
+            String cached = nameCache.get(email);
+            if (cached != null) {
+                names.put(email, cached);
+            } else {
+                missing.add(email);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long startGeneration;
+            synchronized (nameCache) {
+                startGeneration = generation;
+            }
+            Map<String, String> loaded = new HashMap<>();
+            for (List<String> chunk : QueryChunks.of(missing)) {
+                for (Object[] row : userRepo.findNamesByEmailIn(chunk)) {
+                    String email = (String) row[0];
+                    String fullName = (String) row[1];
+                    if (fullName != null) {
+                        loaded.put(email, fullName);
+                    }
+                }
+            }
+            names.putAll(loaded);
+            synchronized (nameCache) {
+                if (generation == startGeneration) {
+                    nameCache.putAll(loaded);
+                }
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public void evict(String email) {
+        if (email != null) {
+            synchronized (nameCache) {
+                generation++;
+                nameCache.remove(email);
+            }
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.m4nas.service;
 
+import com.m4nas.dto.ApplicationChange;
+import com.m4nas.dto.ApplicationPage;
+import com.m4nas.dto.BulkUpdateResult;
 import com.m4nas.model.UserApplication;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface UserApplicationService {
 
@@ -13,6 +18,13 @@ public interface UserApplicationService {
     UserApplication declineSeat(String applicationId);
     boolean hasUserSubmittedApplication(String email);
 
+    /**
+     * The status and allocated branch of the user's application, joined into
+     * one string (null when there is none), for validating cached pages that
+     * show the application timeline without loading the application.
+     */
+    String getApplicationTimelineState(String email);
+
     // ==== TEACHER OPERATIONS ====
     List<UserApplication> getApplicationsPendingApproval();
     List<UserApplication> getApprovedApplicationsForSeatAllocation();
@@ -25,6 +37,9 @@ public interface UserApplicationService {
     List<UserApplication> getAllApplicationsForAdmin();
     List<Object[]> getApplicationStatusCounts();
     List<Object[]> getBranchWiseStatistics();
+    long countApplicationsByStatus(String status);
+    long countAllocatedApplicationsPendingResponse();
+    List<UserApplication> getRecentApplications(int limit);
     
     List<UserApplication> getAllApplications();
     
@@ -33,7 +48,17 @@ public interface UserApplicationService {
     UserApplication updateApplicationCourse(String applicationId, String course);
     
     UserApplication updateApplicationBranch(String applicationId, String allocatedBranch);
+
+    /**
+     * Applies seat-management grid edits in one transaction. Targets are loaded in
+     * batched queries and flushed as JDBC batches; rows that cannot be applied are
+     * reported in the result instead of aborting the rest.
+     */
+    BulkUpdateResult<ApplicationChange> applyBulkChanges(List<ApplicationChange> changes);
     List<UserApplication> getApplicationsByStatus(String status);
+    ApplicationPage getMeritPage(String status, String course, String branch, String cursor, int size);
+    List<UserApplication> searchApplications(String query, int limit);
+    void refreshSearchIndex(String userEmail, String fullName);
 
     // ==== ADMIN CRUD OPERATIONS ====
     void deleteApplication(Long applicationId);
@@ -43,5 +68,6 @@ public interface UserApplicationService {
     // ==== UTILITY METHODS ====
     void calculatePercentages(UserApplication application);
     UserApplication getApplicationById(String applicationId);
+    Map<String, String> getPhoneNumbersByEmails(Collection<String> emails);
 
 }
@@ -1,30 +1,60 @@
 package com.m4nas.service;
 
+import com.m4nas.dto.ApplicationChange;
+import com.m4nas.dto.ApplicationCursor;
+import com.m4nas.dto.ApplicationPage;
+import com.m4nas.dto.ApplicationSnapshot;
+import com.m4nas.dto.BulkUpdateResult;
 import com.m4nas.model.UserApplication;
+import com.m4nas.repository.QueryChunks;
 import com.m4nas.repository.UserApplicationRepository;
 import com.m4nas.util.RandomString;
 import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed(value = "app.service", description = "Service method calls by class, method and exception")
 @Transactional
 public class UserApplicationServiceImpl implements UserApplicationService{
 
+    /** Upper bound for a single merit-list page. */
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /** Upper bound for one search-as-you-type response. */
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     @Autowired
     private UserApplicationRepository userApplicationRepo;
 
     @Autowired
-    private com.m4nas.repository.UserRepository userRepository;
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private ApplicantSearchIndex applicantSearchIndex;
 
     @Override
     public UserApplication savePersonalInfo(UserApplication application) {
+        ApplicationSnapshot before = null;
         if(application.getId() == null){
             application.setId(RandomString.generateUserId());
             application.setStatus("PENDING");
+        } else {
+            before = ApplicationSnapshot.of(userApplicationRepo.findById(application.getId()).orElse(null));
         }
-        return userApplicationRepo.save(application);
+        return saveTracked(before, application);
     }
 
     @Override
@@ -32,7 +62,7 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         if(application.getId() == null || application.getId().isEmpty()){
             String userEmail = application.getUserEmail();
             if(userEmail != null) {
-                com.m4nas.model.UserDtls user = userRepository.findByEmail(userEmail);
+                com.m4nas.model.UserDtls user = currentUserService.getUser(userEmail);
                 if(user != null) {
                     application.setId(user.getId());
                 } else {
@@ -41,19 +71,20 @@ public class UserApplicationServiceImpl implements UserApplicationService{
             }
         }
 
+        ApplicationSnapshot before = application.getId() != null
+                ? ApplicationSnapshot.of(userApplicationRepo.findById(application.getId()).orElse(null)) : null;
+
         calculatePercentages(application);
         application.setStatus("SUBMITTED");
-        return userApplicationRepo.save(application);
+        return saveTracked(before, application);
     }
 
     @Override
     public UserApplication getUserApplicationByEmail(String email) {
         UserApplication app = userApplicationRepo.findByUserEmail(email);
         if(app == null) {
-            app = userApplicationRepo.findByUserEmailWithAllFields(email);
-        }
-        if(app == null) {
-            com.m4nas.model.UserDtls user = userRepository.findByEmail(email);
+            // Applications saved without userEmail are keyed by the account id
+            com.m4nas.model.UserDtls user = currentUserService.getUser(email);
             if(user != null) {
                 app = userApplicationRepo.findById(user.getId()).orElse(null);
             }
@@ -65,9 +96,10 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     public UserApplication acceptSeat(String applicationId) {
         UserApplication app = userApplicationRepo.findById(applicationId).orElse(null);
         if (app != null && "ALLOCATED".equals(app.getStatus())){
+            ApplicationSnapshot before = ApplicationSnapshot.of(app);
             app.setSeatAccepted(true);
             app.setStatus("ACCEPTED");
-            return userApplicationRepo.save(app);
+            return saveTracked(before, app);
         }
         return null;
     }
@@ -76,9 +108,10 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     public UserApplication declineSeat(String applicationId) {
         UserApplication app = userApplicationRepo.findById(applicationId).orElse(null);
         if (app != null && "ALLOCATED".equals(app.getStatus())){
+            ApplicationSnapshot before = ApplicationSnapshot.of(app);
             app.setSeatAccepted(false);
             app.setStatus("DECLINED");
-            return userApplicationRepo.save(app);
+            return saveTracked(before, app);
         }
         return null;
     }
@@ -87,7 +120,7 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     public boolean hasUserSubmittedApplication(String email) {
         boolean existsByEmail = userApplicationRepo.existsByUserEmail(email);
         if(!existsByEmail) {
-            com.m4nas.model.UserDtls user = userRepository.findByEmail(email);
+            com.m4nas.model.UserDtls user = currentUserService.getUser(email);
             if(user != null) {
                 return userApplicationRepo.existsById(user.getId());
             }
@@ -114,8 +147,9 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     public UserApplication approveApplication(String applicationId) {
         UserApplication app = userApplicationRepo.findById(applicationId).orElse(null);
         if (app != null && "SUBMITTED".equals(app.getStatus())){
+            ApplicationSnapshot before = ApplicationSnapshot.of(app);
             app.setStatus("APPROVED");
-            return userApplicationRepo.save(app);
+            return saveTracked(before, app);
         }
         return null;
     }
@@ -124,8 +158,9 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     public UserApplication rejectApplication(String applicationId) {
         UserApplication app = userApplicationRepo.findById(applicationId).orElse(null);
         if (app != null && "SUBMITTED".equals(app.getStatus())){
+            ApplicationSnapshot before = ApplicationSnapshot.of(app);
             app.setStatus("REJECTED");
-            return userApplicationRepo.save(app);
+            return saveTracked(before, app);
         }
         return null;
     }
@@ -134,9 +169,10 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     public UserApplication allocateSeat(String applicationId, String branch) {
         UserApplication app = userApplicationRepo.findById(applicationId).orElse(null);
         if (app != null && "APPROVED".equals(app.getStatus())){
+            ApplicationSnapshot before = ApplicationSnapshot.of(app);
             app.setAllocatedBranch(branch);
             app.setStatus("ALLOCATED");
-            return userApplicationRepo.save(app);
+            return saveTracked(before, app);
         }
         return null;
     }
@@ -153,7 +189,7 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     @Override
     public List<Object[]> getApplicationStatusCounts() {
         try {
-            return userApplicationRepo.getApplicationStatusCounts();
+            return dashboardCounters.getStatusCounts();
         } catch (Exception e) {
             return new java.util.ArrayList<>();
         }
@@ -162,12 +198,36 @@ public class UserApplicationServiceImpl implements UserApplicationService{
     @Override
     public List<Object[]> getBranchWiseStatistics() {
         try {
-            return userApplicationRepo.getBranchWiseStatistics();
+            return dashboardCounters.getBranchStatistics();
         } catch (Exception e) {
             return new java.util.ArrayList<>();
         }
     }
 
+    @Override
+    public String getApplicationTimelineState(String email) {
+        List<Object[]> rows = userApplicationRepo.findTimelineStateByUserEmail(email);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        return rows.get(0)[0] + "/" + rows.get(0)[1];
+    }
+
+    @Override
+    public long countApplicationsByStatus(String status) {
+        return dashboardCounters.countByStatus(status);
+    }
+
+    @Override
+    public long countAllocatedApplicationsPendingResponse() {
+        return dashboardCounters.countAllocatedPendingResponse();
+    }
+
+    @Override
+    public List<UserApplication> getRecentApplications(int limit) {
+        return userApplicationRepo.findRecentApplications(PageRequest.of(0, limit));
+    }
+
     @Override
     public List<UserApplication> getApplicationsByStatus(String status) {
         try {
@@ -177,6 +237,51 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         }
     }
 
+    @Override
+    public ApplicationPage getMeritPage(String status, String course, String branch, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ApplicationCursor after = ApplicationCursor.decode(cursor);
+
+        // Fetch one extra row to find out whether another page follows
+        List<UserApplication> rows = userApplicationRepo.findMeritPage(status, course, branch, after, pageSize + 1);
+        int rankOffset = after != null ? after.getRank() : 0;
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            UserApplication last = rows.get(pageSize - 1);
+            nextCursor = new ApplicationCursor(last.getPercentage12(), last.getSubmissionDate(), last.getId(),
+                    rankOffset + pageSize).encode();
+        }
+        return new ApplicationPage(rows, rankOffset, nextCursor);
+    }
+
+    @Override
+    public List<UserApplication> searchApplications(String query, int limit) {
+        List<String> ids = applicantSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Load the current rows so status and allocation are never stale; keep index rank order
+        Map<String, UserApplication> byId = new HashMap<>();
+        for (UserApplication app : userApplicationRepo.findAllById(ids)) {
+            byId.put(app.getId(), app);
+        }
+        List<UserApplication> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            UserApplication app = byId.get(id);
+            if (app != null) {
+                results.add(app);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void refreshSearchIndex(String userEmail, String fullName) {
+        applicantSearchIndex.indexAfterCommit(userApplicationRepo.findByUserEmail(userEmail), fullName);
+    }
+
     @Override
     public List<UserApplication> getAllApplications() {
         return userApplicationRepo.findAllByOrderBySubmissionDateDesc();
@@ -187,8 +292,9 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         try {
             UserApplication application = userApplicationRepo.findById(applicationId).orElse(null);
             if (application != null) {
+                ApplicationSnapshot before = ApplicationSnapshot.of(application);
                 application.setStatus(status);
-                return userApplicationRepo.save(application);
+                return saveTracked(before, application);
             }
             return null;
         } catch (Exception e) {
@@ -201,8 +307,9 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         try {
             UserApplication application = userApplicationRepo.findById(applicationId).orElse(null);
             if (application != null) {
+                ApplicationSnapshot before = ApplicationSnapshot.of(application);
                 application.setCourse(course);
-                return userApplicationRepo.save(application);
+                return saveTracked(before, application);
             }
             return null;
         } catch (Exception e) {
@@ -215,11 +322,12 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         try {
             UserApplication application = userApplicationRepo.findById(applicationId).orElse(null);
             if (application != null) {
+                ApplicationSnapshot before = ApplicationSnapshot.of(application);
                 application.setAllocatedBranch(allocatedBranch);
                 if (allocatedBranch != null && !allocatedBranch.isEmpty()) {
                     application.setStatus("ALLOCATED");
                 }
-                return userApplicationRepo.save(application);
+                return saveTracked(before, application);
             }
             return null;
         } catch (Exception e) {
@@ -227,11 +335,85 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         }
     }
 
+    @Override
+    public BulkUpdateResult<ApplicationChange> applyBulkChanges(List<ApplicationChange> changes) {
+        BulkUpdateResult<ApplicationChange> result = new BulkUpdateResult<>(changes);
+
+        // Group change indexes by application, keeping submission order within each row
+        Map<String, List<Integer>> changesByApp = new LinkedHashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            String id = changes.get(i).getApplicationId();
+            if (id == null) {
+                result.failure(i, "Missing application id");
+            } else {
+                changesByApp.computeIfAbsent(id, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<String, UserApplication> targets = new HashMap<>();
+        for (List<String> chunk : QueryChunks.of(changesByApp.keySet())) {
+            for (UserApplication app : userApplicationRepo.findAllById(chunk)) {
+                targets.put(app.getId(), app);
+            }
+        }
+
+        // Managed entities are flushed on commit; hibernate.jdbc.batch_size groups the UPDATEs
+        for (Map.Entry<String, List<Integer>> entry : changesByApp.entrySet()) {
+            UserApplication app = targets.get(entry.getKey());
+            if (app == null) {
+                entry.getValue().forEach(index -> result.failure(index, "Application not found"));
+                continue;
+            }
+            ApplicationSnapshot before = ApplicationSnapshot.of(app);
+            for (int index : entry.getValue()) {
+                String error = applyChange(app, changes.get(index));
+                if (error == null) {
+                    result.success(index);
+                } else {
+                    result.failure(index, error);
+                }
+            }
+            dashboardCounters.recordChange(before, ApplicationSnapshot.of(app));
+        }
+        return result;
+    }
+
+    /** Same rules as the single-field update methods; returns an error message or null. */
+    private String applyChange(UserApplication app, ApplicationChange change) {
+        String value = change.getValue();
+        if (change.getField() == null) {
+            return "Missing field";
+        }
+        switch (change.getField()) {
+            case ApplicationChange.STATUS:
+                if (value == null || value.isEmpty()) {
+                    return "Status cannot be empty";
+                }
+                app.setStatus(value);
+                return null;
+            case ApplicationChange.COURSE:
+                app.setCourse(value);
+                return null;
+            case ApplicationChange.ALLOCATED_BRANCH:
+                app.setAllocatedBranch(value);
+                if (value != null && !value.isEmpty()) {
+                    app.setStatus("ALLOCATED");
+                }
+                return null;
+            default:
+                return "Unknown field: " + change.getField();
+        }
+    }
+
     @Override
     public void deleteApplication(Long applicationId) {
         try {
-            if (userApplicationRepo.existsById(String.valueOf(applicationId))) {
-                userApplicationRepo.deleteById(String.valueOf(applicationId));
+            UserApplication application = userApplicationRepo.findById(String.valueOf(applicationId)).orElse(null);
+            if (application != null) {
+                ApplicationSnapshot before = ApplicationSnapshot.of(application);
+                userApplicationRepo.delete(application);
+                dashboardCounters.recordChange(before, null);
+                applicantSearchIndex.removeAfterCommit(application.getId());
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete application", e);
@@ -243,7 +425,10 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         try {
             UserApplication application = userApplicationRepo.findByUserEmail(userEmail);
             if (application != null) {
+                ApplicationSnapshot before = ApplicationSnapshot.of(application);
                 userApplicationRepo.delete(application);
+                dashboardCounters.recordChange(before, null);
+                applicantSearchIndex.removeAfterCommit(application.getId());
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete applications for user", e);
@@ -255,8 +440,9 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         try {
             UserApplication application = userApplicationRepo.findById(String.valueOf(applicationId)).orElse(null);
             if (application != null) {
+                ApplicationSnapshot before = ApplicationSnapshot.of(application);
                 application.setStatus(status);
-                return userApplicationRepo.save(application);
+                return saveTracked(before, application);
             }
             return null;
         } catch (Exception e) {
@@ -269,6 +455,14 @@ public class UserApplicationServiceImpl implements UserApplicationService{
         return userApplicationRepo.findById(applicationId).orElse(null);
     }
 
+    /** Saves the application and feeds the before/after difference to the dashboard counters. */
+    private UserApplication saveTracked(ApplicationSnapshot before, UserApplication application) {
+        UserApplication saved = userApplicationRepo.save(application);
+        dashboardCounters.recordChange(before, ApplicationSnapshot.of(saved));
+        applicantSearchIndex.indexAfterCommit(saved);
+        return saved;
+    }
+
     @Override
     public void calculatePercentages(UserApplication application) {
         if (application.getTotal10Marks() != null && application.getObtain10Marks() != null
@@ -285,4 +479,18 @@ public class UserApplicationServiceImpl implements UserApplicationService{
             application.setPercentage12(Math.round(percentage12 * 100.0) / 100.0);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<String, String> getPhoneNumbersByEmails(Collection<String> emails) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(emails));
+        distinct.remove(null);
+
+        Map<String, String> phones = new HashMap<>();
+        for (List<String> chunk : QueryChunks.of(distinct)) {
+            for (Object[] row : userApplicationRepo.findPhoneNumbersByUserEmailIn(chunk)) {
+                phones.putIfAbsent((String) row[0], (String) row[1]);
+            }
+        }
+        return phones;
+    }
+}
@@ -62,11 +62,12 @@ public interface UserService {
     boolean verifyAccount(String code);
 
     /**
-     * Sends account verification email to the specified user.
+     * Queues the account verification email for the specified user; it is sent
+     * once the caller's transaction commits.
      *
      * @param user the user to verify (must not be null and must have valid email)
      * @param url the base URL for verification link construction
-     * @throws MessagingException if email transport fails
+     * @throws MessagingException if the email cannot be built
      * @throws UnsupportedEncodingException if email encoding fails
      * @throws IllegalArgumentException if user or URL is invalid
      */
@@ -93,11 +94,11 @@ public interface UserService {
     UserDtls getUserByEmail(String email);
 
     /**
-     * Sends OTP for forgot password functionality.
+     * Queues the OTP email for forgot password functionality.
      *
      * @param email the user's email address
      * @param otp the generated OTP
-     * @return true if email sent successfully, false otherwise
+     * @return true if the email was queued, false otherwise
      */
     boolean sendForgotPasswordOTP(String email, int otp);
 
@@ -1,44 +1,43 @@
 package com.m4nas.service;
 
+import com.m4nas.mail.MailTemplateEngine;
 import com.m4nas.model.UserDtls;
 import com.m4nas.repository.UserRepository;
 import com.m4nas.util.RandomString;
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
+@Timed(value = "app.service", description = "Service method calls by class, method and exception")
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepo;
     private final PasswordEncoder passwordEncoder;
-    private final JavaMailSender mailSender;
-    private final ResourceLoader resourceLoader;
+    private final MailOutboxService mailOutboxService;
+    private final MailTemplateEngine mailTemplates;
+    private final CurrentUserService currentUserService;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepo,
                            PasswordEncoder passwordEncoder,
-                           JavaMailSender mailSender,
-                           ResourceLoader resourceLoader) {
+                           MailOutboxService mailOutboxService,
+                           MailTemplateEngine mailTemplates,
+                           CurrentUserService currentUserService) {
         this.userRepo = userRepo;
         this.passwordEncoder = passwordEncoder;
-        this.mailSender = mailSender;
-        this.resourceLoader = resourceLoader;
+        this.mailOutboxService = mailOutboxService;
+        this.mailTemplates = mailTemplates;
+        this.currentUserService = currentUserService;
     }
 
     @Override
@@ -72,37 +71,18 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void sendVerificationMail(UserDtls user, String url) throws MessagingException, UnsupportedEncodingException {
-        String fromAddress = "kabiranas7890@gmail.com";
         String toAddress = user.getEmail().trim().toLowerCase();
-        String senderName = "College Technical Team";
         String subject = "Account Verification";
 
         try {
-            Resource resource = resourceLoader.getResource("classpath:templates/verification-mail-template.html");
-            InputStream inputStream = resource.getInputStream();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
-            }
-            reader.close();
-
-            String content = sb.toString();
-            content = content.replace("[[name]]", user.getFullName());
             String siteUrl = url + "/verify?code=" + user.getVerificationCode();
-            content = content.replace("[[URL]]", siteUrl);
+            String content = mailTemplates.render("verification-mail-template",
+                    Map.of("name", Objects.toString(user.getFullName(), ""), "URL", siteUrl));
 
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setFrom(fromAddress, senderName);
-            helper.setTo(toAddress);
-            helper.setSubject(subject);
-            helper.setText(content, true);
-
-            mailSender.send(message);
+            // Sent after the registration commits, off the request thread
+            mailOutboxService.enqueue(toAddress, subject, content);
         } catch (Exception e) {
-            throw new MessagingException("Failed to send verification email", e);
+            throw new MessagingException("Failed to queue verification email", e);
         }
     }
 
@@ -121,6 +101,7 @@ public class UserServiceImpl implements UserService {
             existingUser.setVerificationCode("OAUTH_VERIFIED");
             existingUser.setEnable(true);
             // Don't change the role - preserve existing role
+            currentUserService.evict(email);
             return userRepo.save(existingUser);
         }
 
@@ -153,6 +134,7 @@ public class UserServiceImpl implements UserService {
             user.setEnable(true);
             user.setVerificationCode("LOCAL_OAUTH_VERIFIED");
             userRepo.save(user);
+            currentUserService.evict(user.getEmail());
             return true;
         }
         return false;
@@ -166,35 +148,13 @@ public class UserServiceImpl implements UserService {
     @Override
     public boolean sendForgotPasswordOTP(String email, int otp) {
         try {
-            String fromAddress = "kabiranas7890@gmail.com";
-            String senderName = "College Technical Team";
             String subject = "Password Reset OTP";
 
-            Resource resource = resourceLoader.getResource("classpath:templates/forget_otp_mail.html");
-            InputStream inputStream = resource.getInputStream();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
-            }
-            reader.close();
-
-            String content = sb.toString();
             UserDtls user = userRepo.findByEmail(email);
             String userName = (user != null && user.getFullName() != null) ? user.getFullName() : "User";
-            content = content.replace("[[name]]", userName);
-            content = content.replace("[[otp]]", String.valueOf(otp));
-
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setFrom(fromAddress, senderName);
-            helper.setTo(email);
-            helper.setSubject(subject);
-            helper.setText(content, true);
+            String content = mailTemplates.render("forget_otp_mail", Map.of("name", userName, "otp", otp));
 
-            mailSender.send(message);
+            mailOutboxService.enqueue(email, subject, content);
             return true;
         } catch (Exception e) {
             return false;
@@ -209,6 +169,7 @@ public class UserServiceImpl implements UserService {
             if (user != null) {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 userRepo.save(user);
+                currentUserService.evict(email);
                 return true;
             }
             return false;
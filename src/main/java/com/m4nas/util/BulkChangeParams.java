@@ -0,0 +1,44 @@
+package com.m4nas.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Groups the indexed form fields posted by the bulk edit tables, e.g.
+ * changes[0].appId, changes[0].field, changes[0].value, into one map per
+ * row. Rows come back in index order; parameters that are not of the form
+ * changes[n].name are ignored.
+ */
+public final class BulkChangeParams {
+
+    private static final String PREFIX = "changes[";
+
+    private BulkChangeParams() {
+    }
+
+    public static Collection<Map<String, String>> parse(Map<String, String[]> paramMap) {
+        Map<Integer, Map<String, String>> changesByIndex = new TreeMap<>();
+        for (Map.Entry<String, String[]> param : paramMap.entrySet()) {
+            String paramName = param.getKey();
+            if (!paramName.startsWith(PREFIX)) {
+                continue;
+            }
+            int close = paramName.indexOf(']', PREFIX.length());
+            String[] values = param.getValue();
+            if (close <= PREFIX.length() || values == null || values.length == 0) {
+                continue;
+            }
+            int index;
+            try {
+                index = Integer.parseInt(paramName, PREFIX.length(), close, 10);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            String fieldPart = paramName.substring(paramName.indexOf('.') + 1);
+            changesByIndex.computeIfAbsent(index, k -> new HashMap<>()).put(fieldPart, values[0]);
+        }
+        return changesByIndex.values();
+    }
+}
@@ -0,0 +1,139 @@
+package com.m4nas.util;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel for large numbers of short-lived timeouts.
+ *
+ * Scheduling and cancelling are O(1) and never block: new timeouts go onto a
+ * lock-free queue, and a single ticker thread moves them into their slot and
+ * fires the slot's due timeouts once per tick. A timeout fires up to one tick
+ * late, so callers that need exact expiry must also check their deadline.
+ * Tasks run on the ticker thread and must be quick.
+ */
+public final class TimingWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] slots;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+    private final long startNanos;
+
+    /** Last tick processed; only touched by the ticker thread. */
+    private long tick;
+
+    /**
+     * @param tickDuration granularity of expiry
+     * @param slotCount slots per revolution, rounded up to a power of two
+     * @param threadName name of the ticker thread
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickDuration, TimeUnit unit, int slotCount, String threadName) {
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        int size = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs the task once the delay has passed, unless cancelled first.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /** Timeouts scheduled and not yet fired or swept out after cancelling. */
+    public int size() {
+        int size = pending.size();
+        synchronized (slots) {
+            for (Queue<Timeout> slot : slots) {
+                size += slot.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    /** Catches up on every tick that has elapsed, so a stalled ticker fires late rather than never. */
+    private void advance() {
+        long now = System.nanoTime();
+        long target = (now - startNanos) / tickNanos;
+        synchronized (slots) {
+            while (tick < target) {
+                tick++;
+                transferPending();
+                fire(slots[(int) (tick & mask)], tick);
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = (timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos;
+            timeout.deadlineTick = Math.max(deadlineTick, tick);
+            slots[(int) (timeout.deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private static void fire(Queue<Timeout> slot, long tick) {
+        Iterator<Timeout> it = slot.iterator();
+        while (it.hasNext()) {
+            Timeout timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+            } else if (timeout.deadlineTick <= tick) {
+                // Later revolutions share the slot and stay until their own turn
+                it.remove();
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    // One failing task must not stop the wheel
+                }
+            }
+        }
+    }
+
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /** The slot entry is dropped the next time the ticker passes it. */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
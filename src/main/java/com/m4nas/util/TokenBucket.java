@@ -0,0 +1,53 @@
+package com.m4nas.util;
+
+/**
+ * Token bucket that allows bursts up to its capacity and refills at a steady
+ * rate. Refill is computed lazily from the elapsed time, so an idle bucket
+ * costs nothing.
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final long nanosPerToken;
+
+    /** Tokens, scaled by nanosPerToken so refill stays in integer arithmetic. */
+    private long scaledTokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, long nanosPerToken, long nowNanos) {
+        this.capacity = capacity;
+        this.nanosPerToken = nanosPerToken;
+        this.scaledTokens = capacity * nanosPerToken;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /** @return true if a token was taken */
+    public synchronized boolean tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (scaledTokens < nanosPerToken) {
+            return false;
+        }
+        scaledTokens -= nanosPerToken;
+        return true;
+    }
+
+    /** Time until the next token is available; 0 if one is available now. */
+    public synchronized long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        return Math.max(0, nanosPerToken - scaledTokens);
+    }
+
+    /** Time until the bucket is full again, after which it can be forgotten. */
+    public synchronized long nanosUntilFull(long nowNanos) {
+        refill(nowNanos);
+        return capacity * nanosPerToken - scaledTokens;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            scaledTokens = Math.min(capacity * nanosPerToken, scaledTokens + elapsed);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- Run by Spring Boot after Hibernate has created or updated the tables
+-- (spring.sql.init.*, spring.jpa.defer-datasource-initialization), so every
+-- statement here must be safe to repeat on each start.
+
+-- Merit-order keyset pagination and the merit export sort on
+-- UserApplicationRepositoryCustom.MERIT_KEY; these indexes use the same
+-- expressions, unfiltered and under the status / course+branch filters.
+CREATE INDEX IF NOT EXISTS idx_application_merit_key
+    ON user_applications ((-COALESCE(percentage12, -1)), (COALESCE(submission_date, DATE '9999-12-31')), id);
+CREATE INDEX IF NOT EXISTS idx_application_status_merit_key
+    ON user_applications (status, (-COALESCE(percentage12, -1)), (COALESCE(submission_date, DATE '9999-12-31')), id);
+CREATE INDEX IF NOT EXISTS idx_application_course_branch_merit_key
+    ON user_applications (course, branch1, (-COALESCE(percentage12, -1)), (COALESCE(submission_date, DATE '9999-12-31')), id);
+
+-- One application per student, which the CSV import's upsert relies on. Hibernate
+-- only adds the constraint when it creates the table; an existing table with
+-- duplicate emails fails here and has to be cleaned up first.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_application_user_email ON user_applications (user_email);
+-- Superseded by the unique index above
+DROP INDEX IF EXISTS idx_application_user_email;
+
+-- Earlier column indexes on percentage12 DESC (NULLS FIRST) that no merit query can use
+DROP INDEX IF EXISTS idx_application_merit;
+DROP INDEX IF EXISTS idx_application_status_merit;
+DROP INDEX IF EXISTS idx_application_course_branch_merit;
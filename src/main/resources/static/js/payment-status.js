@@ -127,9 +127,10 @@ function viewReceipt(fileName) {
     const receiptError = document.getElementById('receiptError');
     const downloadLink = document.getElementById('downloadReceipt');
     
-    const receiptUrl = '/uploads/receipts/' + fileName;
+    const receiptUrl = '/user/uploads/receipts/' + encodeURIComponent(fileName);
     
-    receiptImage.src = receiptUrl;
+    // Show the web-size copy; the original is only fetched through the download link
+    receiptImage.src = receiptUrl + '?size=web';
     receiptImage.style.display = 'block';
     receiptError.style.display = 'none';
     downloadLink.href = receiptUrl;
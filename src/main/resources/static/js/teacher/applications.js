@@ -22,4 +22,63 @@ document.addEventListener('DOMContentLoaded', function() {
             this.style.backgroundColor = '';
         });
     });
-});
\ No newline at end of file
+});
+
+// Search-as-you-type over the applicant search index
+document.addEventListener('DOMContentLoaded', function() {
+    const input = document.getElementById('applicantSearch');
+    const results = document.getElementById('applicantSearchResults');
+    if (!input || !results) {
+        return;
+    }
+
+    let timer = null;
+    let latest = 0;
+
+    input.addEventListener('input', function() {
+        clearTimeout(timer);
+        const query = this.value.trim();
+        if (query.length < 2) {
+            results.innerHTML = '';
+            return;
+        }
+        timer = setTimeout(function() {
+            const requestId = ++latest;
+            fetch('/teacher/applications/search?limit=10&q=' + encodeURIComponent(query))
+                .then(response => response.json())
+                .then(hits => {
+                    // Ignore responses that arrive after a newer query was sent
+                    if (requestId === latest) {
+                        renderResults(hits);
+                    }
+                })
+                .catch(() => { results.innerHTML = ''; });
+        }, 150);
+    });
+
+    function renderResults(hits) {
+        results.innerHTML = '';
+        if (hits.length === 0) {
+            const empty = document.createElement('div');
+            empty.className = 'list-group-item text-muted';
+            empty.textContent = 'No matching applicants';
+            results.appendChild(empty);
+            return;
+        }
+        hits.forEach(hit => {
+            const item = document.createElement('a');
+            item.className = 'list-group-item list-group-item-action d-flex justify-content-between align-items-center';
+            item.href = '/teacher/application-details/' + encodeURIComponent(hit.id);
+
+            const label = document.createElement('span');
+            label.textContent = (hit.name || hit.email) + ' \u2014 ' + hit.email + (hit.phone ? ' \u2014 ' + hit.phone : '');
+            const badge = document.createElement('span');
+            badge.className = 'badge bg-secondary';
+            badge.textContent = hit.status || '';
+
+            item.appendChild(label);
+            item.appendChild(badge);
+            results.appendChild(item);
+        });
+    }
+});
@@ -0,0 +1,567 @@
+package com.m4nas;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.m4nas.service.DashboardCounters;
+import jakarta.mail.Message;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a whole admission cycle over HTTP against the running server, the
+ * way browsers would: applicants register, follow the mailed verification
+ * link, sign in and apply; teachers approve every application and run an
+ * allocation round; seated applicants accept and pay with a receipt upload;
+ * teachers verify the payments. Forms are loaded before each post so CSRF
+ * tokens and sessions behave as in production. The database is PostgreSQL
+ * in a Testcontainers container, as in production, so the test is skipped
+ * where Docker is not available; mail goes to a local GreenMail server.
+ *
+ * mvn -P benchmark-tests test -Dtest=AdmissionCycleLoadTest -Dbench.cycle.applicants=500 -Dbench.cycle.concurrency=50 -Dbench.cycle.teachers=3
+ *
+ * Prints the wall time of each phase and, per endpoint, request count,
+ * errors, throughput and latency percentiles. The population is generated
+ * from bench.cycle.seed, so runs with the same settings are comparable.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AdmissionCycleLoadTest {
+
+    /** Matches spring.mail.* in application-test.properties. */
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("test", "test"));
+
+    private static final String PASSWORD = "cycle-pass-1";
+    private static final String[] COURSES = {"B.Tech", "B.Sc", "BCA"};
+    private static final String[] BRANCHES = {"Computer Science", "Mechanical", "Electrical", "Civil", "Electronics"};
+    /** Share of applicants the seat matrix has room for. */
+    private static final double SEAT_RATIO = 0.7;
+    private static final int TEACHER_PAGE_EVERY = 20;
+
+    private static final Pattern CSRF_FIELD = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern COOKIE = Pattern.compile("^([^=;]+)=([^;]*)");
+    private static final Pattern VERIFY_LINK = Pattern.compile("verify\\?code=([A-Za-z0-9_-]+)");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private HttpClient client;
+    private int concurrency;
+
+    @DynamicPropertySource
+    static void environment(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+        // Every client may be signing in at once; the cycle measures throughput, not load shedding
+        registry.add("app.password.hashing.queue-capacity", AdmissionCycleLoadTest::concurrency);
+    }
+
+    @AfterAll
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM payments WHERE user_email LIKE 'cycle%@bench.local'");
+        jdbcTemplate.update("DELETE FROM user_applications WHERE user_email LIKE 'cycle%@bench.local'");
+        jdbcTemplate.update("DELETE FROM mail_outbox WHERE recipient LIKE 'cycle%@bench.local'");
+        jdbcTemplate.update("DELETE FROM user_dtls WHERE email LIKE 'cycle%@bench.local'");
+        dashboardCounters.reconcile();
+    }
+
+    @Test
+    public void admissionCycle() throws Exception {
+        int applicants = Integer.getInteger("bench.cycle.applicants", 200);
+        int teachers = Math.max(1, Integer.getInteger("bench.cycle.teachers", 2));
+        concurrency = concurrency();
+        Random random = new Random(Long.getLong("bench.cycle.seed", 2025));
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        List<Applicant> population = new ArrayList<>(applicants);
+        for (int i = 0; i < applicants; i++) {
+            population.add(new Applicant(i, random));
+        }
+        List<Browser> staff = seedTeachers(teachers);
+        byte[] receipt = receiptImage();
+
+        phase("register", applicants, i -> register(population.get(i)));
+        phase("verify email", applicants, i -> verify(population.get(i)));
+        phase("sign in and apply", applicants, i -> signInAndApply(population.get(i)));
+
+        for (Browser teacher : staff) {
+            signIn(teacher, "teacher");
+        }
+        List<String> submitted = jdbcTemplate.queryForList(
+                "SELECT id FROM user_applications WHERE user_email LIKE 'cycle%@bench.local' AND status = 'SUBMITTED'", String.class);
+        phase("approve", submitted.size(), i -> approve(staff.get(i % teachers), submitted.get(i), i / teachers));
+        phase("allocate", 1, i -> allocate(staff.get(0), applicants));
+
+        AtomicInteger seated = new AtomicInteger();
+        phase("accept and pay", applicants, i -> acceptAndPay(population.get(i), receipt, seated));
+        List<Long> payments = jdbcTemplate.queryForList(
+                "SELECT id FROM payments WHERE user_email LIKE 'cycle%@bench.local' AND status = 'PENDING'", Long.class);
+        phase("verify payments", payments.size(), i -> verifyPayment(staff.get(i % teachers), payments.get(i), i / teachers));
+
+        report(applicants, teachers);
+        Integer verified = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE user_email LIKE 'cycle%@bench.local' AND status = 'VERIFIED'", Integer.class);
+        System.out.printf("admission cycle: %d applicants, %d seated, %d payments verified, %d failed steps%n",
+                applicants, seated.get(), verified, failures.get());
+        assertTrue(verified > 0, "no applicant completed the cycle");
+        assertEquals(0, failures.get(), "steps failed; see the log above");
+    }
+
+    private static int concurrency() {
+        return Math.max(1, Integer.getInteger("bench.cycle.concurrency", 20));
+    }
+
+    // ---- applicant steps -------------------------------------------------
+
+    private boolean register(Applicant applicant) throws Exception {
+        Browser browser = applicant.browser;
+        String csrf = csrf(browser.get("GET /register", "/register"));
+        HttpResponse<String> response = browser.post("POST /createUser", "/createUser", form(
+                "fullName", applicant.name, "email", applicant.email, "password", PASSWORD,
+                "confirmPassword", PASSWORD, "_csrf", csrf));
+        return response.statusCode() == 302;
+    }
+
+    /** Waits for the verification mail to reach the SMTP stub, then follows its link. */
+    private boolean verify(Applicant applicant) throws Exception {
+        String code = verificationCode(applicant.email);
+        return code != null && applicant.browser.get("GET /verify", "/verify?code=" + code).statusCode() == 200;
+    }
+
+    private boolean signInAndApply(Applicant applicant) throws Exception {
+        Browser browser = applicant.browser;
+        if (!signIn(browser, "user")) {
+            return false;
+        }
+        String csrf = csrf(browser.get("GET /user/application", "/user/application"));
+        HttpResponse<String> response = browser.post("POST /user/application/submit", "/user/application/submit",
+                applicant.applicationForm(csrf));
+        return response.statusCode() == 302 && browser.get("GET /user/", "/user/").statusCode() == 200;
+    }
+
+    private boolean acceptAndPay(Applicant applicant, byte[] receipt, AtomicInteger seated) throws Exception {
+        Browser browser = applicant.browser;
+        HttpResponse<String> status = browser.get("GET /user/application/status", "/user/application/status");
+        if (!status.body().contains("/user/application/accept-seat")) {
+            return status.statusCode() == 200;
+        }
+        seated.incrementAndGet();
+        HttpResponse<String> accepted = browser.post("POST /user/application/accept-seat", "/user/application/accept-seat",
+                form("redirectToPayment", "true", "_csrf", csrf(status)));
+        if (!"/user/payment".equals(location(accepted))) {
+            return false;
+        }
+        String csrf = csrf(browser.get("GET /user/payment", "/user/payment"));
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("studentName", applicant.name);
+        fields.put("courseInfo", applicant.course);
+        fields.put("amountPaid", "50000");
+        fields.put("paymentMethod", "UPI");
+        fields.put("transactionId", "TXN" + applicant.index);
+        fields.put("paymentNotes", "Admission fee");
+        fields.put("_csrf", csrf);
+        HttpResponse<String> paid = browser.postMultipart("POST /user/payment/submit", "/user/payment/submit",
+                fields, "receiptFile", "receipt-" + applicant.index + ".png", receipt);
+        return paid.statusCode() == 302;
+    }
+
+    // ---- teacher steps ---------------------------------------------------
+
+    /** Reloads the list every few approvals, as a teacher paging through it would. */
+    private boolean approve(Browser teacher, String applicationId, int sequence) throws Exception {
+        if (sequence % TEACHER_PAGE_EVERY == 0) {
+            teacher.get("GET /teacher/applications", "/teacher/applications");
+        }
+        HttpResponse<String> response = teacher.post("POST /teacher/applications/approve", "/teacher/applications/approve",
+                form("applicationId", applicationId, "_csrf", teacher.csrf));
+        return response.statusCode() == 302;
+    }
+
+    private boolean allocate(Browser teacher, int applicants) throws Exception {
+        String csrf = csrf(teacher.get("GET /teacher/seat-management", "/teacher/seat-management"));
+        int seats = (int) Math.ceil(applicants * SEAT_RATIO / (COURSES.length * BRANCHES.length));
+        StringBuilder matrix = new StringBuilder();
+        for (String course : COURSES) {
+            for (String branch : BRANCHES) {
+                matrix.append(course).append(',').append(branch).append(',').append(seats).append('\n');
+            }
+        }
+        HttpResponse<String> response = teacher.post("POST /teacher/seat-management/auto-allocate",
+                "/teacher/seat-management/auto-allocate", form("seatMatrix", matrix.toString(), "_csrf", csrf));
+        return response.statusCode() == 302;
+    }
+
+    private boolean verifyPayment(Browser teacher, long paymentId, int sequence) throws Exception {
+        if (sequence % TEACHER_PAGE_EVERY == 0) {
+            teacher.get("GET /teacher/payment-management", "/teacher/payment-management");
+        }
+        HttpResponse<String> response = teacher.post("POST /teacher/payment/verify/{id}", "/teacher/payment/verify/" + paymentId,
+                form("_csrf", teacher.csrf));
+        return response.statusCode() == 302;
+    }
+
+    /** Signs in and keeps a CSRF token from the first page for later posts. */
+    private boolean signIn(Browser browser, String area) throws Exception {
+        String csrf = csrf(browser.get("GET /signin", "/signin"));
+        HttpResponse<String> response = browser.post("POST /login", "/login",
+                form("email", browser.email, "password", PASSWORD, "_csrf", csrf));
+        String target = location(response);
+        if (target == null || target.contains("error")) {
+            return false;
+        }
+        if ("teacher".equals(area)) {
+            browser.csrf = csrf(browser.get("GET /teacher/seat-management", "/teacher/seat-management"));
+        }
+        return true;
+    }
+
+    // ---- harness ---------------------------------------------------------
+
+    /** Runs count steps on the configured number of concurrent browsers; failed steps are counted, not fatal. */
+    private void phase(String name, int count, Step step) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, count)));
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> steps = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                steps.add(pool.submit(() -> {
+                    try {
+                        if (!step.run(index)) {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : steps) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long wallMs = (System.nanoTime() - start) / 1_000_000;
+        failures.addAndGet(failed.get());
+        System.out.printf("phase %-18s %6d steps in %7d ms, %d failed%n", name, count, wallMs, failed.get());
+    }
+
+    private void report(int applicants, int teachers) {
+        System.out.printf("%nadmission cycle, %d applicants, %d teachers, %d concurrent browsers, %d CPUs%n",
+                applicants, teachers, concurrency, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-45s %7s %6s %9s %7s %7s %7s %7s%n", "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> entry.getValue().print(entry.getKey()));
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, k -> new EndpointStats());
+    }
+
+    private List<Browser> seedTeachers(int teachers) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Browser> staff = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < teachers; i++) {
+            String email = "cycle-teacher" + i + "@bench.local";
+            rows.add(new Object[]{String.format("T%015d", i), email, "Cycle Teacher " + i, "ROLE_TEACHER", true, hash});
+            staff.add(new Browser(email));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_dtls (id, email, full_name, role, enable, password) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        return staff;
+    }
+
+    /** Polls the SMTP stub for the applicant's verification link. */
+    private static String verificationCode(String email) throws Exception {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (System.currentTimeMillis() < deadline) {
+            for (MimeMessage message : greenMail.getReceivedMessages()) {
+                if (email.equalsIgnoreCase(message.getRecipients(Message.RecipientType.TO)[0].toString())) {
+                    Matcher matcher = VERIFY_LINK.matcher(text(message));
+                    if (matcher.find()) {
+                        return matcher.group(1);
+                    }
+                }
+            }
+            Thread.sleep(50);
+        }
+        return null;
+    }
+
+    private static String text(Part part) throws Exception {
+        Object content = part.getContent();
+        if (content instanceof Multipart multipart) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                text.append(text(multipart.getBodyPart(i)));
+            }
+            return text.toString();
+        }
+        return content instanceof String s ? s : "";
+    }
+
+    private static String csrf(HttpResponse<String> page) {
+        Matcher matcher = CSRF_FIELD.matcher(page.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF field on " + page.uri());
+        }
+        return matcher.group(1);
+    }
+
+    private static String location(HttpResponse<?> response) {
+        return response.headers().firstValue("Location").map(l -> l.replaceFirst("^https?://[^/]+", "")).orElse(null);
+    }
+
+    private static String form(String... pairs) {
+        StringBuilder form = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (form.length() > 0) {
+                form.append('&');
+            }
+            form.append(encode(pairs[i])).append('=').append(encode(pairs[i + 1]));
+        }
+        return form.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /** A small scanned-receipt stand-in; every applicant uploads the same bytes under their own name. */
+    private static byte[] receiptImage() throws IOException {
+        BufferedImage image = new BufferedImage(600, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 600, 800);
+        graphics.setColor(Color.BLACK);
+        graphics.drawString("Fee receipt - admission cycle load test", 40, 60);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /** One synthetic applicant: identity, marks and preferences drawn from the seeded generator. */
+    private final class Applicant {
+        final int index;
+        final String email;
+        final String name;
+        final String course;
+        final String branch1;
+        final String branch2;
+        final int obtain10;
+        final int obtain12;
+        final Browser browser;
+
+        Applicant(int index, Random random) {
+            this.index = index;
+            this.email = "cycle" + index + "@bench.local";
+            this.name = "Cycle Applicant " + index;
+            this.course = COURSES[random.nextInt(COURSES.length)];
+            this.branch1 = BRANCHES[random.nextInt(BRANCHES.length)];
+            this.branch2 = BRANCHES[random.nextInt(BRANCHES.length)];
+            this.obtain10 = 200 + random.nextInt(301);
+            this.obtain12 = 200 + random.nextInt(301);
+            this.browser = new Browser(email);
+        }
+
+        String applicationForm(String csrf) {
+            return form("dob", "2007-05-14", "gender", index % 2 == 0 ? "Female" : "Male",
+                    "phoneNo", String.format("9%09d", index), "address", index + " Main Road", "religion", "Hindu",
+                    "caste", "General", "city", "Pune", "state", "Maharashtra", "pincode", "411001",
+                    "parentsName", "Parent " + index, "parentsPhoneNo", String.format("8%09d", index),
+                    "passing10Year", "2023", "schoolName10", "City School", "board10Name", "CBSE", "rollNo10", "R10-" + index,
+                    "class10Math", "90", "class10Science", "85", "class10English", "80", "class10Hindi", "75", "class10Social", "88",
+                    "total10Marks", "500", "obtain10Marks", Integer.toString(obtain10),
+                    "passing12Year", "2025", "schoolName12", "City School", "board12Name", "CBSE", "rollNo12", "R12-" + index,
+                    "class12Physics", "82", "class12Chemistry", "79", "class12Maths", "91", "class12English", "77", "class12Optional", "85",
+                    "total12Marks", "500", "obtain12Marks", Integer.toString(obtain12),
+                    "course", course, "branch1", branch1, "branch2", branch2, "_csrf", csrf);
+        }
+    }
+
+    /** Cookies and the last CSRF token of one signed-in user, on the shared HTTP client. */
+    private final class Browser {
+        final String email;
+        final Map<String, String> cookies = new ConcurrentHashMap<>();
+        volatile String csrf;
+
+        Browser(String email) {
+            this.email = email;
+        }
+
+        HttpResponse<String> get(String endpoint, String path) throws Exception {
+            return send(endpoint, request(path).GET());
+        }
+
+        HttpResponse<String> post(String endpoint, String path, String form) throws Exception {
+            return send(endpoint, request(path)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form)));
+        }
+
+        HttpResponse<String> postMultipart(String endpoint, String path, Map<String, String> fields,
+                                           String fileField, String fileName, byte[] file) throws Exception {
+            String boundary = "----cycle" + System.nanoTime();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field.getKey()
+                        + "\"\r\n\r\n" + field.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            }
+            body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + fileField + "\"; filename=\""
+                    + fileName + "\"\r\nContent-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.write(file);
+            body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            return send(endpoint, request(path)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(60));
+            if (!cookies.isEmpty()) {
+                StringBuilder header = new StringBuilder();
+                cookies.forEach((name, value) -> header.append(header.length() > 0 ? "; " : "").append(name).append('=').append(value));
+                builder.header("Cookie", header.toString());
+            }
+            return builder;
+        }
+
+        /** Records the latency under the endpoint name; 4xx/5xx and I/O failures count as errors. */
+        private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) throws Exception {
+            EndpointStats endpointStats = stats(endpoint);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                endpointStats.record(start, System.nanoTime(), response.statusCode() >= 400);
+                for (String setCookie : response.headers().allValues("Set-Cookie")) {
+                    Matcher matcher = COOKIE.matcher(setCookie);
+                    if (!matcher.find()) {
+                        continue;
+                    }
+                    if (matcher.group(2).isEmpty() || setCookie.contains("Max-Age=0")) {
+                        cookies.remove(matcher.group(1));
+                    } else {
+                        cookies.put(matcher.group(1), matcher.group(2));
+                    }
+                }
+                return response;
+            } catch (IOException e) {
+                endpointStats.record(start, System.nanoTime(), true);
+                throw e;
+            }
+        }
+    }
+
+    /** Latencies of one endpoint plus the span they were recorded over, for throughput. */
+    private static final class EndpointStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastEnd = new AtomicLong();
+
+        void record(long start, long end, boolean error) {
+            synchronized (latencies) {
+                latencies.add((end - start) / 1_000_000);
+            }
+            if (error) {
+                errors.incrementAndGet();
+            }
+            firstStart.accumulateAndGet(start, Math::min);
+            lastEnd.accumulateAndGet(end, Math::max);
+        }
+
+        void print(String endpoint) {
+            long[] sorted;
+            synchronized (latencies) {
+                sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            }
+            Arrays.sort(sorted);
+            double seconds = Math.max(1, lastEnd.get() - firstStart.get()) / 1e9;
+            System.out.printf("%-45s %7d %6d %9.1f %7d %7d %7d %7d%n", endpoint, sorted.length, errors.get(),
+                    sorted.length / seconds, percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile / 100.0) - 1)];
+        }
+    }
+
+    private interface Step {
+        boolean run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,205 @@
+package com.m4nas;
+
+import com.m4nas.dto.AnnouncementFeed;
+import com.m4nas.model.Announcement;
+import com.m4nas.model.UserApplication;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.AnnouncementRepository;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.AnnouncementService;
+import com.m4nas.service.UserApplicationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Announcement feeds are served from memory, keep their version until their own
+ * announcements change, and let browsers revalidate with If-None-Match without
+ * a query.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AnnouncementFeedTest {
+
+    private static final String STUDENT_EMAIL = "feed-student@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private UserDtls student;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        announcementRepository.deleteAll();
+        announcementService.refreshFeeds();
+        student = new UserDtls();
+        student.setId("FEEDSTUDENT00001");
+        student.setEmail(STUDENT_EMAIL);
+        student.setFullName("Meera Iyer");
+        student.setRole("ROLE_USER");
+        student.setEnable(true);
+        student.setProvider("local");
+        student = userRepo.save(student);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        announcementRepository.deleteAll();
+        announcementService.refreshFeeds();
+        applicationRepo.deleteAll();
+        userRepo.deleteById(student.getId());
+    }
+
+    @Test
+    public void feedsAreSplitByAudienceAndReadWithoutQueries() {
+        announcementService.saveAnnouncement(announcement("Orientation", "ALL"));
+        announcementService.saveAnnouncement(announcement("Hostel allotment", "STUDENT"));
+        announcementService.saveAnnouncement(announcement("Faculty meeting", "TEACHER"));
+
+        statistics.clear();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(3, announcementService.getFeed(AnnouncementService.FEED_ALL).getAnnouncements().size());
+            assertEquals(2, announcementService.getAnnouncementsByAudience("STUDENT").size());
+            assertEquals(2, announcementService.getFeed(AnnouncementService.FEED_TEACHER).getAnnouncements().size());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void feedVersionOnlyChangesWithItsOwnAnnouncements() {
+        announcementService.saveAnnouncement(announcement("Hostel allotment", "STUDENT"));
+        AnnouncementFeed students = announcementService.getFeed(AnnouncementService.FEED_STUDENT);
+        AnnouncementFeed all = announcementService.getFeed(AnnouncementService.FEED_ALL);
+
+        Announcement meeting = announcementService.saveAnnouncement(announcement("Faculty meeting", "TEACHER"));
+        assertSame(students, announcementService.getFeed(AnnouncementService.FEED_STUDENT));
+        assertNotEquals(all.getVersion(), announcementService.getFeed(AnnouncementService.FEED_ALL).getVersion());
+
+        announcementService.deleteAnnouncement(meeting.getId());
+        announcementService.saveAnnouncement(announcement("Fee deadline", "ALL"));
+        AnnouncementFeed updated = announcementService.getFeed(AnnouncementService.FEED_STUDENT);
+        assertNotEquals(students.getVersion(), updated.getVersion());
+        assertEquals(2, updated.getAnnouncements().size());
+
+        // An edit that keeps the same ids is still a new version
+        Announcement deadline = announcementRepository.findActiveAnnouncements().stream()
+                .filter(a -> a.getTitle().equals("Fee deadline")).findFirst().orElseThrow();
+        deadline.setContent("Fee deadline moved to Friday");
+        announcementRepository.save(deadline);
+        announcementService.refreshFeeds();
+        assertNotEquals(updated.getVersion(), announcementService.getFeed(AnnouncementService.FEED_STUDENT).getVersion());
+    }
+
+    @Test
+    @WithMockUser(username = STUDENT_EMAIL, authorities = "ROLE_USER")
+    public void notificationsPageAnswersConditionalRequestsWith304() throws Exception {
+        announcementService.saveAnnouncement(announcement("Hostel allotment", "STUDENT"));
+        MockHttpSession session = new MockHttpSession();
+
+        String eTag = mockMvc.perform(get("/user/notifications").session(session))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        statistics.clear();
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/user/notifications").session(session).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified());
+        }
+        assertEquals(0, statistics.getEntityStatistics(Announcement.class.getName()).getLoadCount());
+        // A 304 costs one two-column read of the student's application; the announcements are not queried
+        assertEquals(10, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(UserApplication.class.getName()).getLoadCount());
+
+        // Announcements for teachers do not change what students see
+        announcementService.saveAnnouncement(announcement("Faculty meeting", "TEACHER"));
+        mockMvc.perform(get("/user/notifications").session(session).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        announcementService.saveAnnouncement(announcement("Fee deadline", "ALL"));
+        String newETag = mockMvc.perform(get("/user/notifications").session(session).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+
+        // A change to the student's application is a new version too
+        UserApplication application = new UserApplication();
+        application.setId(student.getId());
+        application.setUserEmail(STUDENT_EMAIL);
+        userApplicationService.savePersonalInfo(application);
+        String applicationETag = mockMvc.perform(get("/user/notifications").session(session).header(HttpHeaders.IF_NONE_MATCH, newETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Also when the status is written by another node, which this JVM hears nothing about
+        jdbcTemplate.update("UPDATE user_applications SET status = 'APPROVED' WHERE id = ?", student.getId());
+        mockMvc.perform(get("/user/notifications").session(session).header(HttpHeaders.IF_NONE_MATCH, applicationETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.local", authorities = "ROLE_ADMIN")
+    public void adminPageRendersInFullWhenCarryingAMessage() throws Exception {
+        announcementService.saveAnnouncement(announcement("Orientation", "ALL"));
+        MockHttpSession session = new MockHttpSession();
+
+        String eTag = mockMvc.perform(get("/admin/announcements").session(session))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/admin/announcements").session(session).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/admin/announcements").session(session).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .flashAttr("success", "Announcement created successfully!"))
+                .andExpect(status().isOk());
+    }
+
+    private static Announcement announcement(String title, String audience) {
+        Announcement announcement = new Announcement(title, title + " details", "feed-teacher@test.local", audience);
+        announcement.setAnnouncementType("GENERAL");
+        return announcement;
+    }
+}
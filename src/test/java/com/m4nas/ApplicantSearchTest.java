@@ -0,0 +1,200 @@
+package com.m4nas;
+
+import com.m4nas.model.UserApplication;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.ApplicantSearchIndex;
+import com.m4nas.service.StudentNameService;
+import com.m4nas.service.UserApplicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Applicant search: prefix, infix and multi-token matching, incremental
+ * updates on save/delete, writes during a rebuild, and query latency over 100k applicants.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ApplicantSearchTest {
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private ApplicantSearchIndex searchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        applicationRepo.deleteAll();
+        userRepo.deleteAll();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    public void findsApplicantsByAnyIndexedField() {
+        saveApplicant("s1", "Rahul Sharma", "rahul.sharma@example.com", "9876543210", "R12-4455", "Jaipur");
+        saveApplicant("s2", "Priya Rahulkar", "priya@example.com", "9123456780", "R12-7788", "Pune");
+        saveApplicant("s3", "Amit Verma", "amit@example.com", "9000011111", "R12-9900", "Jaipur");
+
+        assertEquals(List.of("s1", "s2"), ids("rahul"));
+        assertEquals(List.of("s1"), ids("543"));
+        assertEquals(List.of("s2"), ids("r127788"));
+        assertEquals(List.of("s3"), ids("amit@example.com"));
+        assertEquals(List.of("s1", "s3"), ids("jaip"));
+        assertEquals(List.of("s3"), ids("jaipur verma"));
+        assertTrue(ids("xyz").isEmpty());
+    }
+
+    @Test
+    public void followsSavesAndDeletes() {
+        saveApplicant("s1", "Rahul Sharma", "rahul.sharma@example.com", "9876543210", "R12-4455", "Jaipur");
+
+        UserApplication app = applicationRepo.findById("s1").orElseThrow();
+        app.setCity("Udaipur");
+        userApplicationService.savePersonalInfo(app);
+        assertTrue(ids("jaipur").isEmpty());
+        assertEquals(List.of("s1"), ids("udai"));
+
+        userApplicationService.refreshSearchIndex("rahul.sharma@example.com", "Rahul Mehta");
+        assertEquals(List.of("s1"), ids("mehta"));
+
+        userApplicationService.deleteApplicationsByUserEmail("rahul.sharma@example.com");
+        assertTrue(ids("rahul").isEmpty());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    public void rebuildKeepsWritesCommittedWhileItRuns() throws Exception {
+        UserApplicationRepository repo = mock(UserApplicationRepository.class);
+        StudentNameService names = mock(StudentNameService.class);
+        when(names.getStudentNames(anyCollection())).thenReturn(Map.of("neha@example.com", "Neha Gupta"));
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        when(repo.findSearchFields()).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{"s1", "Rahul Sharma", "rahul.sharma@example.com", null, null, null, null, null, null, "Jaipur"});
+            queried.countDown();
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+            return rows;
+        });
+        ApplicantSearchIndex index = new ApplicantSearchIndex(repo, names);
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        assertTrue(queried.await(5, TimeUnit.SECONDS));
+        // No transaction here, so both writes apply at once; the query above already read s1 without them
+        index.indexAfterCommit(application("s2", "neha@example.com", "Pune"));
+        index.indexAfterCommit(application("s1", "rahul.sharma@example.com", "Udaipur"), "Rahul Sharma");
+        written.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("s2"), index.search("neha", 10));
+        assertEquals(List.of("s1"), index.search("udaipur", 10));
+        assertTrue(index.search("jaipur", 10).isEmpty());
+
+        // A re-save keeps the indexed name instead of looking it up again
+        index.indexAfterCommit(application("s2", "neha@example.com", "Nagpur"));
+        assertEquals(List.of("s2"), index.search("neha nagpur", 10));
+        verify(names, times(1)).getStudentNames(anyCollection());
+    }
+
+    @Tag("benchmark")
+    @Test
+    public void answersInMillisecondsOver100kApplicants() {
+        int applicants = 100_000;
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> applications = new ArrayList<>();
+        for (int i = 0; i < applicants; i++) {
+            String id = String.format("S%015d", i);
+            String email = "student" + i + "@search.local";
+            users.add(new Object[]{id, email, "Student" + (i % 5000) + " Family" + (i % 977), "ROLE_USER", true});
+            applications.add(new Object[]{id, email, "9" + String.format("%09d", i), "R12-" + i, "City" + (i % 300), "SUBMITTED", false});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_dtls (id, email, full_name, role, enable) VALUES (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_applications (id, user_email, phone_no, roll_no12, city, status, seat_accepted) VALUES (?, ?, ?, ?, ?, ?, ?)", applications);
+        searchIndex.rebuild();
+        assertEquals(applicants, searchIndex.size());
+
+        String[] queries = {"student42", "family13 city7", "98765", "r1299999", "student4@search", "city2"};
+        for (String query : queries) {
+            searchIndex.search(query, 10);
+        }
+        // Median per query, so a GC pause on a small CI box does not fail the run
+        long budgetMs = Long.getLong("bench.search.budget-ms", 50);
+        for (String query : queries) {
+            long[] nanos = new long[51];
+            for (int run = 0; run < nanos.length; run++) {
+                long start = System.nanoTime();
+                searchIndex.search(query, 10);
+                nanos[run] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            double medianMs = nanos[nanos.length / 2] / 1e6;
+            System.out.printf("Applicant search over %d applicants, \"%s\": median %.2f ms, max %.2f ms%n",
+                    applicants, query, medianMs, nanos[nanos.length - 1] / 1e6);
+            assertTrue(medianMs < budgetMs, "Search for \"" + query + "\" took " + medianMs + " ms");
+        }
+    }
+
+    private List<String> ids(String query) {
+        return userApplicationService.searchApplications(query, 10).stream()
+                .map(UserApplication::getId).collect(Collectors.toList());
+    }
+
+    private static UserApplication application(String id, String email, String city) {
+        UserApplication app = new UserApplication();
+        app.setId(id);
+        app.setUserEmail(email);
+        app.setCity(city);
+        return app;
+    }
+
+    private void saveApplicant(String id, String name, String email, String phone, String rollNo12, String city) {
+        UserDtls user = new UserDtls();
+        user.setId(id);
+        user.setEmail(email);
+        user.setFullName(name);
+        user.setRole("ROLE_USER");
+        user.setEnable(true);
+        userRepo.save(user);
+
+        UserApplication app = new UserApplication();
+        app.setId(id);
+        app.setUserEmail(email);
+        app.setPhoneNo(phone);
+        app.setRollNo12(rollNo12);
+        app.setCity(city);
+        userApplicationService.savePersonalInfo(app);
+    }
+}
@@ -0,0 +1,19 @@
+package com.m4nas;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * The CSV import tests again on PostgreSQL, where chunks are written with COPY
+ * into a staging table and merged with UPDATE ... FROM and INSERT ... SELECT
+ * instead of the JDBC batches used on H2.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ApplicationImportPostgresTest extends ApplicationImportTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+}
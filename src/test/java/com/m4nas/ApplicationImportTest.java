@@ -0,0 +1,214 @@
+package com.m4nas;
+
+import com.m4nas.model.ImportJob;
+import com.m4nas.repository.ImportJobRepository;
+import com.m4nas.service.ApplicationImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CSV import: inserts and email-keyed upserts, percentage calculation, per-row
+ * errors, resuming from committed progress, and the 200k-row throughput target.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "admin@test.local", authorities = "ROLE_ADMIN")
+public class ApplicationImportTest {
+
+    @Autowired
+    private ApplicationImportService applicationImportService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM user_applications");
+        jdbcTemplate.update("DELETE FROM user_dtls WHERE email LIKE '%@import.test'");
+        importJobRepository.deleteAll();
+    }
+
+    @Test
+    public void insertsNewAndUpdatesExistingApplicationsByEmail() throws Exception {
+        jdbcTemplate.update("INSERT INTO user_dtls (id, email, full_name, role, enable) VALUES ('IMPUSER000000001', 'new@import.test', 'New Student', 'ROLE_USER', true)");
+        jdbcTemplate.update("INSERT INTO user_applications (id, user_email, course, city, total12marks, obtain12marks, percentage12, status, seat_accepted) "
+                + "VALUES ('IMPAPP0000000001', 'old@import.test', 'BTECH', 'Pune', 500, 400, 80.0, 'APPROVED', false)");
+
+        String csv = "\uFEFFuserEmail,Course,branch_1,OBTAIN_12_MARKS,total 12 marks,address,dob\r\n"
+                + "new@import.test,BTECH,CSE,450,500,\"12, Main Road\nSector \"\"B\"\"\",2006-04-01\r\n"
+                + "old@import.test,,ECE,450,,,\r\n"
+                + "not-an-email,BTECH,CSE,1,2,,\r\n"
+                + "bad@import.test,BTECH,CSE,600,500,,\r\n"
+                + "\r\n"
+                + "worse@import.test,BTECH,CSE,abc,500,,31-12-2006\r\n";
+        ImportJob job = awaitFinished(applicationImportService.startImport("marks.csv", stream(csv), "admin@test.local"));
+
+        assertEquals(ImportJob.COMPLETED, job.getStatus(), job.getErrors());
+        assertEquals(6, job.getRowsProcessed());
+        assertEquals(1, job.getRowsInserted());
+        assertEquals(1, job.getRowsUpdated());
+        assertEquals(3, job.getErrorCount());
+        assertTrue(job.getErrors().contains("line 5: userEmail 'not-an-email' is not a valid email"), job.getErrors());
+        assertTrue(job.getErrors().contains("line 6: 12th obtained marks (600) exceed total marks (500)"), job.getErrors());
+        assertTrue(job.getErrors().contains("line 8: obtain12Marks must be a whole number"), job.getErrors());
+        assertTrue(job.getErrors().contains("dob must be a date"), job.getErrors());
+
+        // New applications take the account's id and are submitted
+        Map<String, Object> inserted = jdbcTemplate.queryForMap("SELECT * FROM user_applications WHERE user_email = 'new@import.test'");
+        assertEquals("IMPUSER000000001", inserted.get("id"));
+        assertEquals("SUBMITTED", inserted.get("status"));
+        assertEquals(90.0, ((Number) inserted.get("percentage12")).doubleValue());
+        assertEquals("12, Main Road\nSector \"B\"", inserted.get("address"));
+
+        // Blank cells keep the stored value; the percentage uses the stored total
+        Map<String, Object> updated = jdbcTemplate.queryForMap("SELECT * FROM user_applications WHERE user_email = 'old@import.test'");
+        assertEquals("BTECH", updated.get("course"));
+        assertEquals("ECE", updated.get("branch1"));
+        assertEquals("Pune", updated.get("city"));
+        assertEquals("APPROVED", updated.get("status"));
+        assertEquals(90.0, ((Number) updated.get("percentage12")).doubleValue());
+
+        // The same file again is recognised rather than imported twice
+        ImportJob again = applicationImportService.startImport("copy.csv", stream(csv), "admin@test.local");
+        assertEquals(job.getId(), again.getId());
+        assertEquals(ImportJob.COMPLETED, again.getStatus());
+        assertEquals(2, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_applications", Integer.class));
+    }
+
+    @Test
+    public void resumesAfterLastCommittedRow() throws Exception {
+        StringBuilder csv = new StringBuilder("userEmail,course,branch1\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append("resume").append(i).append("@import.test,BTECH,CSE\n");
+        }
+        byte[] content = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        // An earlier run committed the first two rows and then the server stopped
+        ImportJob interrupted = new ImportJob(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)),
+                "resume.csv", "admin@test.local");
+        interrupted.setStatus(ImportJob.RUNNING);
+        interrupted.setRowsProcessed(2);
+        interrupted.setRowsInserted(2);
+        importJobRepository.save(interrupted);
+
+        ImportJob job = awaitFinished(applicationImportService.startImport("resume.csv", new ByteArrayInputStream(content), "admin@test.local"));
+
+        assertEquals(ImportJob.COMPLETED, job.getStatus(), job.getErrors());
+        assertEquals(5, job.getRowsProcessed());
+        assertEquals(5, job.getRowsInserted());
+        assertEquals(0, (int) jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_applications WHERE user_email IN ('resume0@import.test', 'resume1@import.test')", Integer.class));
+        assertEquals(3, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_applications", Integer.class));
+    }
+
+    @Test
+    public void rejectsFileWithUnknownColumn() throws Exception {
+        ImportJob job = awaitFinished(applicationImportService.startImport("bad.csv",
+                stream("userEmail,favouriteColour\na@import.test,blue\n"), "admin@test.local"));
+
+        assertEquals(ImportJob.FAILED, job.getStatus());
+        assertTrue(job.getErrors().contains("Unknown column 'favouriteColour'"), job.getErrors());
+        assertEquals(0, job.getRowsProcessed());
+    }
+
+    @Test
+    public void uploadStartsJobAndReportsProgress() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "upload.csv", "text/csv",
+                "userEmail,course\nupload@import.test,MBA\n".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(multipart("/admin/import/applications").file(file).with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/database"));
+
+        ImportJob job = awaitFinished(importJobRepository.findTop10ByOrderByStartedAtDesc().get(0));
+        mockMvc.perform(get("/admin/import/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(ImportJob.COMPLETED))
+                .andExpect(jsonPath("$.rowsInserted").value(1));
+        mockMvc.perform(get("/admin/import/unknown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void imports200kRowsWithinAMinute() throws Exception {
+        int rows = 200_000;
+        Path file = Files.createTempFile("applications", ".csv");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write("userEmail,phoneNo,city,state,course,branch1,branch2,schoolName12,board12Name,rollNo12,"
+                        + "class12Physics,class12Chemistry,class12Maths,obtain12Marks,total12Marks,obtain10Marks,total10Marks,entranceRank\n");
+                for (int i = 0; i < rows; i++) {
+                    int marks = 200 + i % 300;
+                    out.write("bulk" + i + "@import.test,98" + String.format("%08d", i) + ",City " + (i % 50) + ",State,BTECH,CSE,ECE,"
+                            + "\"School " + (i % 900) + "\",CBSE,R" + i + "," + (i % 100) + "," + (i % 97) + "," + (i % 89) + ","
+                            + marks + ",500," + (marks + 50) + ",600," + (i + 1) + "\n");
+                }
+            }
+
+            long start = System.nanoTime();
+            ImportJob job;
+            try (InputStream in = Files.newInputStream(file)) {
+                job = awaitFinished(applicationImportService.startImport("bulk.csv", in, "admin@test.local"));
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Imported %d rows in %.1f s (%.0f rows/s)%n", rows, seconds, rows / seconds);
+
+            assertEquals(ImportJob.COMPLETED, job.getStatus(), job.getErrors());
+            assertEquals(rows, job.getRowsInserted());
+            assertNull(job.getErrors());
+            assertEquals(rows, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_applications WHERE percentage12 IS NOT NULL", Integer.class));
+            assertTrue(seconds < 60, "Import took " + seconds + " s");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private ImportJob awaitFinished(ImportJob started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 120_000;
+        ImportJob job = started;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = applicationImportService.getJob(started.getId());
+        }
+        return job;
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
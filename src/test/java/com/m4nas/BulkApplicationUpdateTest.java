@@ -0,0 +1,123 @@
+package com.m4nas;
+
+import com.m4nas.dto.ApplicationChange;
+import com.m4nas.dto.BulkUpdateResult;
+import com.m4nas.model.UserApplication;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.service.DashboardCounters;
+import com.m4nas.service.UserApplicationService;
+import com.m4nas.util.BulkChangeParams;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A large seat-management edit is applied in one transaction with batched
+ * loads and JDBC-batched updates, and reports per-row outcomes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BulkApplicationUpdateTest {
+
+    private static final int ROWS = 2000;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void cleanUp() {
+        applicationRepo.deleteAll();
+        dashboardCounters.reconcile();
+    }
+
+    @Test
+    public void appliesLargeEditWithBatchedStatements() {
+        List<UserApplication> apps = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            UserApplication app = new UserApplication();
+            app.setId("bulk" + i);
+            app.setUserEmail("bulk" + i + "@example.com");
+            app.setCourse("BTECH");
+            app.setStatus("SUBMITTED");
+            app.setSubmissionDate(LocalDate.of(2025, 6, 1));
+            apps.add(app);
+        }
+        applicationRepo.saveAll(apps);
+        dashboardCounters.reconcile();
+
+        List<ApplicationChange> changes = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            changes.add(new ApplicationChange("bulk" + i, ApplicationChange.STATUS, "APPROVED"));
+            if (i % 2 == 0) {
+                changes.add(new ApplicationChange("bulk" + i, ApplicationChange.ALLOCATED_BRANCH, "CSE"));
+            }
+        }
+        changes.add(new ApplicationChange("missing", ApplicationChange.STATUS, "APPROVED"));
+        changes.add(new ApplicationChange("bulk1", "percentage12", "99"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.currentTimeMillis();
+        BulkUpdateResult<ApplicationChange> result = userApplicationService.applyBulkChanges(changes);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(ROWS + ROWS / 2 + 2, result.getTotal());
+        assertEquals(2, result.getFailed());
+        List<BulkUpdateResult.RowOutcome<ApplicationChange>> outcomes = result.getOutcomes();
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals("Application not found", outcomes.get(changes.size() - 2).getMessage());
+        assertFalse(outcomes.get(changes.size() - 1).isSuccess());
+
+        // 2 chunked loads plus ROWS / batch_size update batches, not one round trip per row
+        assertTrue(statistics.getPrepareStatementCount() < 100,
+                "Expected batched statements but prepared " + statistics.getPrepareStatementCount());
+        assertTrue(elapsed < 5_000, "Bulk update of " + ROWS + " rows took " + elapsed + " ms");
+
+        assertEquals(ROWS / 2, dashboardCounters.countByStatus("ALLOCATED"));
+        assertEquals(ROWS / 2, dashboardCounters.countByStatus("APPROVED"));
+        assertEquals("ALLOCATED", applicationRepo.findById("bulk0").orElseThrow().getStatus());
+        assertEquals("APPROVED", applicationRepo.findById("bulk1").orElseThrow().getStatus());
+    }
+
+    @Test
+    public void groupsPostedChangesByRowIndex() {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        params.put("_csrf", new String[]{"token"});
+        params.put("changes[10].appId", new String[]{"bulk10"});
+        params.put("changes[2].appId", new String[]{"bulk2"});
+        params.put("changes[2].value", new String[]{"CSE"});
+        params.put("changes[10].value", new String[]{"APPROVED"});
+        params.put("changes[x].appId", new String[]{"ignored"});
+        params.put("changes[].appId", new String[]{"ignored"});
+        params.put("changes[3].field", new String[0]);
+
+        List<Map<String, String>> rows = new ArrayList<>(BulkChangeParams.parse(params));
+        assertEquals(2, rows.size());
+        assertEquals(Map.of("appId", "bulk2", "value", "CSE"), rows.get(0));
+        assertEquals(Map.of("appId", "bulk10", "value", "APPROVED"), rows.get(1));
+    }
+}
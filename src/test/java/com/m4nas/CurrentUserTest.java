@@ -0,0 +1,139 @@
+package com.m4nas;
+
+import com.m4nas.model.UserApplication;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.CurrentUserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The signed-in account is loaded at most once per request, not at all while
+ * in the second-level cache, reflects changes right after they are saved and
+ * never carries credentials.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = CurrentUserTest.STUDENT_EMAIL, authorities = "ROLE_USER")
+public class CurrentUserTest {
+
+    static final String STUDENT_EMAIL = "current-user@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserDtls student;
+
+    @BeforeEach
+    public void setUp() {
+        // The test context binds a mock request to this thread; direct getUser calls here
+        // should behave like background code, not share one long-lived request
+        RequestContextHolder.resetRequestAttributes();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        student = new UserDtls();
+        student.setId("CURRENTUSER00001");
+        student.setEmail(STUDENT_EMAIL);
+        student.setFullName("Asha Verma");
+        student.setRole("ROLE_USER");
+        student.setEnable(true);
+        student.setProvider("local");
+        student.setPassword("$2a$10$notARealHashButNotNullEither");
+        student.setVerificationCode("pending-code");
+        student = userRepo.save(student);
+        currentUserService.evict(STUDENT_EMAIL);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        applicationRepo.deleteAll();
+        userRepo.deleteById(student.getId());
+        currentUserService.evict(STUDENT_EMAIL);
+    }
+
+    @Test
+    public void accountIsLoadedOncePerRequestAndThenServedFromCache() throws Exception {
+        // Keyed by account id with no userEmail, so the page resolves the account twice
+        UserApplication app = new UserApplication();
+        app.setId(student.getId());
+        app.setCourse("BTECH");
+        app.setStatus("SUBMITTED");
+        app.setSubmissionDate(LocalDate.now());
+        applicationRepo.save(app);
+
+        assertEquals(1, userLoadsFor("/user/application/status"));
+        assertEquals(0, userLoadsFor("/user/application/status"));
+        assertEquals(0, userLoadsFor("/user/"));
+        assertEquals(0, userLoadsFor("/user/payment"));
+    }
+
+    @Test
+    public void profileAndPasswordChangesEvictTheCachedAccount() throws Exception {
+        assertEquals("Asha Verma", currentUserService.getUser(STUDENT_EMAIL).getFullName());
+
+        mockMvc.perform(post("/user/settings/updateProfile").param("fullName", "Asha V. Sharma").with(csrf()))
+                .andExpect(status().is3xxRedirection());
+        assertEquals("Asha V. Sharma", currentUserService.getUser(STUDENT_EMAIL).getFullName());
+
+        MvcResult page = mockMvc.perform(get("/user/settings/editProfile")).andExpect(status().isOk()).andReturn();
+        assertEquals("Asha V. Sharma", ((UserDtls) page.getModelAndView().getModel().get("user")).getFullName());
+
+        // Callers get copies: changing one does not leak into the cache, and credentials are left out
+        currentUserService.getUser(STUDENT_EMAIL).setRole("ROLE_ADMIN");
+        assertEquals("ROLE_USER", currentUserService.getUser(STUDENT_EMAIL).getRole());
+        assertNull(currentUserService.getUser(STUDENT_EMAIL).getPassword());
+        assertNull(currentUserService.getUser(STUDENT_EMAIL).getVerificationCode());
+
+        UserDtls stored = userRepo.findByEmail(STUDENT_EMAIL);
+        stored.setEnable(false);
+        userRepo.save(stored);
+        currentUserService.evict(STUDENT_EMAIL);
+        assertEquals(false, currentUserService.getUser(STUDENT_EMAIL).isEnable());
+
+        userRepo.deleteById(student.getId());
+        currentUserService.evict(STUDENT_EMAIL);
+        assertNull(currentUserService.getUser(STUDENT_EMAIL));
+        student = userRepo.save(student);
+    }
+
+    private long userLoadsFor(String page) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(page)).andExpect(status().isOk());
+        return statistics.getEntityStatistics(UserDtls.class.getName()).getLoadCount();
+    }
+}
@@ -0,0 +1,136 @@
+package com.m4nas;
+
+import com.m4nas.dto.ApplicationSnapshot;
+import com.m4nas.model.UserApplication;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.service.DashboardCounters;
+import com.m4nas.service.UserApplicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives applications through the usual status transitions and checks the
+ * incrementally maintained dashboard counters against the GROUP BY queries,
+ * including a reconciliation that lands between a commit and its delta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DashboardCountersTest {
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @AfterEach
+    public void cleanUp() {
+        applicationRepo.deleteAll();
+        dashboardCounters.reconcile();
+    }
+
+    @Test
+    public void countersFollowStatusTransitions() {
+        dashboardCounters.reconcile();
+
+        for (int i = 0; i < 20; i++) {
+            UserApplication app = new UserApplication();
+            app.setId(String.format("D%03d", i));
+            app.setUserEmail("dash" + i + "@test.local");
+            app.setSubmissionDate(LocalDate.now().minusDays(i));
+            app.setTotal12Marks(500);
+            app.setObtain12Marks(300 + i * 10);
+            userApplicationService.saveAcademicInfo(app);
+        }
+
+        for (int i = 0; i < 16; i++) {
+            userApplicationService.approveApplication(String.format("D%03d", i));
+        }
+        userApplicationService.rejectApplication("D017");
+        for (int i = 0; i < 12; i++) {
+            userApplicationService.allocateSeat(String.format("D%03d", i), i % 2 == 0 ? "CSE" : "ECE");
+        }
+        userApplicationService.acceptSeat("D000");
+        userApplicationService.acceptSeat("D001");
+        userApplicationService.declineSeat("D002");
+        userApplicationService.updateApplicationBranch("D003", "MECH");
+        userApplicationService.updateApplicationStatus("D004", "APPROVED");
+        userApplicationService.deleteApplicationsByUserEmail("dash5@test.local");
+
+        assertEquals(toMap(applicationRepo.getApplicationStatusCounts()), toMap(dashboardCounters.getStatusCounts()));
+        assertEquals(applicationRepo.findAllocatedApplicationsPendingResponse().size(),
+                dashboardCounters.countAllocatedPendingResponse());
+        assertEquals(branchMap(applicationRepo.getBranchWiseStatistics()), branchMap(dashboardCounters.getBranchStatistics()));
+        assertEquals(applicationRepo.findApplicationsPendingApproval().size(), userApplicationService.countApplicationsByStatus("SUBMITTED"));
+    }
+
+    @Test
+    public void recentApplicationsAreNewestFirst() {
+        for (int i = 0; i < 10; i++) {
+            UserApplication app = new UserApplication();
+            app.setId(String.format("R%03d", i));
+            app.setUserEmail("recent" + i + "@test.local");
+            app.setSubmissionDate(i == 0 ? null : LocalDate.now().minusDays(i));
+            userApplicationService.saveAcademicInfo(app);
+        }
+
+        List<String> recent = userApplicationService.getRecentApplications(7).stream()
+                .map(UserApplication::getId).collect(Collectors.toList());
+        assertEquals(List.of("R001", "R002", "R003", "R004", "R005", "R006", "R007"), recent);
+    }
+
+    @Test
+    public void reconcileBetweenCommitAndApplyDoesNotCountTwice() {
+        UserApplicationRepository repo = mock(UserApplicationRepository.class);
+        AtomicLong committedRows = new AtomicLong();
+        when(repo.getApplicationStatusCounts()).thenAnswer(invocation -> committedRows.get() == 0
+                ? List.<Object[]>of() : List.<Object[]>of(new Object[] { "SUBMITTED", committedRows.get() }));
+        DashboardCounters counters = new DashboardCounters(repo);
+        counters.reconcile();
+
+        UserApplication app = new UserApplication();
+        app.setStatus("SUBMITTED");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.recordChange(null, ApplicationSnapshot.of(app));
+            // Committed and visible to the queries, but the after-commit delta has not run yet
+            committedRows.set(1);
+            counters.reconcile();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, counters.countByStatus("SUBMITTED"));
+        counters.reconcile();
+        assertEquals(1, counters.countByStatus("SUBMITTED"));
+    }
+
+    private static Map<String, Long> toMap(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.toMap(r -> (String) r[0], r -> (Long) r[1]));
+    }
+
+    private static Map<String, String> branchMap(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.toMap(r -> (String) r[0],
+                r -> r[1] + "/" + String.format("%.4f", ((Number) r[2]).doubleValue())));
+    }
+}
@@ -0,0 +1,155 @@
+package com.m4nas;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streaming exports: row counts, CSV escaping, merit order in XLSX, gzip, and
+ * that no entities are loaded into the persistence context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "admin@test.local", authorities = "ROLE_ADMIN")
+public class ExportTest {
+
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void seed() {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> applications = new ArrayList<>();
+        List<Object[]> payments = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2025, 6, 1, 10, 0));
+        for (int i = 0; i < ROWS; i++) {
+            String id = String.format("E%015d", i);
+            String email = "export" + i + "@test.local";
+            String name = i == 0 ? "Doe, \"Jane\"" : i == 1 ? "=HYPERLINK(\"x\")" : "Student " + i;
+            users.add(new Object[]{id, email, name, "ROLE_USER", true});
+            applications.add(new Object[]{id, email, "+91 98" + String.format("%08d", i), "BTECH", "CSE",
+                    50.0 + (i % 500) / 10.0, Date.valueOf(LocalDate.of(2025, 1, 1).plusDays(i % 90)), "SUBMITTED", false});
+            payments.add(new Object[]{email, "Student " + i, "BTECH", "CSE", 50000.0, "UPI", "TXN" + i, "PENDING", now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_dtls (id, email, full_name, role, enable) VALUES (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_applications (id, user_email, phone_no, course, branch1, percentage12, submission_date, status, seat_accepted) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", applications);
+        jdbcTemplate.batchUpdate("INSERT INTO payments (user_email, student_name, course, branch, amount, payment_method, transaction_id, status, submission_date) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", payments);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM user_applications");
+        jdbcTemplate.update("DELETE FROM user_dtls");
+    }
+
+    @Test
+    public void streamsApplicationsCsvWithoutLoadingEntities() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MvcResult result = mockMvc.perform(get("/admin/export/applications").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv; charset=UTF-8"))
+                .andReturn();
+
+        // Only the current admin is loaded by the controller's model attribute
+        assertTrue(statistics.getEntityLoadCount() <= 1, "Export loaded " + statistics.getEntityLoadCount() + " entities");
+
+        String csv = new String(result.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8);
+        String[] lines = csv.split("\r\n");
+        assertEquals(ROWS + 1, lines.length);
+        assertTrue(lines[0].startsWith("\uFEFFApplication ID,Name,Email"));
+        assertTrue(csv.contains(",\"Doe, \"\"Jane\"\"\",export0@test.local,+91 9800000000,"));
+        assertTrue(csv.contains(",\"'=HYPERLINK(\"\"x\"\")\",export1@test.local,"));
+    }
+
+    @Test
+    public void streamsMeritListAsXlsxInMeritOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin/export/merit-list").param("format", "xlsx").param("course", "BTECH"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String sheet = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    sheet = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        assertNotNull(sheet);
+        assertEquals(ROWS + 1, sheet.split("<row ").length - 1);
+        // Highest percentage12 (99.9) ranks first; ties broken by submission date then id
+        assertTrue(sheet.contains("<row r=\"2\"><c><v>1</v></c><c t=\"inlineStr\"><is><t xml:space=\"preserve\">E000000000000999</t>"));
+        assertTrue(sheet.contains("Doe, &quot;Jane&quot;"));
+    }
+
+    @Test
+    public void compressesPaymentsCsvOnRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin/export/payments").param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andReturn();
+        assertTrue(result.getResponse().getHeader("Content-Disposition").endsWith(".csv.gz\""));
+
+        String csv = gunzip(result.getResponse().getContentAsByteArray());
+        assertEquals(ROWS + 1, csv.split("\r\n").length);
+        assertTrue(csv.contains(",PENDING,2025-06-01 10:00,,"));
+    }
+
+    @Test
+    public void rejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/admin/export/applications").param("format", "pdf"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.m4nas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires a burst of concurrent form logins at the running server and reports
+ * login throughput, login latency percentiles and how long a cheap page takes
+ * to load meanwhile. Run it once on platform threads and once with
+ * -Dbench.virtual-threads=true (Java 21+) to compare the two modes:
+ *
+ * mvn -P benchmark-tests test -Dtest=LoginStormBenchmarkTest -Dbench.logins.concurrency=5000 [-Dbench.virtual-threads=true]
+ *
+ * Logins turned away by the password hashing pool are counted separately
+ * from other failures.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LoginStormBenchmarkTest {
+
+    private static final String PASSWORD = "storm-pass-1";
+    private static final Pattern CSRF_FIELD = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern CSRF_COOKIE = Pattern.compile("XSRF-TOKEN=([^;]*)");
+
+    @DynamicPropertySource
+    static void threading(DynamicPropertyRegistry registry) {
+        registry.add("spring.threads.virtual.enabled", () -> Boolean.getBoolean("bench.virtual-threads"));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private int users;
+
+    @BeforeAll
+    public void seed() {
+        users = Integer.getInteger("bench.logins.users", 200);
+        // One hash shared by every account, so seeding costs a single BCrypt
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{String.format("S%015d", i), email(i), "Storm Student " + i, "ROLE_USER", true, hash});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_dtls (id, email, full_name, role, enable, password) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterAll
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM user_dtls WHERE email LIKE 'storm%@bench.local'");
+    }
+
+    @Test
+    public void loginStorm() throws Exception {
+        int concurrency = Integer.getInteger("bench.logins.concurrency", 5000);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        for (int i = 0; i < 20; i++) {
+            login(client, prepare(client).join(), i).join();
+        }
+
+        // Every client holds a sign-in page and CSRF token before the burst starts
+        List<CompletableFuture<String[]>> prepared = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            prepared.add(prepare(client));
+        }
+        CompletableFuture.allOf(prepared.toArray(new CompletableFuture[0])).join();
+
+        double rejectedBefore = rejected();
+        long[] latencies = new long[concurrency];
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean storming = new AtomicBoolean(true);
+        List<Long> probes = new ArrayList<>();
+        Thread prober = new Thread(() -> probe(client, storming, probes), "login-storm-probe");
+
+        long start = System.nanoTime();
+        prober.start();
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            int index = i;
+            long sentAt = System.nanoTime();
+            logins.add(login(client, prepared.get(i).join(), i).handle((location, error) -> {
+                latencies[index] = (System.nanoTime() - sentAt) / 1_000_000;
+                if (error == null && location != null && !location.contains("error")) {
+                    succeeded.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(logins.toArray(new CompletableFuture[0])).join();
+        long wallMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        storming.set(false);
+        prober.join();
+
+        long rejected = Math.round(rejected() - rejectedBefore);
+        Arrays.sort(latencies);
+        long[] probeLatencies = probes.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("login storm (%s threads, Java %d): %d concurrent -> %d ok, %d rejected by hashing pool, %d other failures; "
+                        + "%.0f logins/s, p50 %d ms, p99 %d ms, max %d ms; cheap page p99 %d ms over %d probes%n",
+                virtualThreads() ? "virtual" : "platform", Runtime.version().feature(),
+                concurrency, succeeded.get(), rejected, failed.get() - rejected,
+                succeeded.get() * 1000.0 / wallMs, percentile(latencies, 50), percentile(latencies, 99),
+                latencies[latencies.length - 1], percentile(probeLatencies, 99), probeLatencies.length);
+        assertTrue(succeeded.get() > 0, "no login succeeded");
+    }
+
+    /** Loads the sign-in page; returns the CSRF cookie and the masked form token. */
+    private CompletableFuture<String[]> prepare(HttpClient client) {
+        HttpRequest request = HttpRequest.newBuilder(url("/signin")).GET().build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            String cookie = response.headers().allValues("Set-Cookie").stream()
+                    .map(CSRF_COOKIE::matcher).filter(Matcher::find).map(m -> m.group(1))
+                    .findFirst().orElseThrow(() -> new IllegalStateException("No CSRF cookie"));
+            Matcher field = CSRF_FIELD.matcher(response.body());
+            if (!field.find()) {
+                throw new IllegalStateException("No CSRF field");
+            }
+            return new String[]{cookie, field.group(1)};
+        });
+    }
+
+    /** Posts the login form; completes with the redirect target. */
+    private CompletableFuture<String> login(HttpClient client, String[] csrf, int i) {
+        String form = "email=" + encode(email(i % users)) + "&password=" + encode(PASSWORD) + "&_csrf=" + encode(csrf[1]);
+        HttpRequest request = HttpRequest.newBuilder(url("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Cookie", "XSRF-TOKEN=" + csrf[0])
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.headers().firstValue("Location").orElse(null));
+    }
+
+    /** Times a page that needs no hashing, every 50ms while the storm lasts. */
+    private void probe(HttpClient client, AtomicBoolean storming, List<Long> probes) {
+        HttpRequest request = HttpRequest.newBuilder(url("/signin")).GET().build();
+        while (storming.get()) {
+            long start = System.nanoTime();
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                probes.add((System.nanoTime() - start) / 1_000_000);
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                probes.add((System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    /** Spring ignores the setting before Java 21. */
+    private static boolean virtualThreads() {
+        return Boolean.getBoolean("bench.virtual-threads") && Runtime.version().feature() >= 21;
+    }
+
+    private double rejected() {
+        return meterRegistry.get("password.hashing.rejected").counter().count();
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String email(int i) {
+        return "storm" + i + "@bench.local";
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile / 100.0) - 1)];
+    }
+}
@@ -0,0 +1,172 @@
+package com.m4nas;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.m4nas.model.OutboxMail;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.OutboxMailRepository;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.MailOutboxService;
+import com.m4nas.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.m4nas.TestAwait.awaitTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mail is written to the outbox inside the caller's transaction and delivered
+ * by the background workers against an embedded SMTP server, with retries and
+ * dead-lettering when the server is down.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class MailOutboxTest {
+
+    /** Matches spring.mail.* in application-test.properties. */
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("test", "test"));
+
+    private static final String STUDENT_EMAIL = "outbox-student@test.local";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        outboxMailRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        awaitTrue(() -> outboxMailRepository.countByStatus(OutboxMail.SENDING) == 0);
+        outboxMailRepository.deleteAll();
+        UserDtls student = userRepo.findByEmail(STUDENT_EMAIL);
+        if (student != null) {
+            userRepo.delete(student);
+        }
+    }
+
+    @Test
+    public void registrationMailIsSentAfterCommit() throws Exception {
+        userService.createUser(student(), "http://localhost:8080");
+
+        assertTrue(greenMail.waitForIncomingEmail(10000, 1));
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        assertEquals("Account Verification", message.getSubject());
+        assertEquals(STUDENT_EMAIL, message.getAllRecipients()[0].toString());
+        assertTrue(GreenMailUtil.getBody(message).contains("verify?code="));
+
+        awaitTrue(() -> outboxMailRepository.countByStatus(OutboxMail.SENT) == 1);
+    }
+
+    @Test
+    public void rolledBackRegistrationSendsNothing() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.createUser(student(), "http://localhost:8080");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxMailRepository.count());
+        assertFalse(greenMail.waitForIncomingEmail(1000, 1));
+    }
+
+    @Test
+    public void failedDeliveryIsRetriedWithBackoff() {
+        greenMail.stop();
+        try {
+            assertTrue(userService.sendForgotPasswordOTP(STUDENT_EMAIL, 123456));
+            awaitTrue(() -> outboxMailRepository.findAll().get(0).getAttempts() >= 1);
+        } finally {
+            greenMail.start();
+        }
+
+        OutboxMail mail = outboxMailRepository.findAll().get(0);
+        assertNotNull(mail.getLastError());
+        assertTrue(greenMail.waitForIncomingEmail(10000, 1));
+        awaitTrue(() -> OutboxMail.SENT.equals(outboxMailRepository.findAll().get(0).getStatus()));
+    }
+
+    @Test
+    public void deliveryIsDeadLetteredAfterMaxAttempts() {
+        double deadBefore = meterRegistry.counter("mail.outbox.dead").count();
+        greenMail.stop();
+        try {
+            mailOutboxService.enqueue(STUDENT_EMAIL, "Password Reset OTP", "<p>123456</p>");
+            awaitTrue(() -> OutboxMail.DEAD.equals(outboxMailRepository.findAll().get(0).getStatus()));
+        } finally {
+            greenMail.start();
+        }
+
+        OutboxMail mail = outboxMailRepository.findAll().get(0);
+        assertEquals(3, mail.getAttempts());
+        assertEquals(deadBefore + 1, meterRegistry.counter("mail.outbox.dead").count());
+
+        // Dead mail is not picked up again
+        mailOutboxService.dispatchDue();
+        assertFalse(greenMail.waitForIncomingEmail(500, 1));
+    }
+
+    @Test
+    public void burstIsDrainedByTheWorkerPool() {
+        double sentBefore = meterRegistry.counter("mail.outbox.sent").count();
+        long lagBefore = meterRegistry.timer("mail.outbox.lag").count();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < 100; i++) {
+                mailOutboxService.enqueue("student" + i + "@test.local", "Notice " + i, "<p>Notice " + i + "</p>");
+            }
+        });
+
+        assertTrue(greenMail.waitForIncomingEmail(30000, 100));
+        awaitTrue(() -> outboxMailRepository.countByStatus(OutboxMail.SENT) == 100);
+        // Counted before the batch's status update commits, so never behind the rows
+        assertEquals(sentBefore + 100, meterRegistry.counter("mail.outbox.sent").count());
+        assertEquals(lagBefore + 100, meterRegistry.timer("mail.outbox.lag").count());
+        assertNotNull(meterRegistry.find("mail.outbox.pending").gauge());
+
+        List<OutboxMail> sent = outboxMailRepository.findAll();
+        assertTrue(sent.stream().allMatch(mail -> mail.getSentAt() != null && !mail.getSentAt().isAfter(LocalDateTime.now())));
+    }
+
+    private static UserDtls student() {
+        UserDtls user = new UserDtls();
+        user.setEmail(STUDENT_EMAIL);
+        user.setFullName("Ravi Kumar");
+        user.setPassword("secret123");
+        return user;
+    }
+}
@@ -0,0 +1,63 @@
+package com.m4nas;
+
+import com.m4nas.mail.MailTemplate;
+import com.m4nas.mail.MailTemplateEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mail templates are parsed once and render the same text the old
+ * String.replace chain produced, with values HTML-escaped.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class MailTemplateTest {
+
+    @Autowired
+    private MailTemplateEngine mailTemplates;
+
+    @Test
+    public void placeholdersAreReplacedEverywhereAndEscaped() {
+        MailTemplate template = MailTemplate.parse("<a href=\"[[URL]]\">[[URL]]</a> Hi [[ name ]], [[unknown]] [[open");
+        assertEquals(List.of("URL", "URL", "name", "unknown"), template.getPlaceholders());
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, Map.of("URL", "http://x/verify?code=a&b=1", "name", "<Asha>"));
+        assertEquals("<a href=\"http://x/verify?code=a&amp;b=1\">http://x/verify?code=a&amp;b=1</a> Hi &lt;Asha&gt;, [[unknown]] [[open",
+                out.toString());
+    }
+
+    @Test
+    public void classpathTemplatesRenderAllPlaceholders() {
+        String verification = mailTemplates.render("verification-mail-template",
+                Map.of("name", "Asha Verma", "URL", "http://localhost:8080/verify?code=abc"));
+        assertTrue(verification.contains("Asha Verma"));
+        assertTrue(verification.contains("http://localhost:8080/verify?code=abc"));
+        assertFalse(verification.contains("[["));
+
+        String otp = mailTemplates.render("forget_otp_mail", Map.of("name", "User", "otp", 123456));
+        assertTrue(otp.contains("123456"));
+        assertFalse(otp.contains("[["));
+
+        // The per-thread buffer is reused, earlier results are unaffected
+        assertTrue(verification.contains("Asha Verma"));
+    }
+
+    @Test
+    public void thymeleafTemplatesRenderWithCacheOn() {
+        String body = mailTemplates.renderThymeleaf("test-notice",
+                Map.of("name", "Ravi & Co", "items", List.of("Fee receipt", "Hostel form")));
+        assertTrue(body.contains("Dear <span>Ravi &amp; Co</span>"));
+        assertTrue(body.contains("<li>Fee receipt</li>"));
+        assertTrue(body.contains("<li>Hostel form</li>"));
+    }
+}
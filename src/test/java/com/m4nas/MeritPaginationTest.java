@@ -0,0 +1,104 @@
+package com.m4nas;
+
+import com.m4nas.dto.ApplicationPage;
+import com.m4nas.model.UserApplication;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.service.UserApplicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Walks the keyset-paginated merit list page by page and checks it matches
+ * a full in-memory sort, including ties and null percentages / dates.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class MeritPaginationTest {
+
+    private static final Comparator<UserApplication> MERIT_ORDER = Comparator
+            .comparing(UserApplication::getPercentage12, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(UserApplication::getSubmissionDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(UserApplication::getId);
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @BeforeEach
+    public void seed() {
+        for (int i = 0; i < 137; i++) {
+            UserApplication app = new UserApplication();
+            app.setId(String.format("M%03d", i));
+            app.setUserEmail("merit" + i + "@test.local");
+            app.setStatus(i % 3 == 0 ? "APPROVED" : "SUBMITTED");
+            app.setCourse(i % 2 == 0 ? "BTECH" : "BSC");
+            app.setBranch1(i % 4 < 2 ? "CSE" : "ECE");
+            // Few distinct values so ties on percentage and date are common
+            app.setPercentage12(i % 11 == 0 ? null : 60.0 + (i % 7) * 5);
+            app.setSubmissionDate(i % 13 == 0 ? null : LocalDate.of(2025, 6, 1 + i % 5));
+            applicationRepo.save(app);
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        applicationRepo.deleteAll();
+    }
+
+    @Test
+    public void pagesMatchFullMeritSort() {
+        assertPagingMatches(null, null, null);
+    }
+
+    @Test
+    public void filteredPagesMatchFullMeritSort() {
+        assertPagingMatches("SUBMITTED", null, null);
+        assertPagingMatches(null, "BTECH", "CSE");
+    }
+
+    private void assertPagingMatches(String status, String course, String branch) {
+        List<String> expected = applicationRepo.findAll().stream()
+                .filter(a -> status == null || status.equals(a.getStatus()))
+                .filter(a -> course == null || course.equals(a.getCourse()))
+                .filter(a -> branch == null || branch.equals(a.getBranch1()))
+                .sorted(MERIT_ORDER)
+                .map(UserApplication::getId)
+                .collect(Collectors.toList());
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ApplicationPage page = userApplicationService.getMeritPage(status, course, branch, cursor, 10);
+            assertEquals(paged.size(), page.getRankOffset());
+            page.getApplications().forEach(a -> paged.add(a.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, paged);
+        assertEquals(Math.max(1, (expected.size() + 9) / 10), pages);
+    }
+
+    @Test
+    public void lastPageHasNoCursor() {
+        ApplicationPage page = userApplicationService.getMeritPage(null, null, null, null, 500);
+        assertEquals(137, page.getApplications().size());
+        assertNull(page.getNextCursor());
+    }
+}
@@ -0,0 +1,112 @@
+package com.m4nas;
+
+import com.m4nas.model.Payment;
+import com.m4nas.repository.PaymentRepository;
+import com.m4nas.service.DashboardCounters;
+import com.m4nas.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Service, repository and pool metrics are recorded, the business gauges
+ * follow the data, and /actuator/prometheus serves them (with histogram
+ * buckets for the main pages) to the scrape credential only. Tests run without metrics
+ * export unless asked, hence @AutoConfigureObservability.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+public class MetricsTest {
+
+    private static final String PAYER = "metrics-student@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @AfterEach
+    public void cleanUp() {
+        paymentRepository.deleteAll(paymentRepository.findByUserEmailOrderBySubmissionDateDesc(PAYER));
+    }
+
+    @Test
+    public void serviceAndRepositoryCallsAreTimed() {
+        userService.checkEmail("nobody@test.local");
+
+        Timer service = meterRegistry.find("app.service").tag("method", "checkEmail").tag("exception", "none").timer();
+        assertNotNull(service);
+        assertTrue(service.count() > 0);
+        Timer repository = meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "UserRepository").tag("method", "existsByEmail").timer();
+        assertNotNull(repository);
+        assertTrue(repository.count() > 0);
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").gauge());
+    }
+
+    @Test
+    public void businessGaugesFollowTheData() {
+        double pending = meterRegistry.get("admission.payments").tag("status", "PENDING").gauge().value();
+        paymentRepository.save(new Payment(PAYER, "Meera Pillai", "B.Tech", "Civil", 50000.0, "UPI", "TXN-METRICS", null, null));
+        assertEquals(pending + 1, meterRegistry.get("admission.payments").tag("status", "PENDING").gauge().value());
+
+        assertEquals(dashboardCounters.countByStatus("SUBMITTED"),
+                meterRegistry.get("admission.applications").tag("status", "SUBMITTED").gauge().value());
+    }
+
+    @Test
+    public void prometheusEndpointNeedsTheScrapeCredential() throws Exception {
+        mockMvc.perform(get("/admin/").with(user("admin@test.local").authorities(() -> "ROLE_ADMIN")));
+
+        MvcResult scraped = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String scrape = scraped.getResponse().getContentAsString();
+        assertTrue(scrape.contains("app_service_seconds_count{"));
+        assertTrue(scrape.contains("admission_payments{"));
+        assertTrue(scrape.contains("hikaricp_connections_active{"));
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket{") && line.contains("uri=\"/admin/\"")));
+        // Stateless: a scrape every few seconds leaves no session behind
+        assertNull(scraped.getRequest().getSession(false));
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        // The scrape credential reads metrics and nothing else; admins do not scrape
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin@test.local", "admin123")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(user(PAYER).authorities(() -> "ROLE_USER")))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,309 @@
+package com.m4nas;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.m4nas.dto.OtpResult;
+import com.m4nas.model.OtpCode;
+import com.m4nas.model.OutboxMail;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.OtpCodeRepository;
+import com.m4nas.repository.OutboxMailRepository;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.OtpServiceImpl;
+import com.m4nas.util.TimingWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+/**
+ * Password-reset codes are held by the OTP store rather than the session, are
+ * throttled per email and per client, and allow a fixed number of guesses no
+ * matter how many requests race each other.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OtpServiceTest {
+
+    /** Matches spring.mail.* in application-test.properties. */
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("test", "test"));
+
+    private static final String STUDENT_EMAIL = "otp-student@test.local";
+    private static final Pattern MAILED_CODE = Pattern.compile("otp-code\">(\\d{6})<");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OtpServiceImpl otpService;
+
+    @Autowired
+    private OtpCodeRepository otpCodeRepository;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    public void tearDown() {
+        UserDtls student = userRepo.findByEmail(STUDENT_EMAIL);
+        if (student != null) {
+            userRepo.delete(student);
+        }
+    }
+
+    @Test
+    public void passwordResetNeedsNoSession() throws Exception {
+        UserDtls student = new UserDtls();
+        student.setId("OTPSTUDENT000001");
+        student.setEmail(STUDENT_EMAIL);
+        student.setFullName("Meera Iyer");
+        student.setPassword(passwordEncoder.encode("oldpass123"));
+        userRepo.save(student);
+
+        // Every step is a separate request without a session, as if each hit a different node
+        mockMvc.perform(post("/send-otp").param("email", STUDENT_EMAIL).with(csrf()))
+                .andExpect(redirectedUrl("/verify-otp-page?email=" + STUDENT_EMAIL.replace("@", "%40")));
+        String code = mailedCode();
+
+        mockMvc.perform(get("/verify-otp-page").param("email", STUDENT_EMAIL))
+                .andExpect(status().isOk())
+                .andExpect(view().name("verify_otp"));
+
+        mockMvc.perform(post("/verify-otp").param("email", STUDENT_EMAIL).param("otp", wrong(code)).with(csrf()))
+                .andExpect(view().name("verify_otp"))
+                .andExpect(model().attribute("error", "Invalid OTP! 4 attempts left."));
+
+        MvcResult verified = mockMvc.perform(post("/verify-otp").param("email", STUDENT_EMAIL).param("otp", code).with(csrf()))
+                .andExpect(view().name("reset_password"))
+                .andReturn();
+        String token = (String) verified.getModelAndView().getModel().get("token");
+        assertNotNull(token);
+
+        mockMvc.perform(post("/reset-password").param("email", STUDENT_EMAIL).param("token", token)
+                        .param("password", "newpass456").param("confirmPassword", "newpass456").with(csrf()))
+                .andExpect(view().name("signin"));
+        assertTrue(passwordEncoder.matches("newpass456", userRepo.findByEmail(STUDENT_EMAIL).getPassword()));
+
+        // Codes and tokens are single use
+        mockMvc.perform(post("/reset-password").param("email", STUDENT_EMAIL).param("token", token)
+                        .param("password", "hijacked1").param("confirmPassword", "hijacked1").with(csrf()))
+                .andExpect(view().name("forget_password"));
+        mockMvc.perform(post("/verify-otp").param("email", STUDENT_EMAIL).param("otp", code).with(csrf()))
+                .andExpect(view().name("forget_password"));
+        mockMvc.perform(get("/verify-otp-page").param("email", STUDENT_EMAIL))
+                .andExpect(redirectedUrl("/forgot-password"));
+    }
+
+    @Test
+    public void concurrentRequestsStayWithinBuckets() throws Exception {
+        // Per email: each of 20 addresses hammered from distinct clients gets exactly its burst of 3
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            emails.add("burst-" + i + "-" + UUID.randomUUID() + "@test.local");
+        }
+        Map<String, AtomicInteger> issuedPerEmail = new ConcurrentHashMap<>();
+        AtomicInteger throttled = new AtomicInteger();
+        runConcurrently(64, 2000, i -> {
+            String email = emails.get(i % emails.size());
+            OtpResult result = otpService.issue(email, "10.1." + (i / 250) + "." + (i % 250));
+            if (result.getStatus() == OtpResult.Status.ISSUED) {
+                issuedPerEmail.computeIfAbsent(email, e -> new AtomicInteger()).incrementAndGet();
+            } else {
+                assertTrue(result.getRetryAfterSeconds() > 0);
+                throttled.incrementAndGet();
+            }
+        });
+        for (String email : emails) {
+            assertEquals(3, issuedPerEmail.get(email).get(), email);
+        }
+        assertEquals(2000 - 60, throttled.get());
+
+        // Per client: one address asking for many emails gets its burst of 10
+        String client = "10.2.0." + (System.nanoTime() % 250);
+        AtomicInteger issuedToClient = new AtomicInteger();
+        runConcurrently(32, 500, i -> {
+            if (otpService.issue("client-" + UUID.randomUUID() + "@test.local", client).getStatus() == OtpResult.Status.ISSUED) {
+                issuedToClient.incrementAndGet();
+            }
+        });
+        assertEquals(10, issuedToClient.get());
+    }
+
+    @Test
+    public void concurrentGuessesNeverExceedAttemptLimit() throws Exception {
+        // Wrong guesses racing each other: exactly 4 are answered INVALID, then the code is gone
+        String email = "guess-" + UUID.randomUUID() + "@test.local";
+        String code = Integer.toString(otpService.issue(email, null).getCode());
+        Map<OtpResult.Status, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        runConcurrently(32, 1000, i -> outcomes.computeIfAbsent(otpService.verify(email, wrong(code)).getStatus(),
+                s -> new AtomicInteger()).incrementAndGet());
+        assertEquals(4, outcomes.get(OtpResult.Status.INVALID).get());
+        assertFalse(outcomes.containsKey(OtpResult.Status.VALID));
+        assertEquals(OtpResult.Status.EXPIRED, otpService.verify(email, code).getStatus());
+
+        // The right code racing itself: one winner per code, and one password change per token
+        for (int round = 0; round < 50; round++) {
+            String racer = "race-" + round + "-" + UUID.randomUUID() + "@test.local";
+            String racerCode = Integer.toString(otpService.issue(racer, null).getCode());
+            List<String> tokens = new ArrayList<>();
+            runConcurrently(8, 8, i -> {
+                OtpResult result = otpService.verify(racer, racerCode);
+                if (result.getStatus() == OtpResult.Status.VALID) {
+                    synchronized (tokens) {
+                        tokens.add(result.getResetToken());
+                    }
+                }
+            });
+            assertEquals(1, tokens.size());
+            AtomicInteger consumed = new AtomicInteger();
+            runConcurrently(8, 8, i -> {
+                if (otpService.consumeResetToken(racer, tokens.get(0))) {
+                    consumed.incrementAndGet();
+                }
+            });
+            assertEquals(1, consumed.get());
+        }
+    }
+
+    @Test
+    public void expiredCodesAreRefusedAndPurged() {
+        String email = "expiry-" + UUID.randomUUID() + "@test.local";
+        String code = Integer.toString(otpService.issue(email, null).getCode());
+        assertTrue(otpService.hasPendingCode(email));
+
+        // Any node reads the same row, so ageing it stands in for the clock moving on
+        OtpCode row = otpCodeRepository.findById(email).orElseThrow();
+        row.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        otpCodeRepository.save(row);
+
+        assertFalse(otpService.hasPendingCode(email));
+        assertEquals(OtpResult.Status.EXPIRED, otpService.verify(email, code).getStatus());
+        otpService.purgeExpired();
+        assertFalse(otpCodeRepository.existsById(email));
+    }
+
+    @Test
+    public void timingWheelFiresOnceAfterDeadline() throws Exception {
+        try (TimingWheel wheel = new TimingWheel(5, TimeUnit.MILLISECONDS, 16, "test-wheel")) {
+            int tasks = 20000;
+            AtomicInteger fired = new AtomicInteger();
+            AtomicInteger early = new AtomicInteger();
+            AtomicInteger cancelledFired = new AtomicInteger();
+            AtomicLong latestDeadline = new AtomicLong();
+            runConcurrently(16, tasks, i -> {
+                // Delays span several revolutions of the 16-slot wheel; cancelling comes well before any fires
+                long delayMillis = 50 + i % 400;
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+                latestDeadline.accumulateAndGet(deadline, Math::max);
+                boolean cancel = i % 2 == 0;
+                TimingWheel.Timeout timeout = wheel.schedule(() -> {
+                    if (cancel) {
+                        cancelledFired.incrementAndGet();
+                    }
+                    if (System.nanoTime() < deadline) {
+                        early.incrementAndGet();
+                    }
+                    fired.incrementAndGet();
+                }, delayMillis, TimeUnit.MILLISECONDS);
+                if (cancel) {
+                    timeout.cancel();
+                }
+            });
+            long deadline = System.currentTimeMillis() + 10000;
+            while ((fired.get() < tasks / 2 || wheel.size() > 0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(tasks / 2, fired.get());
+            assertEquals(0, cancelledFired.get());
+            assertEquals(0, early.get());
+            assertEquals(0, wheel.size());
+            assertTrue(System.nanoTime() >= latestDeadline.get());
+        }
+    }
+
+    private String mailedCode() {
+        OutboxMail mail = outboxMailRepository.findAll().stream()
+                .filter(m -> STUDENT_EMAIL.equals(m.getRecipient()))
+                .max(Comparator.comparing(OutboxMail::getId))
+                .orElseThrow();
+        Matcher matcher = MAILED_CODE.matcher(mail.getBody());
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+
+    private static String wrong(String code) {
+        return code.equals("999999") ? "100000" : Integer.toString(Integer.parseInt(code) + 1);
+    }
+
+    private interface Task {
+        void run(int index) throws Exception;
+    }
+
+    /** Runs count tasks on the given number of threads, released together to maximise contention. */
+    private static void runConcurrently(int threads, int count, Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
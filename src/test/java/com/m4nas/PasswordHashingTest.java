@@ -0,0 +1,129 @@
+package com.m4nas;
+
+import com.m4nas.config.BoundedPasswordEncoder;
+import com.m4nas.config.PasswordHashingBusyException;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.m4nas.TestAwait.awaitTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+/**
+ * Password hashing runs on a bounded pool that turns callers away when
+ * saturated, and hashes made at another BCrypt cost are replaced on login.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PasswordHashingTest {
+
+    private static final String STUDENT_EMAIL = "hashing-student@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void tearDown() {
+        UserDtls student = userRepo.findByEmail(STUDENT_EMAIL);
+        if (student != null) {
+            userRepo.delete(student);
+        }
+    }
+
+    @Test
+    public void loginRehashesAtConfiguredCost() throws Exception {
+        UserDtls student = new UserDtls();
+        student.setId("HASHSTUDENT00001");
+        student.setEmail(STUDENT_EMAIL);
+        student.setFullName("Arjun Menon");
+        student.setRole("ROLE_USER");
+        student.setEnable(true);
+        student.setPassword(new BCryptPasswordEncoder(4).encode("secret123"));
+        userRepo.save(student);
+        assertTrue(passwordEncoder.upgradeEncoding(student.getPassword()));
+
+        mockMvc.perform(post("/login").param("email", STUDENT_EMAIL).param("password", "wrong-password").with(csrf()))
+                .andExpect(redirectedUrl("/signin?error"));
+        assertTrue(userRepo.findByEmail(STUDENT_EMAIL).getPassword().startsWith("$2a$04$"));
+
+        mockMvc.perform(post("/login").param("email", STUDENT_EMAIL).param("password", "secret123").with(csrf()));
+        String rehashed = userRepo.findByEmail(STUDENT_EMAIL).getPassword();
+        assertTrue(rehashed.startsWith("$2a$10$"), rehashed);
+        assertTrue(passwordEncoder.matches("secret123", rehashed));
+        assertFalse(passwordEncoder.upgradeEncoding(rehashed));
+
+        assertTrue(meterRegistry.get("password.hashing").tag("operation", "matches").timer().count() > 0);
+    }
+
+    @Test
+    public void saturatedPoolRejectsAtOnce() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(13, 1, 1, 60000, new SimpleMeterRegistry());
+        try {
+            // One hash running, one queued: the pool and its queue are full
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+            awaitTrue(() -> encoder.getActiveCount() == 1);
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+            awaitTrue(() -> encoder.getQueueDepth() == 1);
+
+            long start = System.nanoTime();
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(millis < 50, "rejection took " + millis + "ms");
+
+            // Work already accepted still completes
+            String first = running.get();
+            String second = queued.get();
+            assertTrue(encoder.matches("first", first));
+            assertTrue(encoder.matches("second", second));
+        } finally {
+            encoder.shutdown();
+        }
+
+        // A hash that cannot finish in time releases the caller, though the thread finishes it
+        BoundedPasswordEncoder impatient = new BoundedPasswordEncoder(14, 1, 1, 20, new SimpleMeterRegistry());
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> impatient.encode("slow"));
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    @Test
+    public void calibrationPicksStrengthForTarget() {
+        assertEquals(4, BoundedPasswordEncoder.calibrateStrength(0));
+        int strength = BoundedPasswordEncoder.calibrateStrength(100);
+        assertTrue(strength >= 4 && strength <= 16);
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(strength).encode("calibration");
+        // Well inside twice the target, allowing for a noisy machine
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 400);
+    }
+}
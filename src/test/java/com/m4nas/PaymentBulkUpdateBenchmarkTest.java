@@ -0,0 +1,109 @@
+package com.m4nas;
+
+import com.m4nas.dto.BulkUpdateResult;
+import com.m4nas.dto.PaymentStatusChange;
+import com.m4nas.model.Payment;
+import com.m4nas.repository.PaymentRepository;
+import com.m4nas.service.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a 1k-row payment status submission applied one row at a time
+ * (findById + save per row) against PaymentService.bulkUpdateStatus.
+ * Require a larger speed-up with -Dbench.payment-bulk.min-speedup=...
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class PaymentBulkUpdateBenchmarkTest {
+
+    private static final int ROWS = 1000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        paymentRepository.deleteAll();
+    }
+
+    @Test
+    public void bulkUpdateOutperformsPerRowUpdates() {
+        List<Long> ids = seedPayments();
+        double minSpeedup = Double.parseDouble(System.getProperty("bench.payment-bulk.min-speedup", "1.5"));
+
+        long perRowBest = Long.MAX_VALUE;
+        long bulkBest = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            Payment.PaymentStatus status = run % 2 == 0 ? Payment.PaymentStatus.VERIFIED : Payment.PaymentStatus.REJECTED;
+
+            long start = System.nanoTime();
+            for (Long id : ids) {
+                paymentService.updatePaymentStatus(id, status, "bench@test.local");
+            }
+            perRowBest = Math.min(perRowBest, System.nanoTime() - start);
+
+            List<PaymentStatusChange> changes = new ArrayList<>();
+            for (Long id : ids) {
+                changes.add(new PaymentStatusChange(id, Payment.PaymentStatus.PENDING));
+            }
+            start = System.nanoTime();
+            BulkUpdateResult<PaymentStatusChange> result = paymentService.bulkUpdateStatus(changes, "bench@test.local");
+            bulkBest = Math.min(bulkBest, System.nanoTime() - start);
+            assertEquals(ROWS, result.getSucceeded());
+        }
+
+        double perRowPerSec = ROWS / (perRowBest / 1e9);
+        double bulkPerSec = ROWS / (bulkBest / 1e9);
+        System.out.printf("Payment status updates, %d rows: per-row %.0f rows/s, bulk %.0f rows/s (%.1fx)%n",
+                ROWS, perRowPerSec, bulkPerSec, bulkPerSec / perRowPerSec);
+        assertTrue(bulkPerSec >= perRowPerSec * minSpeedup,
+                String.format("Bulk update only %.1fx faster than per-row updates", bulkPerSec / perRowPerSec));
+
+        assertEquals(ROWS, paymentRepository.findByStatus(Payment.PaymentStatus.PENDING).size());
+    }
+
+    @Test
+    public void reportsMissingPaymentsPerRow() {
+        List<Long> ids = seedPayments();
+        List<PaymentStatusChange> changes = List.of(
+                new PaymentStatusChange(ids.get(0), Payment.PaymentStatus.VERIFIED),
+                new PaymentStatusChange(-1L, Payment.PaymentStatus.VERIFIED));
+
+        BulkUpdateResult<PaymentStatusChange> result = paymentService.bulkUpdateStatus(changes, "teacher@test.local");
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals("Payment not found", result.getOutcomes().get(1).getMessage());
+        Payment verified = paymentRepository.findById(ids.get(0)).orElseThrow();
+        assertEquals(Payment.PaymentStatus.VERIFIED, verified.getStatus());
+        assertEquals("teacher@test.local", verified.getVerifiedBy());
+    }
+
+    private List<Long> seedPayments() {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            payments.add(new Payment("payer" + i + "@bench.local", "Payer " + i, "BTECH", "CSE",
+                    50000.0, "UPI", "TXN" + i, null, null));
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Payment payment : paymentRepository.saveAll(payments)) {
+            ids.add(payment.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,129 @@
+package com.m4nas;
+
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.util.RandomString;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Loads 10k payments and 50k applications and checks that the payment
+ * management page stays within a fixed latency budget.
+ * Override the budget with -Dbench.payment-page.budget-ms=...
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(username = PaymentManagementBenchmarkTest.TEACHER_EMAIL, authorities = "ROLE_TEACHER")
+public class PaymentManagementBenchmarkTest {
+
+    static final String TEACHER_EMAIL = "bench-teacher@test.local";
+
+    private static final int APPLICATIONS = 50_000;
+    private static final int PAYMENTS = 10_000;
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @BeforeAll
+    public void seed() {
+        UserDtls teacher = new UserDtls();
+        teacher.setId(RandomString.generateUserId());
+        teacher.setEmail(TEACHER_EMAIL);
+        teacher.setFullName("Bench Teacher");
+        teacher.setRole("ROLE_TEACHER");
+        teacher.setEnable(true);
+        userRepo.save(teacher);
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> applications = new ArrayList<>();
+        for (int i = 0; i < APPLICATIONS; i++) {
+            String id = String.format("B%015d", i);
+            String email = "applicant" + i + "@bench.local";
+            users.add(new Object[]{id, email, "Applicant " + i, "ROLE_USER", true});
+            applications.add(new Object[]{id, email, "98" + String.format("%08d", i), "SUBMITTED", false});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_dtls (id, email, full_name, role, enable) VALUES (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_applications (id, user_email, phone_no, status, seat_accepted) VALUES (?, ?, ?, ?, ?)", applications);
+
+        List<Object[]> payments = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < PAYMENTS; i++) {
+            // Spread payments across the applicant population
+            int applicant = (i * 5) % APPLICATIONS;
+            payments.add(new Object[]{"applicant" + applicant + "@bench.local", "Applicant " + applicant, "BTECH", "CSE",
+                    50000.0, "UPI", "TXN" + i, "PENDING", now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payments (user_email, student_name, course, branch, amount, payment_method, "
+                + "transaction_id, status, submission_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", payments);
+    }
+
+    @AfterAll
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM user_applications");
+        jdbcTemplate.update("DELETE FROM user_dtls WHERE role <> 'ROLE_ADMIN'");
+    }
+
+    @Test
+    public void emailLookupsAreIndexed() {
+        // The unique constraint's backing index is named after the constraint
+        for (String index : List.of("uk_application_user_email", "idx_payment_user_email")) {
+            Integer found = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.indexes WHERE LOWER(index_name) LIKE ?", Integer.class, index + "%");
+            assertTrue(found != null && found > 0, index + " was not created");
+        }
+    }
+
+    @Test
+    public void paymentManagementStaysWithinBudget() throws Exception {
+        long budgetMs = Long.getLong("bench.payment-page.budget-ms", 10_000L);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            mockMvc.perform(get("/teacher/payment-management")).andExpect(status().isOk());
+        }
+
+        long total = 0;
+        long worst = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get("/teacher/payment-management")).andExpect(status().isOk());
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            total += elapsedMs;
+            worst = Math.max(worst, elapsedMs);
+        }
+
+        System.out.printf("payment-management: %d payments / %d applications -> avg %d ms, max %d ms (budget %d ms)%n",
+                PAYMENTS, APPLICATIONS, total / MEASURED_RUNS, worst, budgetMs);
+        assertTrue(worst <= budgetMs, "payment-management took " + worst + " ms, budget is " + budgetMs + " ms");
+    }
+}
@@ -0,0 +1,32 @@
+package com.m4nas;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * One PostgreSQL container shared by the tests that exercise PostgreSQL-only
+ * paths (COPY, expression indexes) and by the load harness, whose numbers
+ * only mean something on the production database. Such a test class is annotated
+ * {@code @Testcontainers(disabledWithoutDocker = true)} and registers these
+ * properties from a {@code @DynamicPropertySource} method, so it is skipped
+ * rather than failed where Docker is not available.
+ */
+final class PostgresTestDatabase {
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private PostgresTestDatabase() {
+    }
+
+    /** Starts the container on first use and points the test profile's datasource at it. */
+    static void register(DynamicPropertyRegistry registry) {
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        // Run schema-postgresql.sql as production does
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+}
@@ -0,0 +1,157 @@
+package com.m4nas;
+
+import com.m4nas.model.Payment;
+import com.m4nas.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Receipts are served to their owner and to staff only, with content-hash
+ * ETags, immutable caching and single byte ranges.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReceiptServingTest {
+
+    private static final String OWNER_EMAIL = "receipt-owner@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Value("${app.receipts.dir}")
+    private String receiptDir;
+
+    private byte[] content;
+    private Path file;
+    private String url;
+    private Payment payment;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        String fileName = UUID.randomUUID() + ".png";
+        Files.createDirectories(Paths.get(receiptDir));
+        file = Files.write(Paths.get(receiptDir, fileName), content);
+        url = "/user/uploads/receipts/" + fileName;
+        payment = paymentRepository.save(new Payment(OWNER_EMAIL, "Anil Rao", "B.Tech", "CSE", 50000.0,
+                "UPI", "TXN-" + fileName, fileName, null));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        paymentRepository.delete(payment);
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void ownerGetsWholeFileWithValidators() throws Exception {
+        MvcResult result = mockMvc.perform(get(url).with(user(OWNER_EMAIL).roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("inline;")))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        assertArrayEquals(content, result.getResponse().getContentAsByteArray());
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(eTag.startsWith("\"") && eTag.length() > 40);
+
+        // Revalidation by either validator
+        mockMvc.perform(get(url).with(user(OWNER_EMAIL).roles("USER")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(url).with(user(OWNER_EMAIL).roles("USER"))
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void rangesAreServedAsPartialContent() throws Exception {
+        MvcResult middle = mockMvc.perform(get(url).with(user("teacher@test.local").roles("TEACHER"))
+                        .header(HttpHeaders.RANGE, "bytes=1000-1999"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1000-1999/" + content.length))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "1000"))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), middle.getResponse().getContentAsByteArray());
+
+        MvcResult suffix = mockMvc.perform(get(url).with(user("admin@test.local").roles("ADMIN"))
+                        .header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(content, content.length - 10, content.length),
+                suffix.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get(url).with(user(OWNER_EMAIL).roles("USER")).header(HttpHeaders.RANGE, "bytes=200000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length));
+
+        // A stale If-Range falls back to the whole file
+        MvcResult stale = mockMvc.perform(get(url).with(user(OWNER_EMAIL).roles("USER"))
+                        .header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(content.length, stale.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    public void otherTypesAreDownloadedRatherThanRendered() throws Exception {
+        String fileName = UUID.randomUUID() + ".html";
+        Path html = Files.write(Paths.get(receiptDir, fileName), "<script>alert(1)</script>".getBytes(StandardCharsets.UTF_8));
+        Payment htmlPayment = paymentRepository.save(new Payment(OWNER_EMAIL, "Anil Rao", "B.Tech", "CSE", 50000.0,
+                "UPI", "TXN-" + fileName, fileName, null));
+        try {
+            mockMvc.perform(get("/user/uploads/receipts/" + fileName).with(user(OWNER_EMAIL).roles("USER")))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment;")))
+                    .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+        } finally {
+            paymentRepository.delete(htmlPayment);
+            Files.deleteIfExists(html);
+        }
+    }
+
+    @Test
+    public void otherStudentsAndUnknownNamesAreRejected() throws Exception {
+        mockMvc.perform(get(url).with(user("someone-else@test.local").roles("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/user/uploads/receipts/" + UUID.randomUUID() + ".png").with(user(OWNER_EMAIL).roles("USER")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/user/uploads/receipts/..%2F..%2Fpom.xml").with(user(OWNER_EMAIL).roles("USER")))
+                .andExpect(status().is4xxClientError());
+    }
+}
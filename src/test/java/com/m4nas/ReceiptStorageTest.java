@@ -0,0 +1,188 @@
+package com.m4nas;
+
+import com.m4nas.model.Payment;
+import com.m4nas.model.ReceiptBlob;
+import com.m4nas.repository.PaymentRepository;
+import com.m4nas.repository.ReceiptBlobRepository;
+import com.m4nas.service.PaymentService;
+import com.m4nas.service.ReceiptService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Receipts are stored once per distinct content in sharded directories,
+ * reference counted across payments, and migrated from the flat layout.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReceiptStorageTest {
+
+    private static final String FIRST_EMAIL = "storage-first@test.local";
+    private static final String SECOND_EMAIL = "storage-second@test.local";
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ReceiptBlobRepository blobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.receipts.dir}")
+    private String receiptDir;
+
+    @AfterEach
+    public void tearDown() {
+        deletePayments(FIRST_EMAIL);
+        deletePayments(SECOND_EMAIL);
+    }
+
+    @Test
+    public void identicalUploadsShareOneReferenceCountedFile() throws Exception {
+        byte[] screenshot = "same UPI screenshot".getBytes(StandardCharsets.UTF_8);
+        Payment first = submit(FIRST_EMAIL, new MockMultipartFile("receipt", "Screenshot.PNG", "image/png", screenshot));
+        Payment second = submit(SECOND_EMAIL, new MockMultipartFile("receipt", "copy.png", "image/png", screenshot));
+        Payment other = submit(SECOND_EMAIL, new MockMultipartFile("receipt", "bank.pdf", "application/pdf", new byte[] {1, 2, 3}));
+
+        String name = first.getReceiptFileName();
+        assertEquals(name, second.getReceiptFileName());
+        assertTrue(name.matches("[0-9a-f]{64}\\.png"));
+        assertNotEquals(name, other.getReceiptFileName());
+
+        String hash = name.substring(0, 64);
+        Path stored = Paths.get(receiptDir, hash.substring(0, 2), hash.substring(2, 4), hash);
+        assertArrayEquals(screenshot, Files.readAllBytes(stored));
+        assertEquals(2, blobRepository.findById(hash).orElseThrow().getRefCount());
+        assertTrue(receiptService.getReceipt(name).isOwnedBy(FIRST_EMAIL));
+        assertTrue(receiptService.getReceipt(name).isOwnedBy(SECOND_EMAIL));
+        assertEquals("\"" + hash + "\"", receiptService.getReceipt(name).getETag());
+
+        // The file outlives the first release and goes with the last
+        deletePayments(FIRST_EMAIL);
+        assertEquals(1, blobRepository.findById(hash).orElseThrow().getRefCount());
+        assertTrue(Files.exists(stored));
+
+        deletePayments(SECOND_EMAIL);
+        assertFalse(blobRepository.existsById(hash));
+        assertFalse(Files.exists(stored));
+        assertNoStagedFiles();
+    }
+
+    @Test
+    public void concurrentReleasesCollectTheFileOnce() throws Exception {
+        byte[] screenshot = ("shared screenshot " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String name = submit(FIRST_EMAIL, new MockMultipartFile("receipt", "a.png", "image/png", screenshot)).getReceiptFileName();
+        submit(SECOND_EMAIL, new MockMultipartFile("receipt", "b.png", "image/png", screenshot));
+        String hash = name.substring(0, 64);
+        Path stored = Paths.get(receiptDir, hash.substring(0, 2), hash.substring(2, 4), hash);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                transaction.executeWithoutResult(status -> receiptService.releaseReceipt(name)));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                transaction.executeWithoutResult(status -> receiptService.releaseReceipt(name)));
+        CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+
+        assertFalse(blobRepository.existsById(hash));
+        assertFalse(Files.exists(stored));
+
+        // The same content uploaded again is stored afresh
+        submit(FIRST_EMAIL, new MockMultipartFile("receipt", "c.png", "image/png", screenshot));
+        assertEquals(1, blobRepository.findById(hash).orElseThrow().getRefCount());
+        assertArrayEquals(screenshot, Files.readAllBytes(stored));
+    }
+
+    @Test
+    public void rolledBackUploadLeavesNothingBehind() throws Exception {
+        byte[] content = ("rolled back " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String name = new TransactionTemplate(transactionManager).execute(status -> {
+            Payment payment = submit(FIRST_EMAIL, new MockMultipartFile("receipt", "r.jpg", "image/jpeg", content));
+            status.setRollbackOnly();
+            return payment.getReceiptFileName();
+        });
+
+        String hash = name.substring(0, 64);
+        assertFalse(blobRepository.existsById(hash));
+        assertFalse(Files.exists(Paths.get(receiptDir, hash.substring(0, 2), hash.substring(2, 4), hash)));
+        assertNoStagedFiles();
+    }
+
+    @Test
+    public void legacyReceiptsAreMigrated() throws Exception {
+        byte[] content = ("legacy receipt " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String legacyName = UUID.randomUUID() + ".jpg";
+        Files.createDirectories(Paths.get(receiptDir));
+        Path legacy = Files.write(Paths.get(receiptDir, legacyName), content);
+        Payment payment = paymentRepository.save(new Payment(FIRST_EMAIL, "Kiran Das", "B.Tech", "ECE", 45000.0,
+                "UPI", "TXN-LEGACY", legacyName, null));
+        assertTrue(receiptService.getReceipt(legacyName).isOwnedBy(FIRST_EMAIL));
+
+        assertTrue(receiptService.migrateLegacyReceipts() >= 1);
+
+        String migrated = paymentRepository.findById(payment.getId()).orElseThrow().getReceiptFileName();
+        assertTrue(migrated.matches("[0-9a-f]{64}\\.jpg"));
+        assertFalse(Files.exists(legacy));
+        ReceiptBlob blob = blobRepository.findById(migrated.substring(0, 64)).orElseThrow();
+        assertEquals(1, blob.getRefCount());
+        assertEquals(content.length, blob.getSize());
+        assertArrayEquals(content, Files.readAllBytes(receiptService.getReceipt(migrated).getPath()));
+
+        // Running it again changes nothing
+        receiptService.migrateLegacyReceipts();
+        assertEquals(migrated, paymentRepository.findById(payment.getId()).orElseThrow().getReceiptFileName());
+        assertEquals(1, blobRepository.findById(migrated.substring(0, 64)).orElseThrow().getRefCount());
+    }
+
+    private Payment submit(String email, MockMultipartFile receipt) {
+        return paymentService.submitPayment(email, "Kiran Das", "B.Tech", "ECE", 45000.0, "UPI",
+                "TXN-" + UUID.randomUUID(), receipt, null);
+    }
+
+    /** Removes a student's payments and releases their receipts, as a payment deletion would. */
+    private void deletePayments(String email) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Payment> payments = paymentRepository.findByUserEmailOrderBySubmissionDateDesc(email);
+            paymentRepository.deleteAll(payments);
+            payments.forEach(payment -> receiptService.releaseReceipt(payment.getReceiptFileName()));
+        });
+    }
+
+    private void assertNoStagedFiles() throws Exception {
+        Path staging = Paths.get(receiptDir, "tmp");
+        if (Files.isDirectory(staging)) {
+            try (Stream<Path> files = Files.list(staging)) {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+}
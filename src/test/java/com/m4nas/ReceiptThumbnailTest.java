@@ -0,0 +1,191 @@
+package com.m4nas;
+
+import com.m4nas.dto.ReceiptFile;
+import com.m4nas.dto.ReceiptVariant;
+import com.m4nas.model.Payment;
+import com.m4nas.repository.PaymentRepository;
+import com.m4nas.service.PaymentService;
+import com.m4nas.service.ReceiptService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.m4nas.TestAwait.awaitTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Image receipts get a thumbnail and a web-size copy in the background, and
+ * the review pages fetch those instead of the original photo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReceiptThumbnailTest {
+
+    private static final String STUDENT_EMAIL = "thumbnail-student@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void tearDown() {
+        deletePayments();
+    }
+
+    @Test
+    public void photoIsServedAsSmallCopies() throws Exception {
+        byte[] photo = phonePhoto(4000, 3000);
+        String name = submit(new MockMultipartFile("receipt", "IMG_2041.png", "image/png", photo));
+
+        awaitTrue(() -> receiptService.getReceipt(name, ReceiptVariant.THUMB) != null
+                && receiptService.getReceipt(name, ReceiptVariant.WEB) != null);
+
+        ReceiptFile thumb = receiptService.getReceipt(name, ReceiptVariant.THUMB);
+        assertEquals(ReceiptVariant.THUMB, thumb.getVariant());
+        BufferedImage thumbImage = ImageIO.read(thumb.getPath().toFile());
+        assertEquals(240, thumbImage.getWidth());
+        assertEquals(180, thumbImage.getHeight());
+        BufferedImage webImage = ImageIO.read(receiptService.getReceipt(name, ReceiptVariant.WEB).getPath().toFile());
+        assertEquals(1280, webImage.getWidth());
+        assertEquals(960, webImage.getHeight());
+
+        MvcResult result = mockMvc.perform(get("/user/uploads/receipts/" + name).param("size", "thumb")
+                        .with(user("teacher@test.local").roles("TEACHER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + name.substring(0, 64) + "-thumb\""))
+                .andReturn();
+        byte[] body = result.getResponse().getContentAsByteArray();
+        // 50 rows of thumbnails stay in the hundreds of KB however large the originals are
+        assertTrue(body.length < 20 * 1024, "thumbnail is " + body.length + " bytes");
+        assertTrue(photo.length > 50 * body.length, "original " + photo.length + " vs thumbnail " + body.length);
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(body)));
+
+        // Copies go with the original
+        Path thumbPath = thumb.getPath();
+        deletePayments();
+        assertFalse(Files.exists(thumbPath));
+    }
+
+    @Test
+    public void documentsHaveNoSmallCopies() throws Exception {
+        String name = submit(new MockMultipartFile("receipt", "bank-statement.pdf", "application/pdf",
+                ("%PDF-1.4 " + UUID.randomUUID()).getBytes()));
+
+        assertNull(receiptService.getReceipt(name, ReceiptVariant.THUMB));
+        mockMvc.perform(get("/user/uploads/receipts/" + name).param("size", "thumb")
+                        .with(user(STUDENT_EMAIL).roles("USER")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/user/uploads/receipts/" + name).param("size", "huge")
+                        .with(user(STUDENT_EMAIL).roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/user/uploads/receipts/" + name).with(user(STUDENT_EMAIL).roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"));
+    }
+
+    @Test
+    public void undecodableImagesAreNotRetried() throws Exception {
+        Counter failed = meterRegistry.counter("receipts.thumbnails.failed");
+        double before = failed.count();
+        String name = submit(new MockMultipartFile("receipt", "broken.png", "image/png",
+                ("not really a PNG " + UUID.randomUUID()).getBytes()));
+        String hash = name.substring(0, 64);
+        Path marker = receiptService.getReceipt(name).getPath().resolveSibling(hash + ".failed");
+
+        awaitTrue(() -> Files.exists(marker));
+        assertEquals(before + 1, failed.count());
+
+        // Further requests find no copy, without queueing another decode, and the page shows its placeholder
+        for (int i = 0; i < 3; i++) {
+            assertNull(receiptService.getReceipt(name, ReceiptVariant.THUMB));
+        }
+        mockMvc.perform(get("/user/uploads/receipts/" + name).param("size", "thumb")
+                        .with(user(STUDENT_EMAIL).roles("USER")))
+                .andExpect(status().isNotFound());
+        Thread.sleep(200);
+        assertEquals(before + 1, failed.count());
+
+        deletePayments();
+        assertFalse(Files.exists(marker));
+    }
+
+    private String submit(MockMultipartFile receipt) {
+        Payment payment = paymentService.submitPayment(STUDENT_EMAIL, "Divya Nair", "B.Tech", "ME", 45000.0, "UPI",
+                "TXN-" + UUID.randomUUID(), receipt, null);
+        return payment.getReceiptFileName();
+    }
+
+    private void deletePayments() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Payment> payments = paymentRepository.findByUserEmailOrderBySubmissionDateDesc(STUDENT_EMAIL);
+            paymentRepository.deleteAll(payments);
+            payments.forEach(payment -> receiptService.releaseReceipt(payment.getReceiptFileName()));
+        });
+    }
+
+    /** Noisy enough that PNG cannot squeeze it, like a real photo. */
+    private static byte[] phonePhoto(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random();
+        for (int y = 0; y < height; y += 4) {
+            for (int x = 0; x < width; x += 4) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(100, 100, 800, 200);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,140 @@
+package com.m4nas;
+
+import com.m4nas.dto.AllocationResult;
+import com.m4nas.dto.SeatMatrix;
+import com.m4nas.model.UserApplication;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.service.DashboardCounters;
+import com.m4nas.service.SeatAllocationEngine;
+import com.m4nas.service.SeatAllocationService;
+import com.m4nas.service.UserApplicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Merit-ordered allocation over branch1/branch2, re-offering declined seats in
+ * later rounds, and determinism of the engine regardless of input order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SeatAllocationTest {
+
+    @Autowired
+    private SeatAllocationService seatAllocationService;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @AfterEach
+    public void cleanUp() {
+        applicationRepo.deleteAll();
+        dashboardCounters.reconcile();
+    }
+
+    @Test
+    public void allocatesByMeritAndReoffersDeclinedSeats() {
+        save("a1", 95.0, "CSE", "ECE", "APPROVED");
+        save("a2", 90.0, "CSE", "ECE", "APPROVED");
+        save("a3", 85.0, "CSE", "ECE", "APPROVED");
+        save("a4", 80.0, "CSE", "ECE", "APPROVED");
+        save("a5", 99.0, "CSE", "ECE", "SUBMITTED");
+
+        SeatMatrix seats = SeatMatrix.parse("B.Tech,CSE,2\nB.Tech,ECE,1");
+        AllocationResult first = seatAllocationService.runAllocationRound(seats);
+
+        assertEquals(4, first.getCandidates());
+        assertEquals(3, first.getAllocated());
+        assertEquals(2, first.getFirstPreference());
+        assertEquals("CSE", branchOf("a1"));
+        assertEquals("CSE", branchOf("a2"));
+        assertEquals("ECE", branchOf("a3"));
+        assertNull(branchOf("a4"));
+        assertNull(branchOf("a5"));
+        assertEquals(3, dashboardCounters.countByStatus("ALLOCATED"));
+        assertEquals(0, first.getSeatsLeft().get("B.Tech / CSE"));
+        assertEquals(0, first.getSeatsLeft().get("B.Tech / ECE"));
+
+        userApplicationService.declineSeat("a2");
+        AllocationResult second = seatAllocationService.runAllocationRound(seats);
+
+        assertEquals(1, second.getCandidates());
+        assertEquals(1, second.getAllocated());
+        assertEquals("CSE", branchOf("a4"));
+        assertEquals("DECLINED", applicationRepo.findById("a2").orElseThrow().getStatus());
+        assertEquals(0, second.getSeatsLeft().get("B.Tech / CSE"));
+    }
+
+    @Test
+    public void engineIsDeterministicForAnyInputOrder() {
+        Random random = new Random(42);
+        List<SeatAllocationEngine.Candidate> candidates = new ArrayList<>();
+        String[] branches = {"CSE", "ECE", "ME", "CE"};
+        for (int i = 0; i < 2000; i++) {
+            // Coarse percentages so many applicants tie and the date/id tie-breaks matter
+            candidates.add(new SeatAllocationEngine.Candidate("id" + i, "B.Tech",
+                    branches[random.nextInt(branches.length)], branches[random.nextInt(branches.length)],
+                    i % 50 == 0 ? null : (double) (60 + random.nextInt(40)),
+                    LocalDate.of(2025, 1, 1).plusDays(random.nextInt(30))));
+        }
+        SeatMatrix seats = SeatMatrix.parse("B.Tech,CSE,300\nB.Tech,ECE,300\nB.Tech,ME,200\nB.Tech,CE,200");
+
+        SeatAllocationEngine engine = new SeatAllocationEngine();
+        List<String> expected = describe(engine.allocate(candidates, seats));
+        for (int run = 0; run < 5; run++) {
+            List<SeatAllocationEngine.Candidate> shuffled = new ArrayList<>(candidates);
+            Collections.shuffle(shuffled, random);
+            assertEquals(expected, describe(engine.allocate(shuffled, seats)));
+        }
+        assertEquals(1000, expected.size());
+        assertEquals(300, seats.getSeats("B.Tech", "CSE"));
+    }
+
+    @Test
+    public void rejectsMalformedSeatMatrix() {
+        assertThrows(IllegalArgumentException.class, () -> SeatMatrix.parse("B.Tech,CSE"));
+        assertThrows(IllegalArgumentException.class, () -> SeatMatrix.parse("B.Tech,CSE,many"));
+    }
+
+    private List<String> describe(List<SeatAllocationEngine.Allocation> allocations) {
+        return allocations.stream()
+                .map(a -> a.getApplicationId() + ":" + a.getBranch())
+                .collect(Collectors.toList());
+    }
+
+    private String branchOf(String id) {
+        return applicationRepo.findById(id).orElseThrow().getAllocatedBranch();
+    }
+
+    private void save(String id, double percentage, String branch1, String branch2, String status) {
+        UserApplication app = new UserApplication();
+        app.setId(id);
+        app.setUserEmail(id + "@example.com");
+        app.setCourse("B.Tech");
+        app.setBranch1(branch1);
+        app.setBranch2(branch2);
+        app.setPercentage12(percentage);
+        app.setSubmissionDate(LocalDate.of(2025, 6, 1));
+        app.setStatus(status);
+        applicationRepo.save(app);
+    }
+}
@@ -0,0 +1,176 @@
+package com.m4nas;
+
+import com.m4nas.config.CustomDisabledException;
+import com.m4nas.config.UserDetailsServiceImpl;
+import com.m4nas.model.Announcement;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.AnnouncementRepository;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.AnnouncementService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Accounts by email and announcement lists are served from the second-level
+ * cache after the first read, and writes through Hibernate invalidate them.
+ * Login reads the account from the database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+
+    private static final String EMAIL = "l2-cache@test.local";
+    private static final String CREATOR = "l2-teacher@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsServiceImpl;
+
+    private Statistics statistics;
+    private UserDtls user;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = new UserDtls();
+        user.setId("L2CACHEUSER00001");
+        user.setEmail(EMAIL);
+        user.setFullName("Kiran Rao");
+        user.setRole("ROLE_USER");
+        user.setEnable(true);
+        user.setProvider("local");
+        user = userRepo.save(user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        announcementRepository.deleteAll();
+        announcementService.refreshFeeds();
+        if (userRepo.existsById(user.getId())) {
+            userRepo.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    public void accountLookupByEmailIsServedFromCache() {
+        assertEquals("Kiran Rao", userRepo.findByEmail(EMAIL).getFullName());
+
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Kiran Rao", userRepo.findByEmail(EMAIL).getFullName());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() >= 5);
+
+        UserDtls stored = userRepo.findByEmail(EMAIL);
+        stored.setFullName("Kiran S. Rao");
+        userRepo.save(stored);
+        assertEquals("Kiran S. Rao", userRepo.findByEmail(EMAIL).getFullName());
+
+        userRepo.deleteById(user.getId());
+        assertNull(userRepo.findByEmail(EMAIL));
+        assertNull(userRepo.findByEmail(null));
+    }
+
+    @Test
+    public void loginReadsTheAccountPastTheCache() {
+        UserDtls cached = userRepo.findByEmail(EMAIL);
+        assertTrue(cached.isEnable());
+
+        // A change that did not go through Hibernate leaves the cached copy stale
+        jdbcTemplate.update("UPDATE user_dtls SET enable = false, password = 'changed-hash' WHERE email = ?", EMAIL);
+        assertTrue(userRepo.findByEmail(EMAIL).isEnable());
+
+        assertEquals("changed-hash", userRepo.findForLogin(EMAIL).getPassword());
+        assertThrows(CustomDisabledException.class, () -> userDetailsServiceImpl.loadUserByUsername(EMAIL));
+        entityManagerFactory.getCache().evict(UserDtls.class);
+    }
+
+    @Test
+    public void announcementListsAreServedFromQueryCacheUntilChanged() {
+        announcementService.saveAnnouncement(announcement("Hostel allotment", "STUDENT"));
+        assertEquals(1, announcementService.getAnnouncementsByCreator(CREATOR).size());
+
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, announcementService.getAnnouncementsByCreator(CREATOR).size());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(5, statistics.getQueryCacheHitCount());
+
+        Announcement added = announcementService.saveAnnouncement(announcement("Fee deadline", "ALL"));
+        assertEquals(2, announcementService.getAnnouncementsByCreator(CREATOR).size());
+
+        announcementService.deleteAnnouncement(added.getId());
+        assertEquals(1, announcementService.getAnnouncementsByCreator(CREATOR).size());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.local", authorities = "ROLE_ADMIN")
+    public void cacheRegionsArePublishedAsMetrics() throws Exception {
+        userRepo.findByEmail(EMAIL);
+        userRepo.findByEmail(EMAIL);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "user-accounts-by-email").functionCounter());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "announcements").functionCounter());
+        mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:user-accounts"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = EMAIL, authorities = "ROLE_USER")
+    public void metricsEndpointIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    }
+
+    private Announcement announcement(String title, String audience) {
+        Announcement announcement = new Announcement(title, title + " details", CREATOR, audience);
+        announcement.setAnnouncementType("GENERAL");
+        announcement.setCreatedAt(LocalDateTime.now());
+        announcement.setActive(true);
+        return announcement;
+    }
+}
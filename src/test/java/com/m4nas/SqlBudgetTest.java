@@ -0,0 +1,102 @@
+package com.m4nas;
+
+import com.m4nas.config.SqlBudgetExceededException;
+import com.m4nas.config.SqlBudgetFilter;
+import com.m4nas.repository.UserApplicationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Requests that repeat a query per row or run too many statements are
+ * flagged: strict mode throws, log mode only counts. The test profile runs
+ * the real filter in strict mode, so every MockMvc test doubles as a check.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SqlBudgetTest {
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void queryPerRowFailsInStrictMode() {
+        SqlBudgetFilter strict = filter("strict", 50, 3, new SimpleMeterRegistry());
+        FilterChain perRow = (request, response) -> {
+            for (int i = 0; i < 5; i++) {
+                applicationRepo.findByUserEmail("budget" + i + "@test.local");
+            }
+        };
+        SqlBudgetExceededException e = assertThrows(SqlBudgetExceededException.class, () -> run(strict, perRow));
+        assertTrue(e.getMessage().contains("same statement 5 times"), e.getMessage());
+
+        FilterChain batched = (request, response) -> applicationRepo.findAllById(List.of("a", "b", "c"));
+        assertDoesNotThrow(() -> run(strict, batched));
+    }
+
+    @Test
+    public void jdbcTemplateStatementsCountToo() {
+        SqlBudgetFilter strict = filter("strict", 50, 3, new SimpleMeterRegistry());
+        FilterChain perRow = (request, response) -> {
+            for (int i = 0; i < 5; i++) {
+                jdbcTemplate.queryForList("SELECT id FROM user_applications WHERE user_email = ?",
+                        String.class, "budget" + i + "@test.local");
+            }
+        };
+        SqlBudgetExceededException e = assertThrows(SqlBudgetExceededException.class, () -> run(strict, perRow));
+        assertTrue(e.getMessage().contains("same statement 5 times"), e.getMessage());
+    }
+
+    @Test
+    public void inListsOfAnySizeCountAsOneShape() {
+        SqlBudgetFilter strict = filter("strict", 50, 3, new SimpleMeterRegistry());
+        FilterChain growingLists = (request, response) -> {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                ids.add("id" + i);
+                applicationRepo.findAllById(ids);
+            }
+        };
+        assertThrows(SqlBudgetExceededException.class, () -> run(strict, growingLists));
+    }
+
+    @Test
+    public void logModeCountsWithoutFailing() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlBudgetFilter log = filter("log", 2, 10, registry);
+        run(log, (request, response) -> {
+            applicationRepo.count();
+            applicationRepo.findByUserEmail("budget@test.local");
+            applicationRepo.findAllById(List.of("a"));
+        });
+        assertEquals(1, registry.get("sql.budget.exceeded").tag("reason", "statements").counter().count());
+        assertEquals(0, registry.get("sql.budget.exceeded").tag("reason", "repeats").counter().count());
+    }
+
+    private static SqlBudgetFilter filter(String mode, int maxStatements, int maxRepeats, SimpleMeterRegistry registry) {
+        return new SqlBudgetFilter(mode, maxStatements, maxRepeats, List.of(), registry);
+    }
+
+    private static void run(SqlBudgetFilter filter, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/teacher/applications");
+        request.setServletPath("/teacher/applications");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
@@ -0,0 +1,76 @@
+package com.m4nas;
+
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.StudentNameServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Names are cached after the first lookup, and a lookup that read a name
+ * before it was evicted does not put the old name back.
+ */
+public class StudentNameCacheTest {
+
+    private static final String EMAIL = "names@test.local";
+
+    @Test
+    public void namesAreCachedUntilEvicted() {
+        UserRepository userRepo = mock(UserRepository.class);
+        AtomicReference<String> storedName = new AtomicReference<>("Asha Verma");
+        when(userRepo.findNamesByEmailIn(anyCollection()))
+                .thenAnswer(invocation -> List.<Object[]>of(new Object[] { EMAIL, storedName.get() }));
+        StudentNameServiceImpl names = new StudentNameServiceImpl(userRepo, 100);
+
+        assertEquals("Asha Verma", names.getStudentNames(List.of(EMAIL)).get(EMAIL));
+        assertEquals("Asha Verma", names.getStudentNames(List.of(EMAIL)).get(EMAIL));
+        verify(userRepo, times(1)).findNamesByEmailIn(anyCollection());
+
+        storedName.set("Asha V. Rao");
+        names.evict(EMAIL);
+        assertEquals("Asha V. Rao", names.getStudentNames(List.of(EMAIL)).get(EMAIL));
+    }
+
+    @Test
+    public void lookupOverlappingAnEvictDoesNotCacheTheOldName() throws Exception {
+        UserRepository userRepo = mock(UserRepository.class);
+        AtomicReference<String> storedName = new AtomicReference<>("Asha Verma");
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        when(userRepo.findNamesByEmailIn(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> rows = List.<Object[]>of(new Object[] { EMAIL, storedName.get() });
+            if (read.getCount() > 0) {
+                read.countDown();
+                assertTrue(evicted.await(5, TimeUnit.SECONDS));
+            }
+            return rows;
+        });
+        StudentNameServiceImpl names = new StudentNameServiceImpl(userRepo, 100);
+
+        CompletableFuture<Map<String, String>> slowLookup =
+                CompletableFuture.supplyAsync(() -> names.getStudentNames(List.of(EMAIL)));
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        storedName.set("Asha V. Rao");
+        names.evict(EMAIL);
+        evicted.countDown();
+
+        // The overlapping lookup answers with what it read, but only the new name is cached
+        assertEquals("Asha Verma", slowLookup.get(5, TimeUnit.SECONDS).get(EMAIL));
+        assertEquals("Asha V. Rao", names.getStudentNames(List.of(EMAIL)).get(EMAIL));
+        assertEquals("Asha V. Rao", names.getStudentNames(List.of(EMAIL)).get(EMAIL));
+        verify(userRepo, times(2)).findNamesByEmailIn(anyCollection());
+    }
+}
@@ -0,0 +1,123 @@
+package com.m4nas;
+
+import com.m4nas.model.UserApplication;
+import com.m4nas.model.UserDtls;
+import com.m4nas.repository.UserApplicationRepository;
+import com.m4nas.repository.UserRepository;
+import com.m4nas.service.CurrentUserService;
+import com.m4nas.util.RandomString;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that the teacher list pages issue the same number of SQL statements
+ * no matter how many applications are rendered (no per-row user lookups).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = TeacherPageQueryCountTest.TEACHER_EMAIL, authorities = "ROLE_TEACHER")
+public class TeacherPageQueryCountTest {
+
+    static final String TEACHER_EMAIL = "teacher@test.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private UserApplicationRepository applicationRepo;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        if (userRepo.findByEmail(TEACHER_EMAIL) == null) {
+            userRepo.save(user(TEACHER_EMAIL, "Test Teacher", "ROLE_TEACHER"));
+        }
+        // Both measurements should find the signed-in account already cached
+        currentUserService.getUser(TEACHER_EMAIL);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        applicationRepo.deleteAll();
+        userRepo.findByRole("ROLE_USER").forEach(userRepo::delete);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/teacher/", "/teacher/applications", "/teacher/applications/status?status=SUBMITTED",
+            "/teacher/seat-management"})
+    public void pageStatementCountDoesNotGrowWithRowCount(String page) throws Exception {
+        seedStudents(5);
+        long small = statementsFor(page);
+
+        seedStudents(50);
+        long large = statementsFor(page);
+
+        assertEquals(small, large, "SQL statement count for " + page + " grew with the number of rows");
+    }
+
+    private long statementsFor(String page) throws Exception {
+        // Start both measurements from an empty second-level/query cache
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+        mockMvc.perform(get(page)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedStudents(int count) {
+        for (int i = 0; i < count; i++) {
+            String email = "student" + RandomString.generateUserId() + "@test.local";
+            UserDtls student = userRepo.save(user(email, "Student " + i, "ROLE_USER"));
+
+            UserApplication app = new UserApplication();
+            app.setId(student.getId());
+            app.setUserEmail(email);
+            app.setCourse("BTECH");
+            app.setBranch1("CSE");
+            app.setStatus("SUBMITTED");
+            app.setPercentage12(60.0 + i % 40);
+            app.setSubmissionDate(LocalDate.now().minusDays(i));
+            applicationRepo.save(app);
+        }
+    }
+
+    private static UserDtls user(String email, String name, String role) {
+        UserDtls user = new UserDtls();
+        user.setId(RandomString.generateUserId());
+        user.setEmail(email);
+        user.setFullName(name);
+        user.setRole(role);
+        user.setEnable(true);
+        user.setProvider("local");
+        return user;
+    }
+}
@@ -0,0 +1,32 @@
+package com.m4nas;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Polling for tests that wait on background work (outbox workers, thumbnail
+ * pool, password hashing pool).
+ */
+final class TestAwait {
+
+    private static final long TIMEOUT_MILLIS = 30000;
+    private static final long POLL_MILLIS = 10;
+
+    private TestAwait() {
+    }
+
+    /** Polls the condition until it holds, failing the test after 30s. */
+    static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within " + TIMEOUT_MILLIS / 1000 + "s");
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}